@@ -0,0 +1,75 @@
+package com.packvc.founderfinder;
+
+import org.jsoup.nodes.Document;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the checks WikipediaFetcher runs while resolving a company:
+ * article validation and picking the first usable search result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArticleResolutionBenchmark {
+
+    private List<PageBody> articles;
+    private List<PageBody> searchPages;
+    private List<Document> parsedArticles;
+    private List<Document> parsedSearchPages;
+
+    @Setup(Level.Trial)
+    public void loadCorpus() throws IOException {
+        FixtureCorpus.silenceStdout();
+        FixtureCorpus corpus = FixtureCorpus.load();
+        articles = corpus.articles();
+        searchPages = corpus.searchPages();
+        parsedArticles = parseAll(articles);
+        parsedSearchPages = parseAll(searchPages);
+    }
+
+    private static List<Document> parseAll(List<PageBody> pages) throws IOException {
+        List<Document> docs = new ArrayList<>();
+        for (PageBody page : pages) {
+            docs.add(page.parse());
+        }
+        return docs;
+    }
+
+    @Benchmark
+    public void isValidArticle(Blackhole blackhole) {
+        for (Document doc : parsedArticles) {
+            blackhole.consume(WikipediaFetcher.isValidArticle(doc, doc.title()));
+        }
+    }
+
+    @Benchmark
+    public void parseAndValidateArticle(Blackhole blackhole) throws IOException {
+        for (PageBody article : articles) {
+            Document doc = article.parse();
+            blackhole.consume(WikipediaFetcher.isValidArticle(doc, doc.title()));
+        }
+    }
+
+    @Benchmark
+    public void extractFirstArticleLink(Blackhole blackhole) {
+        for (Document doc : parsedSearchPages) {
+            blackhole.consume(WikipediaFetcher.extractFirstArticleLink(doc));
+        }
+    }
+
+    @Benchmark
+    public void parseSearchAndExtractLink(Blackhole blackhole) throws IOException {
+        for (PageBody page : searchPages) {
+            blackhole.consume(WikipediaFetcher.extractFirstArticleLink(page.parse()));
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.packvc.founderfinder;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Throughput of CompanyParser on large generated input files: parseFile into a
+ * list, and sequential and parallel streams.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompanyParserBenchmark {
+
+    @Param({"1000000"})
+    public int lines;
+
+    private Path input;
+
+    @Setup(Level.Trial)
+    public void writeInput() throws IOException {
+        FixtureCorpus.silenceStdout();
+        input = Files.createTempFile("companies", ".txt");
+        try (BufferedWriter writer = Files.newBufferedWriter(input, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < lines; i++) {
+                switch (i % 4) {
+                    case 0:
+                        writer.write("Company " + i + " (https://www.company" + i + ".com/)");
+                        break;
+                    case 1:
+                        writer.write("Company " + i);
+                        break;
+                    case 2:
+                        writer.write("  Company (Holdings) " + i + "  (https://example.com/c/" + i + ")  ");
+                        break;
+                    default:
+                        writer.write("");
+                        break;
+                }
+                writer.newLine();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteInput() throws IOException {
+        Files.deleteIfExists(input);
+    }
+
+    @Benchmark
+    public List<Company> parseFile() throws IOException {
+        return CompanyParser.parseFile(input.toString());
+    }
+
+    @Benchmark
+    public long stream() throws IOException {
+        try (Stream<Company> companies = CompanyParser.stream(input)) {
+            return companies.count();
+        }
+    }
+
+    @Benchmark
+    public long parallelStream() throws IOException {
+        try (Stream<Company> companies = CompanyParser.stream(input, true)) {
+            return companies.count();
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.packvc.founderfinder;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Drives a full batch run of {@link Main} against a {@link ReplayWikipedia} in this
+ * JVM and reports companies per second, per-company latency percentiles and peak heap.
+ * By default it builds a synthetic archive and input of N companies from the fixture
+ * corpus: most resolve through their direct slug, and those whose page is not a
+ * usable article fall back to a search page linking to one. Pass --archive and
+ * --input to replay a run recorded with --record instead.
+ * <p>
+ * Arguments after "--" are passed to Main, e.g. "-- --resolver api".
+ * <p>
+ * Usage: java -cp target/benchmarks.jar com.packvc.founderfinder.EndToEndThroughput
+ *        [--companies N] [--workers W] [--latency-ms L] [--jitter-ms J] [--error-rate R]
+ *        [--archive DIR --input FILE] [-- MAIN_OPTIONS]
+ */
+public class EndToEndThroughput {
+
+    // Link in the bundled search page that is pointed at each company's article
+    private static final String SEARCH_RESULT_HREF = "/wiki/Stripe,_Inc.";
+
+    public static void main(String[] args) throws Exception {
+        int companies = 10_000;
+        int workers = 16;
+        long latencyMillis = 50;
+        long jitterMillis = 25;
+        double errorRate = 0;
+        Path archiveDir = null;
+        Path input = null;
+        List<String> mainOptions = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--companies": companies = Integer.parseInt(args[++i]); break;
+                case "--workers": workers = Integer.parseInt(args[++i]); break;
+                case "--latency-ms": latencyMillis = Long.parseLong(args[++i]); break;
+                case "--jitter-ms": jitterMillis = Long.parseLong(args[++i]); break;
+                case "--error-rate": errorRate = Double.parseDouble(args[++i]); break;
+                case "--archive": archiveDir = Paths.get(args[++i]); break;
+                case "--input": input = Paths.get(args[++i]); break;
+                case "--":
+                    mainOptions.addAll(Arrays.asList(args).subList(i + 1, args.length));
+                    i = args.length;
+                    break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(1);
+            }
+        }
+        if ((archiveDir == null) != (input == null)) {
+            System.err.println("--archive and --input go together");
+            System.exit(1);
+        }
+
+        Path directory = Files.createTempDirectory("end-to-end");
+        ReplayWikipedia stub = null;
+        try {
+            if (archiveDir == null) {
+                archiveDir = directory.resolve("archive");
+                input = directory.resolve("companies.txt");
+                long start = System.nanoTime();
+                writeSyntheticRun(new ResponseArchive(archiveDir), input, companies);
+                System.out.printf(Locale.ROOT, "Built a synthetic archive of %,d companies in %.0f ms%n",
+                                  companies, (System.nanoTime() - start) / 1e6);
+            }
+            stub = new ReplayWikipedia(new ResponseArchive(archiveDir), 0, latencyMillis, jitterMillis, errorRate);
+            System.out.printf(Locale.ROOT, "Replaying %,d responses: latency %d ms + up to %d ms, error rate %.3f, %d workers%n",
+                              stub.size(), latencyMillis, jitterMillis, errorRate, workers);
+
+            List<String> mainArgs = new ArrayList<>(Arrays.asList(
+                input.toString(), directory.resolve("founders.json").toString(),
+                "--wiki-base", stub.getBaseUrl(),
+                "--workers", Integer.toString(workers),
+                // The stub is local, so only the workers limit the request rate
+                "--rate", "1000000", "--burst", "1000000",
+                "--log-level", "error"));
+            mainArgs.addAll(mainOptions);
+
+            Metrics.reset();
+            List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP) {
+                    pool.resetPeakUsage();
+                    heapPools.add(pool);
+                }
+            }
+            long start = System.nanoTime();
+            Main.main(mainArgs.toArray(new String[0]));
+            long elapsed = System.nanoTime() - start;
+            long peakHeap = 0;
+            for (MemoryPoolMXBean pool : heapPools) {
+                peakHeap += pool.getPeakUsage().getUsed();
+            }
+
+            Metrics.Histogram latency = Metrics.getHistogram(Metrics.Stage.COMPANY);
+            System.out.printf(Locale.ROOT, "Companies: %,d in %.1f s (%.1f/s), %d with founders, %d errors%n",
+                              latency.getCount(), elapsed / 1e9, latency.getCount() / (elapsed / 1e9),
+                              Metrics.get(Metrics.Counter.COMPANIES_WITH_FOUNDERS),
+                              Metrics.get(Metrics.Counter.COMPANY_ERRORS));
+            System.out.printf(Locale.ROOT, "Per-company latency ms: mean %.1f, p50 %.1f, p90 %.1f, p99 %.1f, max %.1f%n",
+                              latency.getMean() / 1e6, latency.getPercentile(50) / 1e6,
+                              latency.getPercentile(90) / 1e6, latency.getPercentile(99) / 1e6,
+                              latency.getMax() / 1e6);
+            System.out.printf(Locale.ROOT, "Peak heap: %.1f MB (max %.1f MB)%n",
+                              peakHeap / 1048576.0, Runtime.getRuntime().maxMemory() / 1048576.0);
+            System.out.printf(Locale.ROOT, "Stub requests: %,d, %,d missing from the archive, %,d injected errors; retries: %d%n",
+                              stub.getRequests(), stub.getMisses(), stub.getInjectedErrors(),
+                              Metrics.get(Metrics.Counter.HTTP_RETRIES));
+        } finally {
+            if (stub != null) {
+                stub.stop();
+            }
+            deleteTree(directory);
+        }
+        // Main leaves the shared HTTP client's threads behind
+        System.exit(0);
+    }
+
+    /**
+     * Writes an input file of synthetic companies and the archive answering them.
+     * Each company's direct slug serves a corpus article in turn; the search page
+     * every company also gets links to a copy of the first article under its own
+     * title, so companies whose direct page is rejected still resolve. Bodies are
+     * stored once and shared by every target serving them.
+     */
+    static void writeSyntheticRun(ResponseArchive archive, Path input, int companies) throws IOException {
+        FixtureCorpus corpus = FixtureCorpus.load();
+        List<String> articleHashes = new ArrayList<>();
+        for (PageBody article : corpus.articles()) {
+            articleHashes.add(archive.storeBody(article.getBody()));
+        }
+        String searchTemplate = new String(corpus.searchPages().get(0).getBody(), StandardCharsets.UTF_8);
+        String contentType = "text/html; charset=UTF-8";
+
+        try (Writer writer = Files.newBufferedWriter(input, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < companies; i++) {
+                String name = "Synthetic Company " + i;
+                String slug = name.replace(' ', '_');
+                writer.write(name + "\n");
+
+                archive.store(new ResponseArchive.Entry("/wiki/" + slug, 200, null, contentType, null, null,
+                                                        articleHashes.get(i % articleHashes.size())));
+                String articleTarget = "/wiki/" + slug + "_(company)";
+                archive.store(new ResponseArchive.Entry(articleTarget, 200, null, contentType, null, null,
+                                                        articleHashes.get(0)));
+                String search = searchTemplate.replace(SEARCH_RESULT_HREF, articleTarget);
+                archive.store(new ResponseArchive.Entry(
+                    "/w/index.php?search=" + URLEncoder.encode(name, StandardCharsets.UTF_8), 200, null,
+                    contentType, null, null, archive.storeBody(search.getBytes(StandardCharsets.UTF_8))));
+            }
+        }
+    }
+
+    private static void deleteTree(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
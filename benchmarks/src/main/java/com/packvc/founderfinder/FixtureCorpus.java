@@ -0,0 +1,122 @@
+package com.packvc.founderfinder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Saved Wikipedia pages used as benchmark input.
+ * The bundled fixtures are listed in fixtures/index.txt; their body marker is replaced with
+ * filler paragraphs so each article is about as large as a real company article.
+ * Set -Dfixtures.dir=DIR to benchmark against your own saved *.html articles instead.
+ */
+public final class FixtureCorpus {
+
+    private static final String BODY_MARKER = "<!-- ARTICLE_BODY -->";
+    private static final int DEFAULT_ARTICLE_BYTES = 400 * 1024;
+
+    private final List<PageBody> articles = new ArrayList<>();
+    private final List<PageBody> searchPages = new ArrayList<>();
+
+    private FixtureCorpus() {
+    }
+
+    /**
+     * Loads the corpus, honouring -Dfixtures.dir and -Dfixtures.articleBytes.
+     */
+    public static FixtureCorpus load() {
+        FixtureCorpus corpus = new FixtureCorpus();
+        int articleBytes = Integer.getInteger("fixtures.articleBytes", DEFAULT_ARTICLE_BYTES);
+        String externalDir = System.getProperty("fixtures.dir");
+
+        try {
+            if (externalDir != null) {
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(Paths.get(externalDir), "*.html")) {
+                    for (Path file : files) {
+                        corpus.articles.add(page(file.getFileName().toString(), Files.readAllBytes(file)));
+                    }
+                }
+            }
+
+            for (String line : readLines("/fixtures/index.txt")) {
+                String[] parts = line.split("\\s+", 2);
+                String html = new String(readResource("/fixtures/" + parts[1]), StandardCharsets.UTF_8);
+                if (parts[0].equals("search")) {
+                    corpus.searchPages.add(page(parts[1], html.getBytes(StandardCharsets.UTF_8)));
+                } else if (externalDir == null) {
+                    corpus.articles.add(page(parts[1], pad(html, articleBytes).getBytes(StandardCharsets.UTF_8)));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return corpus;
+    }
+
+    public List<PageBody> articles() {
+        return articles;
+    }
+
+    public List<PageBody> searchPages() {
+        return searchPages;
+    }
+
+    /**
+     * Returns the non-comment lines of a classpath text resource.
+     */
+    public static List<String> readLines(String resource) throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (String line : new String(readResource(resource), StandardCharsets.UTF_8).split("\n")) {
+            if (!line.isEmpty() && !line.startsWith("#")) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Discards stdout in the benchmark JVM so per-company logging does not skew results.
+     */
+    public static void silenceStdout() {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    private static PageBody page(String name, byte[] body) {
+        return new PageBody("https://en.wikipedia.org/wiki/" + name, body, "UTF-8", null, null);
+    }
+
+    private static byte[] readResource(String resource) throws IOException {
+        try (InputStream in = FixtureCorpus.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IOException("Missing fixture: " + resource);
+            }
+            return in.readAllBytes();
+        }
+    }
+
+    private static String pad(String html, int targetBytes) {
+        StringBuilder filler = new StringBuilder();
+        int section = 0;
+        while (html.length() + filler.length() < targetBytes) {
+            section++;
+            filler.append("<h2><span class=\"mw-headline\" id=\"Section_").append(section).append("\">Section ")
+                .append(section).append("</span></h2>\n<p>The company expanded into new markets during this period, ")
+                .append("raising additional funding rounds from <a href=\"/wiki/Venture_capital\" title=\"Venture capital\">")
+                .append("venture capital</a> firms and growing its workforce.<sup id=\"cite_ref-").append(section)
+                .append("\" class=\"reference\"><a href=\"#cite_note-").append(section)
+                .append("\">&#91;").append(section).append("&#93;</a></sup> Analysts noted that revenue growth ")
+                .append("outpaced the wider industry, while regulators in several cities examined its practices.</p>\n")
+                .append("<table class=\"wikitable\"><tbody><tr><th>Year</th><th>Revenue</th></tr><tr><td>")
+                .append(2000 + section % 24).append("</td><td>").append(section * 17).append(" million</td></tr></tbody></table>\n");
+        }
+        return html.replace(BODY_MARKER, filler);
+    }
+}
@@ -0,0 +1,118 @@
+package com.packvc.founderfinder;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Founder extraction over the whole fixture corpus per operation:
+ * the full Jsoup DOM path versus the streaming infobox-only path.
+ * The bytesRead counter shows how much of each article each path consumes.
+ * The row benchmarks time the infobox walk alone on already parsed infoboxes:
+ * the alias-driven scanner against a per-row selector walk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FounderExtractorBenchmark {
+
+    private List<PageBody> articles;
+    private List<Element> infoboxes;
+    private long totalBytes;
+    private long streamedBytes;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class ReadCounters {
+        public long bytesRead;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytesRead = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void loadCorpus() throws IOException {
+        FixtureCorpus.silenceStdout();
+        articles = FixtureCorpus.load().articles();
+        for (PageBody article : articles) {
+            totalBytes += article.getBody().length;
+            streamedBytes += InfoboxStreamExtractor.scan(
+                new ByteArrayInputStream(article.getBody()), StandardCharsets.UTF_8).getBytesRead();
+        }
+        infoboxes = new ArrayList<>();
+        for (PageBody article : articles) {
+            Element infobox = article.parse().selectFirst("table.infobox");
+            if (infobox != null) {
+                infoboxes.add(infobox);
+            }
+        }
+    }
+
+    @Benchmark
+    public void domExtraction(ReadCounters counters, Blackhole blackhole) throws IOException {
+        for (PageBody article : articles) {
+            Document doc = article.parse();
+            blackhole.consume(FounderExtractor.extractFounders(doc, article.getUrl()));
+        }
+        counters.bytesRead += totalBytes;
+    }
+
+    @Benchmark
+    public void streamingExtraction(ReadCounters counters, Blackhole blackhole) throws IOException {
+        for (PageBody article : articles) {
+            blackhole.consume(FounderExtractor.extractFounders(article, article.getUrl()));
+        }
+        counters.bytesRead += streamedBytes;
+    }
+
+    @Benchmark
+    public void infoboxScan(Blackhole blackhole) {
+        for (Element infobox : infoboxes) {
+            InfoboxScanner.Fields fields = InfoboxScanner.scan(infobox);
+            blackhole.consume(fields.getCell(InfoboxScanner.Field.FOUNDERS));
+            blackhole.consume(fields.getCell(InfoboxScanner.Field.WEBSITE));
+        }
+    }
+
+    /**
+     * Baseline: selector queries on every row and a linear header check, one walk per field.
+     */
+    @Benchmark
+    public void selectorRowWalk(Blackhole blackhole) {
+        for (Element infobox : infoboxes) {
+            blackhole.consume(selectRow(infobox, "Founder(s)", "Founders", "Founder"));
+            blackhole.consume(selectRow(infobox, "Website", "Official website", "Web site", "URL"));
+        }
+    }
+
+    private static Element selectRow(Element infobox, String... headers) {
+        for (Element row : infobox.select("tr")) {
+            Elements th = row.select("th");
+            Elements td = row.select("td");
+            if (th.isEmpty() || td.isEmpty()) {
+                continue;
+            }
+            String text = th.first().text().trim();
+            for (String header : headers) {
+                if (text.equalsIgnoreCase(header)) {
+                    return td.first();
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,145 @@
+package com.packvc.founderfinder;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What a downstream service pays to answer "who founded X" and "which companies
+ * did Y found" from a run's output: parsing founders.json with Gson into a map and
+ * building the reverse map from it, against opening the founder store written next
+ * to it. Lookups are timed on both once loaded. The GC profiler's gc.alloc.rate.norm
+ * shows the bytes each load allocates; {@link FounderStoreFootprint} measures what
+ * stays on the heap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FounderStoreBenchmark {
+
+    private static final Type RESULTS = new TypeToken<Map<String, List<String>>>() {}.getType();
+
+    @Param({"200000"})
+    public int companies;
+
+    private Path directory;
+    private Path json;
+    private Path store;
+
+    private Map<String, List<String>> foundersByCompany;
+    private Map<String, List<String>> companiesByFounder;
+    private FounderStore founderStore;
+    private String[] companyKeys;
+    private String[] founderKeys;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void writeResults() throws IOException {
+        FixtureCorpus.silenceStdout();
+        Log.setLevel(Log.Level.ERROR);
+        directory = Files.createTempDirectory("founder-store");
+        json = directory.resolve("founders.json");
+        store = directory.resolve("founders.ffs");
+        writeSyntheticResults(json, store, companies);
+
+        foundersByCompany = loadJson(json);
+        companiesByFounder = reverse(foundersByCompany);
+        founderStore = FounderStore.open(store);
+        Random random = new Random(42);
+        companyKeys = new String[1024];
+        founderKeys = new String[1024];
+        List<String> companyNames = new ArrayList<>(foundersByCompany.keySet());
+        List<String> founderNames = new ArrayList<>(companiesByFounder.keySet());
+        for (int i = 0; i < companyKeys.length; i++) {
+            companyKeys[i] = companyNames.get(random.nextInt(companyNames.size()));
+            founderKeys[i] = founderNames.get(random.nextInt(founderNames.size()));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteResults() throws IOException {
+        Files.deleteIfExists(json);
+        Files.deleteIfExists(store);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Map<String, List<String>> loadJsonWithGson() throws IOException {
+        return reverse(loadJson(json));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public FounderStore openStore() throws IOException {
+        return FounderStore.open(store);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public int lookupJsonMaps() {
+        int i = next++ & 1023;
+        return foundersByCompany.get(companyKeys[i]).size() + companiesByFounder.get(founderKeys[i]).size();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public int lookupStore() {
+        int i = next++ & 1023;
+        return founderStore.getFounders(companyKeys[i]).size() + founderStore.getCompanies(founderKeys[i]).size();
+    }
+
+    /**
+     * Writes founders.json and its store through {@link ResultWriter}, as a run does.
+     * Most companies have one to three founders drawn from a pool a third the size of
+     * the company list, so serial founders appear under several companies; one in
+     * five has none.
+     */
+    static void writeSyntheticResults(Path json, Path store, int companies) throws IOException {
+        Random random = new Random(7);
+        try (ResultWriter writer = ResultWriter.open(ResultWriter.Format.JSON, json, false)) {
+            writer.writeStoreTo(store);
+            for (int i = 0; i < companies; i++) {
+                List<String> founders = new ArrayList<>();
+                int count = i % 5 == 0 ? 0 : 1 + random.nextInt(3);
+                for (int f = 0; f < count; f++) {
+                    founders.add("Founder " + random.nextInt(Math.max(1, companies / 3)) + " Person");
+                }
+                writer.write("Company " + i + " Holdings", founders);
+            }
+        }
+    }
+
+    /**
+     * Parses founders.json into a map, as downstream services do today.
+     */
+    static Map<String, List<String>> loadJson(Path json) throws IOException {
+        try (Reader reader = Files.newBufferedReader(json, StandardCharsets.UTF_8)) {
+            return new Gson().fromJson(reader, RESULTS);
+        }
+    }
+
+    /**
+     * Builds the founder to companies map that answers the reverse question.
+     */
+    static Map<String, List<String>> reverse(Map<String, List<String>> foundersByCompany) {
+        Map<String, List<String>> companiesByFounder = new HashMap<>();
+        for (Map.Entry<String, List<String>> entry : foundersByCompany.entrySet()) {
+            for (String founder : entry.getValue()) {
+                companiesByFounder.computeIfAbsent(founder, f -> new ArrayList<>()).add(entry.getKey());
+            }
+        }
+        return companiesByFounder;
+    }
+}
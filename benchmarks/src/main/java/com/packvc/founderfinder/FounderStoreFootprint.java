@@ -0,0 +1,95 @@
+package com.packvc.founderfinder;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reports the file size, first-load time and retained heap of founders.json parsed
+ * with Gson (plus the reverse map) against the founder store, on the same synthetic
+ * results as {@link FounderStoreBenchmark}. Each representation is loaded in this
+ * JVM while the other is unreachable, and heap use is read after a full GC. Run with
+ * a fixed heap (-Xms equal to -Xmx) for steadier numbers.
+ * <p>
+ * Usage: java -cp target/benchmarks.jar com.packvc.founderfinder.FounderStoreFootprint [--companies N]
+ */
+public class FounderStoreFootprint {
+
+    public static void main(String[] args) throws Exception {
+        int companies = 1_000_000;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--companies": companies = Integer.parseInt(args[++i]); break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(1);
+            }
+        }
+
+        Log.setLevel(Log.Level.ERROR);
+        Path directory = Files.createTempDirectory("founder-store");
+        Path json = directory.resolve("founders.json");
+        Path store = directory.resolve("founders.ffs");
+        try {
+            long start = System.nanoTime();
+            FounderStoreBenchmark.writeSyntheticResults(json, store, companies);
+            System.out.printf(Locale.ROOT, "Wrote %,d companies in %.0f ms%n", companies, (System.nanoTime() - start) / 1e6);
+            System.out.printf(Locale.ROOT, "%-12s %12s %12s %14s%n", "", "file MB", "load ms", "retained MB");
+            measureJson(json);
+            measureStore(store);
+        } finally {
+            Files.deleteIfExists(json);
+            Files.deleteIfExists(store);
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    private static void measureJson(Path json) throws IOException {
+        long before = usedHeap();
+        long start = System.nanoTime();
+        Map<String, List<String>> foundersByCompany = FounderStoreBenchmark.loadJson(json);
+        Map<String, List<String>> companiesByFounder = FounderStoreBenchmark.reverse(foundersByCompany);
+        long elapsed = System.nanoTime() - start;
+        long retained = usedHeap() - before;
+        print("Gson maps", Files.size(json), elapsed, retained);
+        // Keeps both maps reachable until the heap has been measured
+        if (foundersByCompany.size() + companiesByFounder.size() < 0) {
+            throw new IllegalStateException();
+        }
+    }
+
+    private static void measureStore(Path store) throws IOException {
+        long before = usedHeap();
+        long start = System.nanoTime();
+        FounderStore founderStore = FounderStore.open(store);
+        long elapsed = System.nanoTime() - start;
+        long retained = usedHeap() - before;
+        print("Store", Files.size(store), elapsed, retained);
+        if (founderStore.getCompanyCount() < 0) {
+            throw new IllegalStateException();
+        }
+    }
+
+    private static void print(String label, long fileBytes, long elapsedNanos, long retainedBytes) {
+        System.out.printf(Locale.ROOT, "%-12s %12.1f %12.1f %14.1f%n", label, fileBytes / 1048576.0,
+                          elapsedNanos / 1e6, Math.max(0, retainedBytes) / 1048576.0);
+    }
+
+    /**
+     * Returns the heap in use after full collections have settled.
+     */
+    private static long usedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            used = Math.min(used, memory.getHeapMemoryUsage().getUsed());
+        }
+        return used;
+    }
+}
@@ -0,0 +1,43 @@
+package com.packvc.founderfinder;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of normalizing and validating the founder candidates in fixtures/names.txt.
+ * One operation covers the whole list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NameNormalizationBenchmark {
+
+    private List<String> names;
+    private String cellHtml;
+
+    @Setup(Level.Trial)
+    public void loadNames() throws IOException {
+        names = FixtureCorpus.readLines("/fixtures/names.txt");
+        cellHtml = "<a href=\"/wiki/X\">" + String.join("</a><br><a href=\"/wiki/X\">", names) + "</a>";
+    }
+
+    @Benchmark
+    public void normalizeAndValidate(Blackhole blackhole) {
+        for (String name : names) {
+            String normalized = FounderExtractor.normalizeName(name);
+            blackhole.consume(FounderExtractor.isValidPersonName(normalized));
+        }
+    }
+
+    @Benchmark
+    public List<String> splitCellHtml() {
+        return FounderExtractor.splitCellHtml(cellHtml);
+    }
+}
@@ -0,0 +1,78 @@
+package com.packvc.founderfinder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks {@link FounderExtractor#normalizeName} and {@link FounderExtractor#isValidPersonName}
+ * against fixtures/names.golden, which records what the original regex implementation
+ * returned for every line of fixtures/names.txt and fixtures/name-edge-cases.txt. The
+ * benchmarks build runs it, so a scanner change that alters any result fails the build.
+ * <p>
+ * Each golden line is the input, the normalized name and whether it is a valid person
+ * name, separated by tabs. Backslashes, tabs, line breaks and other invisible characters
+ * are written as Java escapes, so whitespace handling shows up in a diff. When a change
+ * in behavior is intended, edit the affected golden lines by hand.
+ * <p>
+ * Usage: java -cp target/benchmarks.jar com.packvc.founderfinder.NameNormalizationGolden
+ */
+public class NameNormalizationGolden {
+
+    static final String[] INPUTS = {"/fixtures/names.txt", "/fixtures/name-edge-cases.txt"};
+    static final String GOLDEN = "/fixtures/names.golden";
+
+    public static void main(String[] args) throws IOException {
+        List<String> inputs = new ArrayList<>();
+        for (String resource : INPUTS) {
+            inputs.addAll(FixtureCorpus.readLines(resource));
+        }
+        List<String> golden = FixtureCorpus.readLines(GOLDEN);
+        if (golden.size() != inputs.size()) {
+            throw new IllegalStateException(GOLDEN + " has " + golden.size() + " lines for " + inputs.size() + " inputs");
+        }
+
+        List<String> mismatches = new ArrayList<>();
+        for (int i = 0; i < inputs.size(); i++) {
+            String input = inputs.get(i);
+            String normalized = FounderExtractor.normalizeName(input);
+            String actual = goldenLine(input, normalized, FounderExtractor.isValidPersonName(normalized));
+            if (!actual.equals(golden.get(i))) {
+                mismatches.add("  expected: " + golden.get(i) + "\n  actual:   " + actual);
+            }
+        }
+        if (!mismatches.isEmpty()) {
+            throw new IllegalStateException(mismatches.size() + " of " + inputs.size() + " names differ from " + GOLDEN
+                                            + ":\n" + String.join("\n", mismatches));
+        }
+        System.out.println("Name normalization matches " + GOLDEN + " for " + inputs.size() + " names");
+    }
+
+    /**
+     * Formats one golden line.
+     */
+    static String goldenLine(String input, String normalized, boolean valid) {
+        return escape(input) + '\t' + escape(normalized) + '\t' + valid;
+    }
+
+    private static String escape(String text) {
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\') {
+                escaped.append("\\\\");
+            } else if (c == '\t') {
+                escaped.append("\\t");
+            } else if (c == '\r') {
+                escaped.append("\\r");
+            } else if (c == '\n') {
+                escaped.append("\\n");
+            } else if (c != ' ' && (Character.isWhitespace(c) || Character.isSpaceChar(c) || Character.isISOControl(c))) {
+                escaped.append(String.format("\\u%04x", (int) c));
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,207 @@
+package com.packvc.founderfinder;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for Wikipedia that replays a {@link ResponseArchive}, as recorded
+ * with --record or built by {@link EndToEndThroughput}. Each response is delayed by
+ * a fixed latency plus uniform jitter, and a configurable fraction of requests is
+ * answered with 503 instead, to exercise retries and the circuit breaker. Targets
+ * missing from the archive are answered with 404.
+ * <p>
+ * Bodies are sent gzip-compressed, as stored, to clients that accept it.
+ * <p>
+ * Usage: java -cp target/benchmarks.jar com.packvc.founderfinder.ReplayWikipedia --archive DIR
+ *        [--port P] [--latency-ms L] [--jitter-ms J] [--error-rate R]
+ */
+public class ReplayWikipedia {
+
+    private final HttpServer server;
+    private final ExecutorService handlers = Executors.newCachedThreadPool();
+    private final ResponseArchive archive;
+    private final Map<String, ResponseArchive.Entry> entries = new HashMap<>();
+    private final long latencyMillis;
+    private final long jitterMillis;
+    private final double errorRate;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+
+    /**
+     * Loads the archive's index, binds the stub and starts it. Bodies stay on disk.
+     *
+     * @param archive Archive to replay
+     * @param port Port to listen on, or 0 for a free one
+     * @param latencyMillis Fixed delay before each response
+     * @param jitterMillis Largest extra delay, drawn uniformly per request
+     * @param errorRate Fraction of requests answered with 503, between 0 and 1
+     * @throws IOException if the archive cannot be read or the port cannot be bound
+     */
+    public ReplayWikipedia(ResponseArchive archive, int port, long latencyMillis, long jitterMillis,
+                           double errorRate) throws IOException {
+        this.archive = archive;
+        this.latencyMillis = latencyMillis;
+        this.jitterMillis = jitterMillis;
+        this.errorRate = errorRate;
+        for (ResponseArchive.Entry entry : archive.entries()) {
+            entries.put(entry.getTarget(), entry);
+        }
+        this.server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        server.setExecutor(handlers);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try {
+            delay();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (errorRate > 0 && random.nextDouble() < errorRate) {
+                injectedErrors.incrementAndGet();
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+
+            String target = exchange.getRequestURI().getRawPath();
+            if (exchange.getRequestURI().getRawQuery() != null) {
+                target += "?" + exchange.getRequestURI().getRawQuery();
+            }
+            ResponseArchive.Entry entry = entries.get(target);
+            if (entry == null) {
+                misses.incrementAndGet();
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            if (entry.getLocation() != null) {
+                exchange.getResponseHeaders().set("Location", getBaseUrl() + entry.getLocation());
+                exchange.sendResponseHeaders(entry.getStatusCode(), -1);
+                return;
+            }
+            if (!entry.hasBody()) {
+                exchange.sendResponseHeaders(entry.getStatusCode(), -1);
+                return;
+            }
+
+            if (entry.getEtag() != null) {
+                exchange.getResponseHeaders().set("ETag", entry.getEtag());
+                if (entry.getEtag().equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                    exchange.sendResponseHeaders(304, -1);
+                    return;
+                }
+            }
+            if (entry.getLastModified() != null) {
+                exchange.getResponseHeaders().set("Last-Modified", entry.getLastModified());
+            }
+            exchange.getResponseHeaders().set("Content-Type", entry.getContentType());
+            String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            byte[] body;
+            if (acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip")) {
+                body = archive.readCompressedBody(entry);
+                exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            } else {
+                body = archive.readBody(entry);
+            }
+            exchange.sendResponseHeaders(entry.getStatusCode(), body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void delay() {
+        long millis = latencyMillis + (jitterMillis > 0 ? ThreadLocalRandom.current().nextLong(jitterMillis + 1) : 0);
+        if (millis > 0) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Returns the base URL to pass to --wiki-base or {@link WikipediaFetcher#setBaseUrl}.
+     */
+    public String getBaseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Returns the number of archived targets.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    /**
+     * Returns the number of requests for targets missing from the archive.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getInjectedErrors() {
+        return injectedErrors.get();
+    }
+
+    public void stop() {
+        server.stop(0);
+        handlers.shutdownNow();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path archive = null;
+        int port = 8081;
+        long latencyMillis = 0;
+        long jitterMillis = 0;
+        double errorRate = 0;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--archive": archive = Paths.get(args[++i]); break;
+                case "--port": port = Integer.parseInt(args[++i]); break;
+                case "--latency-ms": latencyMillis = Long.parseLong(args[++i]); break;
+                case "--jitter-ms": jitterMillis = Long.parseLong(args[++i]); break;
+                case "--error-rate": errorRate = Double.parseDouble(args[++i]); break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(1);
+            }
+        }
+        if (archive == null || !Files.isDirectory(archive)) {
+            System.err.println(archive == null ? "Missing --archive DIR" : "No archive at " + archive);
+            System.exit(1);
+        }
+
+        ReplayWikipedia stub = new ReplayWikipedia(new ResponseArchive(archive), port, latencyMillis, jitterMillis, errorRate);
+        System.out.printf(Locale.ROOT, "Replaying %d responses from %s at %s (latency %d ms + up to %d ms, error rate %.3f)%n",
+                          stub.size(), archive, stub.getBaseUrl(), latencyMillis, jitterMillis, errorRate);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            stub.stop();
+            System.out.printf(Locale.ROOT, "Served %d requests: %d missing from the archive, %d injected errors%n",
+                              stub.getRequests(), stub.getMisses(), stub.getInjectedErrors());
+        }));
+        Thread.currentThread().join();
+    }
+}
@@ -0,0 +1,206 @@
+package com.packvc.founderfinder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Closed-loop load generator for the lookup server. By default it starts a
+ * {@link StubWikipedia} and a {@link FounderServer} in this JVM, then has each client
+ * thread send lookups back to back, picking companies at random from a fixed set so
+ * the run moves from cold to warm caches. Pass --target to load a server started with
+ * "serve" instead.
+ * <p>
+ * Usage: java -cp target/benchmarks.jar com.packvc.founderfinder.ServerLoadTest
+ *        [--clients C] [--seconds S] [--warmup S] [--companies N] [--batch B]
+ *        [--latency-ms L] [--workers W] [--result-cache N] [--max-requests M] [--target URL]
+ */
+public class ServerLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        int clients = 16;
+        int seconds = 10;
+        int warmupSeconds = 3;
+        int companies = 500;
+        int batch = 0;
+        long latencyMillis = 50;
+        int workers = 16;
+        int resultCache = 10_000;
+        int maxRequests = 0;
+        String target = null;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--clients": clients = Integer.parseInt(args[++i]); break;
+                case "--seconds": seconds = Integer.parseInt(args[++i]); break;
+                case "--warmup": warmupSeconds = Integer.parseInt(args[++i]); break;
+                case "--companies": companies = Integer.parseInt(args[++i]); break;
+                case "--batch": batch = Integer.parseInt(args[++i]); break;
+                case "--latency-ms": latencyMillis = Long.parseLong(args[++i]); break;
+                case "--workers": workers = Integer.parseInt(args[++i]); break;
+                case "--result-cache": resultCache = Integer.parseInt(args[++i]); break;
+                case "--max-requests": maxRequests = Integer.parseInt(args[++i]); break;
+                case "--target": target = args[++i]; break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(1);
+            }
+        }
+
+        StubWikipedia stub = null;
+        FounderServer server = null;
+        if (target == null) {
+            Log.setLevel(Log.Level.ERROR);
+            // Created first so the stub also gets the server's socket settings
+            server = new FounderServer(new FounderService(resultCache, resultCache), 0,
+                                       Executors.newFixedThreadPool(workers), Math.max(4, workers));
+            stub = new StubWikipedia(latencyMillis);
+            WikipediaFetcher.setBaseUrl(stub.getBaseUrl());
+            // The stub is local, so only the request cap limits outbound traffic
+            WikipediaFetcher.setRateLimiter(new RateLimiter(1_000_000, 1_000_000));
+            WikipediaFetcher.setMaxConcurrentRequests(maxRequests);
+            server.start();
+            target = "http://localhost:" + server.getPort();
+        }
+
+        System.out.printf(Locale.ROOT, "Target %s: %d clients, %d companies, %s, stub latency %d ms%n",
+                          target, clients, companies, batch > 0 ? "batches of " + batch : "single lookups",
+                          latencyMillis);
+
+        LoadRun warmup = new LoadRun(target, clients, companies, batch);
+        warmup.run(warmupSeconds);
+        long upstreamBefore = stub != null ? stub.getRequests() : 0;
+
+        LoadRun measured = new LoadRun(target, clients, companies, batch);
+        measured.run(seconds);
+        measured.report(seconds);
+        if (stub != null) {
+            System.out.printf(Locale.ROOT, "Upstream requests: %d during warmup, %d measured%n",
+                              upstreamBefore, stub.getRequests() - upstreamBefore);
+        }
+
+        if (server != null) {
+            server.stop(0);
+        }
+        if (stub != null) {
+            stub.stop();
+        }
+        System.exit(measured.failures.get() > 0 ? 1 : 0);
+    }
+
+    /**
+     * One timed phase of the load test.
+     */
+    private static class LoadRun {
+        private final String target;
+        private final int clients;
+        private final int companies;
+        private final int batch;
+        private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        private final Metrics.Histogram latency = new Metrics.Histogram(Metrics.LATENCY_RESOLUTION_NANOS);
+        private final AtomicLong lookups = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicReference<String> firstFailure = new AtomicReference<>();
+
+        LoadRun(String target, int clients, int companies, int batch) {
+            this.target = target;
+            this.clients = clients;
+            this.companies = companies;
+            this.batch = batch;
+        }
+
+        void run(int seconds) throws InterruptedException {
+            AtomicBoolean running = new AtomicBoolean(true);
+            ExecutorService pool = Executors.newFixedThreadPool(clients);
+            for (int c = 0; c < clients; c++) {
+                pool.execute(() -> {
+                    while (running.get()) {
+                        sendOne();
+                    }
+                });
+            }
+            Thread.sleep(TimeUnit.SECONDS.toMillis(seconds));
+            running.set(false);
+            pool.shutdown();
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        }
+
+        private void sendOne() {
+            HttpRequest request;
+            int count;
+            if (batch > 0) {
+                List<String> names = new ArrayList<>(batch);
+                for (int i = 0; i < batch; i++) {
+                    names.add('"' + randomCompany() + '"');
+                }
+                request = HttpRequest.newBuilder(URI.create(target + "/founders/batch"))
+                    .POST(HttpRequest.BodyPublishers.ofString("[" + String.join(",", names) + "]"))
+                    .build();
+                count = batch;
+            } else {
+                request = HttpRequest.newBuilder(URI.create(
+                    target + "/founders?name=" + URLEncoder.encode(randomCompany(), StandardCharsets.UTF_8))).build();
+                count = 1;
+            }
+
+            long start = System.nanoTime();
+            try {
+                HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+                latency.record(System.nanoTime() - start);
+                if (response.statusCode() == 200 && !response.body().contains("\"error\"")) {
+                    lookups.addAndGet(count);
+                } else {
+                    recordFailure("HTTP " + response.statusCode() + ": " + response.body());
+                }
+            } catch (IOException e) {
+                recordFailure(e.toString());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private String randomCompany() {
+            return "Loadtest Company " + ThreadLocalRandom.current().nextInt(companies);
+        }
+
+        private void recordFailure(String message) {
+            failures.incrementAndGet();
+            firstFailure.compareAndSet(null, message);
+        }
+
+        void report(int seconds) {
+            System.out.printf(Locale.ROOT, "Requests: %d (%.0f/s), companies: %.0f/s, failures: %d%n",
+                              latency.getCount(), latency.getCount() / (double) seconds,
+                              lookups.get() / (double) seconds, failures.get());
+            System.out.printf(Locale.ROOT, "Latency ms: mean %.2f, p50 %.2f, p90 %.2f, p99 %.2f, max %.2f%n",
+                              millis(latency.getMean()), millis(latency.getPercentile(50)),
+                              millis(latency.getPercentile(90)), millis(latency.getPercentile(99)),
+                              millis(latency.getMax()));
+            if (firstFailure.get() != null) {
+                System.out.println("First failure: " + firstFailure.get());
+            }
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1e6;
+        }
+    }
+}
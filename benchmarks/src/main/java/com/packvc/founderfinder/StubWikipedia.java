@@ -0,0 +1,81 @@
+package com.packvc.founderfinder;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for Wikipedia used by the load tests. Every /wiki/TITLE is answered
+ * with the bundled Airbnb fixture renamed to TITLE, padded to a typical article size,
+ * after a fixed delay that stands in for the network round trip.
+ */
+public class StubWikipedia {
+
+    private static final String TEMPLATE_NAME = "Airbnb";
+
+    private final HttpServer server;
+    private final ExecutorService handlers = Executors.newCachedThreadPool();
+    private final AtomicLong requests = new AtomicLong();
+    private final String template;
+    private final long latencyMillis;
+
+    /**
+     * Binds the stub to a free port and starts it.
+     *
+     * @param latencyMillis Delay before each response
+     * @throws IOException if no port can be bound or the fixture is missing
+     */
+    public StubWikipedia(long latencyMillis) throws IOException {
+        this.latencyMillis = latencyMillis;
+        this.template = new String(FixtureCorpus.load().articles().get(0).getBody(), StandardCharsets.UTF_8);
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(handlers);
+        server.createContext("/wiki/", exchange -> {
+            requests.incrementAndGet();
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            String slug = exchange.getRequestURI().getRawPath().substring("/wiki/".length());
+            String title = URLDecoder.decode(slug, StandardCharsets.UTF_8).replace('_', ' ');
+            byte[] body = template.replace(TEMPLATE_NAME, title).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/html; charset=UTF-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    /**
+     * Returns the base URL to pass to {@link WikipediaFetcher#setBaseUrl}.
+     */
+    public String getBaseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Returns the number of article requests served so far.
+     */
+    public long getRequests() {
+        return requests.get();
+    }
+
+    public long getLatencyMillis() {
+        return latencyMillis;
+    }
+
+    public void stop() {
+        server.stop(0);
+        handlers.shutdownNow();
+    }
+}
@@ -0,0 +1,166 @@
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Build tooling for the AppCDS archive of the "appcds" Maven profile; it is not part
+ * of the shipped jar and runs with the JDK's single-file source launcher.
+ * <p>
+ * It serves a local stand-in for Wikipedia and starts the packaged jar with
+ * "java -jar" against it, on a few companies, so the child JVM loads the classes an
+ * ad-hoc run loads (the HTTP client, Jsoup's parser, Gson's writers) without leaving
+ * the machine. The child's class path is exactly the jar's, as it is for users, so the
+ * archive it writes with -XX:ArchiveClassesAtExit is accepted by later runs.
+ * <p>
+ * Usage: java src/appcds/StartupTraining.java train JAR ARCHIVE
+ *        java src/appcds/StartupTraining.java measure JAR ARCHIVE [RUNS]
+ */
+public class StartupTraining {
+
+    private static final String[] COMPANIES = {
+        "Training Company A (https://www.a.example.com/)",
+        "Training Company B",
+        "Training Company C (https://www.c.example.com/)",
+        "Missing Company",
+    };
+
+    private static final String ARTICLE =
+        "<!DOCTYPE html><html><head><title>TITLE - Wikipedia</title></head><body>"
+        + "<h1 id=\"firstHeading\">TITLE</h1><div id=\"mw-content-text\">"
+        + "<table class=\"infobox ib-company vcard\"><tbody>"
+        + "<tr><th scope=\"row\" class=\"infobox-label\">Founders</th><td class=\"infobox-data agent\">"
+        + "<div class=\"plainlist\"><ul><li><a href=\"/wiki/Jane_Doe\" title=\"Jane Doe\">Jane Doe</a></li>"
+        + "<li><a href=\"/wiki/John_Roe\" title=\"John Roe\">John Roe</a></li></ul></div></td></tr>"
+        + "<tr><th scope=\"row\" class=\"infobox-label\">Website</th><td class=\"infobox-data\">"
+        + "<a href=\"https://www.example.com/\">example.com</a></td></tr>"
+        + "</tbody></table><p><b>TITLE</b> is a company.</p>"
+        + "<h2><span class=\"mw-headline\" id=\"History\">History</span></h2><p>It was founded.</p>"
+        + "</div></body></html>";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3 || !(args[0].equals("train") || args[0].equals("measure"))) {
+            System.err.println("Usage: StartupTraining train JAR ARCHIVE | measure JAR ARCHIVE [RUNS]");
+            System.exit(1);
+        }
+        Path jar = Paths.get(args[1]);
+        Path archive = Paths.get(args[2]);
+
+        HttpServer server = startServer();
+        Path directory = Files.createTempDirectory("startup-training");
+        try {
+            Path input = directory.resolve("companies.txt");
+            Files.write(input, Arrays.asList(COMPANIES), StandardCharsets.UTF_8);
+            List<String> run = Arrays.asList(
+                "-jar", jar.toString(), input.toString(), directory.resolve("founders.json").toString(),
+                "--wiki-base", "http://localhost:" + server.getAddress().getPort(),
+                "--rate", "1000", "--burst", "100",
+                "--log-level", "error");
+
+            if (args[0].equals("train")) {
+                Files.deleteIfExists(archive);
+                time(javaCommand(run, "-XX:ArchiveClassesAtExit=" + archive));
+                System.out.printf(Locale.ROOT, "Wrote class-data archive %s (%.1f MB)%n",
+                                  archive, Files.size(archive) / 1048576.0);
+            } else {
+                measure(run, archive, args.length > 3 ? Integer.parseInt(args[3]) : 5);
+            }
+        } finally {
+            server.stop(0);
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    /**
+     * Starts a server answering every "Training Company" article and nothing else.
+     */
+    private static HttpServer startServer() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            if (path.startsWith("/wiki/Training_Company")) {
+                String title = path.substring("/wiki/".length()).replace('_', ' ');
+                byte[] body = ARTICLE.replace("TITLE", title).getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "text/html; charset=UTF-8");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            } else {
+                exchange.sendResponseHeaders(404, -1);
+            }
+            exchange.close();
+        });
+        server.start();
+        return server;
+    }
+
+    /**
+     * Times the run in fresh JVMs, alternating between runs without and with the
+     * archive, and prints the median wall-clock time of each. The JDK's own class
+     * data sharing stays on in both, so the difference is what the archive adds.
+     */
+    private static void measure(List<String> run, Path archive, int runs) throws IOException, InterruptedException {
+        if (!Files.isRegularFile(archive)) {
+            throw new IOException("No class-data archive at " + archive + "; build it with mvn -Pappcds package");
+        }
+        List<Long> without = new ArrayList<>();
+        List<Long> with = new ArrayList<>();
+        // One untimed run of each warms the file system cache
+        for (int i = -1; i < runs; i++) {
+            long plain = time(javaCommand(run, "-Xshare:auto"));
+            long shared = time(javaCommand(run, "-XX:SharedArchiveFile=" + archive));
+            if (i >= 0) {
+                without.add(plain);
+                with.add(shared);
+            }
+        }
+
+        long medianWithout = median(without);
+        long medianWith = median(with);
+        System.out.printf(Locale.ROOT, "Startup with a %d-company run, median of %d: %d ms without the archive, "
+                          + "%d ms with %s (%.0f%% faster)%n",
+                          COMPANIES.length, runs, medianWithout, medianWith, archive.getFileName(),
+                          100.0 * (medianWithout - medianWith) / medianWithout);
+    }
+
+    private static List<String> javaCommand(List<String> run, String option) {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add(option);
+        command.addAll(run);
+        return command;
+    }
+
+    private static long time(List<String> command) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).inheritIO().start();
+        int status = process.waitFor();
+        if (status != 0) {
+            throw new IOException("Run exited with status " + status + ": " + String.join(" ", command));
+        }
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    private static long median(List<Long> times) {
+        List<Long> sorted = new ArrayList<>(times);
+        Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2);
+    }
+}
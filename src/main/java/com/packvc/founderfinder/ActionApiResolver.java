@@ -0,0 +1,225 @@
+package com.packvc.founderfinder;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resolves company names through the MediaWiki Action API instead of rendered HTML.
+ * Names are looked up up to 50 titles per request, with redirects followed and
+ * disambiguation pages flagged by the server. Names that do not match a usable
+ * article fall back to an API search, which returns compact JSON rather than a
+ * rendered results page.
+ */
+public class ActionApiResolver implements PageResolver {
+
+    // MediaWiki's limit for titles per query without the apihighlimits right
+    private static final int MAX_TITLES_PER_REQUEST = 50;
+    private static final int SEARCH_RESULTS = 5;
+
+    // Characters MediaWiki does not allow in titles; such names go straight to search
+    private static final String ILLEGAL_TITLE_CHARS = "#<>[]|{}";
+
+    // Lookups prepared but not yet consumed by resolve(); a few batches ahead is plenty
+    private static final int MAX_PENDING_LOOKUPS = 1000;
+
+    // Company name -> article title, or empty if the name did not match a usable article.
+    // resolve() removes each entry it uses; names prepared but never resolved age out.
+    private final Map<String, Optional<String>> titleLookups = Collections.synchronizedMap(
+        new LinkedHashMap<String, Optional<String>>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Optional<String>> eldest) {
+                return size() > MAX_PENDING_LOOKUPS;
+            }
+        });
+
+    private final AtomicInteger apiRequests = new AtomicInteger();
+
+    @Override
+    public void prepare(List<String> companyNames) {
+        List<String> pending = new ArrayList<>();
+        for (String name : companyNames) {
+            if (!titleLookups.containsKey(name) && !pending.contains(name) && isValidTitle(name)) {
+                pending.add(name);
+            }
+        }
+
+        for (int start = 0; start < pending.size(); start += MAX_TITLES_PER_REQUEST) {
+            List<String> batch = pending.subList(start, Math.min(start + MAX_TITLES_PER_REQUEST, pending.size()));
+            try {
+                titleLookups.putAll(lookupTitles(batch));
+            } catch (IOException | JsonParseException e) {
+                // Leave the batch unresolved; resolve() will retry the names one at a time
+                Log.warn("  Warning: Batched title lookup failed: " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public Optional<ResolvedPage> resolve(String companyName) throws IOException {
+        // Null when the title lookup failed, empty when it found no usable article
+        Optional<String> title = Optional.empty();
+        if (isValidTitle(companyName)) {
+            title = titleLookups.remove(companyName);
+            if (title == null) {
+                prepare(Collections.singletonList(companyName));
+                title = titleLookups.remove(companyName);
+            }
+        }
+        if (title != null && title.isPresent()) {
+            Log.debug("  ✓ Title lookup matched: " + title.get());
+            Metrics.increment(Metrics.Counter.RESOLVED_TITLE_LOOKUP);
+            return Optional.of(new ResolvedPage(WikipediaFetcher.articleUrl(title.get()), null));
+        }
+
+        Log.debug("Trying API search for '" + companyName + "'");
+        Optional<String> searchTitle;
+        try {
+            searchTitle = search(companyName);
+        } catch (JsonParseException e) {
+            throw new IOException("Malformed API response for '" + companyName + "': " + e.getMessage(), e);
+        }
+        if (searchTitle.isPresent()) {
+            Log.debug("  ✓ Found article via API search: " + searchTitle.get());
+            Metrics.increment(Metrics.Counter.RESOLVED_API_SEARCH);
+            return Optional.of(new ResolvedPage(WikipediaFetcher.articleUrl(searchTitle.get()), null));
+        }
+
+        if (title == null) {
+            // The title lookup failed, so an empty search is not proof there is no article
+            throw new IOException("Title lookup failed for '" + companyName + "'");
+        }
+        Log.debug("  ✗ No suitable article found in API search results");
+        Metrics.increment(Metrics.Counter.UNRESOLVED);
+        return Optional.empty();
+    }
+
+    /**
+     * Looks up a batch of names as page titles in a single query.
+     *
+     * @return Name to article title for every name in the batch; empty for missing,
+     *         invalid or disambiguation pages
+     */
+    private Map<String, Optional<String>> lookupTitles(List<String> names) throws IOException {
+        String url = apiUrl("action=query&prop=pageprops&ppprop=disambiguation&redirects=1&titles="
+                            + encode(String.join("|", names)));
+        JsonObject query = fetchJson(url).getAsJsonObject("query");
+
+        Map<String, String> normalized = fromToMap(query, "normalized");
+        Map<String, String> redirects = fromToMap(query, "redirects");
+        Map<String, JsonObject> pages = new HashMap<>();
+        for (JsonElement page : arrayOrEmpty(query, "pages")) {
+            pages.put(page.getAsJsonObject().get("title").getAsString(), page.getAsJsonObject());
+        }
+
+        Map<String, Optional<String>> results = new HashMap<>();
+        for (String name : names) {
+            String title = normalized.getOrDefault(name, name);
+            // Follow redirect chains, guarding against loops
+            for (int hops = 0; hops < 5 && redirects.containsKey(title); hops++) {
+                title = redirects.get(title);
+            }
+
+            JsonObject page = pages.get(title);
+            boolean usable = page != null
+                && !page.has("missing")
+                && !page.has("invalid")
+                && !isDisambiguation(page);
+            results.put(name, usable ? Optional.of(title) : Optional.empty());
+        }
+        return results;
+    }
+
+    /**
+     * Runs a search and returns the best-ranked result that is not a disambiguation page.
+     * The Action API only takes one search term per request, so this is one request per name.
+     */
+    private Optional<String> search(String companyName) throws IOException {
+        String url = apiUrl("action=query&generator=search&gsrnamespace=0&gsrlimit=" + SEARCH_RESULTS
+                            + "&prop=pageprops&ppprop=disambiguation&gsrsearch=" + encode(companyName));
+        JsonObject response = fetchJson(url);
+        if (!response.has("query")) {
+            return Optional.empty();
+        }
+
+        JsonObject best = null;
+        for (JsonElement element : arrayOrEmpty(response.getAsJsonObject("query"), "pages")) {
+            JsonObject page = element.getAsJsonObject();
+            String title = page.get("title").getAsString();
+            if (isDisambiguation(page) || title.contains("(disambiguation)")) {
+                continue;
+            }
+            if (best == null || index(page) < index(best)) {
+                best = page;
+            }
+        }
+        return best == null ? Optional.empty() : Optional.of(best.get("title").getAsString());
+    }
+
+    private JsonObject fetchJson(String url) throws IOException {
+        apiRequests.incrementAndGet();
+        PageBody body = WikipediaFetcher.fetchBody(url);
+        String json = new String(body.getBody(), body.getCharset());
+        JsonObject response = JsonParser.parseString(json).getAsJsonObject();
+        if (response.has("error")) {
+            throw new IOException("API error: " + response.getAsJsonObject("error").get("info"));
+        }
+        return response;
+    }
+
+    private static String apiUrl(String query) {
+        return WikipediaFetcher.getBaseUrl() + "/w/api.php?format=json&formatversion=2&" + query;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static boolean isValidTitle(String name) {
+        if (name.trim().isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (ILLEGAL_TITLE_CHARS.indexOf(name.charAt(i)) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDisambiguation(JsonObject page) {
+        return page.has("pageprops") && page.getAsJsonObject("pageprops").has("disambiguation");
+    }
+
+    private static int index(JsonObject page) {
+        return page.has("index") ? page.get("index").getAsInt() : Integer.MAX_VALUE;
+    }
+
+    private static JsonArray arrayOrEmpty(JsonObject object, String member) {
+        return object.has(member) ? object.getAsJsonArray(member) : new JsonArray();
+    }
+
+    private static Map<String, String> fromToMap(JsonObject query, String member) {
+        Map<String, String> map = new HashMap<>();
+        for (JsonElement element : arrayOrEmpty(query, member)) {
+            JsonObject entry = element.getAsJsonObject();
+            map.put(entry.get("from").getAsString(), entry.get("to").getAsString());
+        }
+        return map;
+    }
+
+    /**
+     * Returns how many Action API requests this resolver has made.
+     */
+    public int getApiRequestCount() {
+        return apiRequests.get();
+    }
+}
@@ -0,0 +1,205 @@
+package com.packvc.founderfinder;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Classifies an article view from the first part of its body, so a download can stop
+ * as soon as the page is known to be useless or its infobox has been read.
+ * <p>
+ * The head says whether the page is a search page or in the disambiguation category.
+ * After that the body is scanned tag by tag: a disambiguation box or search results
+ * reject the page, and an infobox table passes it and reading continues until the table
+ * closes. A page without either is read to the end, since an infobox may follow the
+ * first section heading, and is then classified from the whole body. Only ASCII
+ * markup is inspected, so the body is scanned as Latin-1 whatever its charset.
+ * <p>
+ * A probe is fed the body as it arrives and keeps only the text it has not scanned
+ * yet. Use a new probe for every download attempt.
+ */
+public class ArticleProbe implements HttpTransport.ReadLimit {
+
+    /**
+     * What the probe has learned about the page so far.
+     */
+    public enum Verdict {
+        /** Nothing decided yet; at the end of the body, parse it to classify. */
+        UNDECIDED,
+        /** The page has an infobox, which ends the useful part of the body. */
+        INFOBOX,
+        /** A disambiguation page. */
+        DISAMBIGUATION,
+        /** A search results or project page rather than an article. */
+        NOT_ARTICLE
+    }
+
+    private static final String HEAD_END = "</head>";
+    private static final String DISAMBIGUATION_CATEGORY = "\"Disambiguation pages\"";
+
+    private final StringBuilder buffer = new StringBuilder();
+    private int consumed;
+    private int scanPos;
+    private boolean inBody;
+    private String skipUntil;
+    private Verdict verdict = Verdict.UNDECIDED;
+    // Table nesting inside the infobox, which has closed once this is back to 0
+    private int depth;
+
+    /**
+     * Classifies a body that is already in memory, such as a cached copy.
+     */
+    public static ArticleProbe inspect(PageBody body) {
+        ArticleProbe probe = new ArticleProbe();
+        probe.isSatisfied(body.getBody(), body.getBody().length);
+        return probe;
+    }
+
+    @Override
+    public boolean isSatisfied(byte[] body, int length) {
+        if (isDecided()) {
+            return true;
+        }
+        buffer.append(new String(body, consumed, length - consumed, StandardCharsets.ISO_8859_1));
+        consumed = length;
+
+        if (!inBody) {
+            int headEnd = buffer.indexOf(HEAD_END);
+            if (headEnd == -1) {
+                return false;
+            }
+            readHead(buffer.substring(0, headEnd));
+            buffer.delete(0, headEnd + HEAD_END.length());
+            inBody = true;
+        }
+        if (verdict == Verdict.UNDECIDED || verdict == Verdict.INFOBOX) {
+            scanBody();
+        }
+        return isDecided();
+    }
+
+    /**
+     * Returns the verdict so far, or the final one once {@link #isDecided()}.
+     */
+    public Verdict getVerdict() {
+        return verdict;
+    }
+
+    /**
+     * Returns true once the rest of the body cannot change the verdict or add anything
+     * extraction needs.
+     */
+    public boolean isDecided() {
+        return verdict == Verdict.DISAMBIGUATION || verdict == Verdict.NOT_ARTICLE
+               || (verdict == Verdict.INFOBOX && depth == 0);
+    }
+
+    /**
+     * Returns true if the page is known not to be an article about the company.
+     */
+    public boolean isRejected() {
+        return verdict == Verdict.DISAMBIGUATION || verdict == Verdict.NOT_ARTICLE;
+    }
+
+    private void readHead(String head) {
+        String title = "";
+        int titleStart = head.indexOf("<title>");
+        int titleEnd = titleStart == -1 ? -1 : head.indexOf("</title>", titleStart);
+        if (titleEnd != -1) {
+            title = head.substring(titleStart + "<title>".length(), titleEnd);
+        }
+        if (title.contains("Search results") || title.contains("Wikipedia:")) {
+            verdict = Verdict.NOT_ARTICLE;
+        } else if (head.contains(DISAMBIGUATION_CATEGORY)) {
+            verdict = Verdict.DISAMBIGUATION;
+        }
+    }
+
+    private void scanBody() {
+        while (true) {
+            if (skipUntil != null) {
+                int close = InfoboxStreamExtractor.indexOfIgnoreCase(buffer, skipUntil, scanPos);
+                if (close == -1) {
+                    scanPos = Math.max(scanPos, buffer.length() - skipUntil.length());
+                    break;
+                }
+                scanPos = close;
+                skipUntil = null;
+            }
+
+            int tagStart = buffer.indexOf("<", scanPos);
+            if (tagStart == -1) {
+                scanPos = buffer.length();
+                break;
+            }
+            if (tagStart + 1 >= buffer.length()) {
+                scanPos = tagStart;
+                break;
+            }
+            char next = buffer.charAt(tagStart + 1);
+            if (!Character.isLetter(next) && next != '/' && next != '!') {
+                scanPos = tagStart + 1;
+                continue;
+            }
+            int tagEnd = InfoboxStreamExtractor.findTagEnd(buffer, tagStart);
+            if (tagEnd == -1) {
+                scanPos = tagStart;
+                break;
+            }
+            scanPos = tagEnd;
+
+            if (InfoboxStreamExtractor.startsWithTag(buffer, tagStart, "<script")) {
+                skipUntil = "</script";
+            } else if (InfoboxStreamExtractor.startsWithTag(buffer, tagStart, "<style")) {
+                skipUntil = "</style";
+            } else if (verdict == Verdict.INFOBOX) {
+                if (InfoboxStreamExtractor.startsWithTag(buffer, tagStart, "<table")) {
+                    depth++;
+                } else if (InfoboxStreamExtractor.startsWithTag(buffer, tagStart, "</table") && --depth == 0) {
+                    return;
+                }
+            } else {
+                classifyTag(buffer.substring(tagStart, tagEnd));
+                if (verdict == Verdict.INFOBOX) {
+                    depth = 1;
+                } else if (verdict != Verdict.UNDECIDED) {
+                    return;
+                }
+            }
+        }
+
+        // Nothing scanned so far is needed again
+        buffer.delete(0, scanPos);
+        scanPos = 0;
+    }
+
+    /**
+     * Looks at one start tag before the infobox.
+     */
+    private void classifyTag(String tag) {
+        if (tag.startsWith("<div") && tag.contains("id=\"disambig\"")) {
+            verdict = Verdict.DISAMBIGUATION;
+        } else if (tag.startsWith("<div") && hasClass(tag, "searchresults")) {
+            verdict = Verdict.NOT_ARTICLE;
+        } else if (tag.startsWith("<table")
+                   && InfoboxStreamExtractor.hasInfoboxClass(new StringBuilder(tag), 0, tag.length())) {
+            verdict = Verdict.INFOBOX;
+        }
+    }
+
+    private static boolean hasClass(String tag, String className) {
+        int classAttr = tag.indexOf("class=\"");
+        if (classAttr == -1) {
+            return false;
+        }
+        int valueStart = classAttr + "class=\"".length();
+        int valueEnd = tag.indexOf('"', valueStart);
+        if (valueEnd == -1) {
+            return false;
+        }
+        for (String name : tag.substring(valueStart, valueEnd).split("\\s+")) {
+            if (name.equals(className)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,328 @@
+package com.packvc.founderfinder;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Append-only checkpoint journal with one JSON record per finished company.
+ * Records are appended in input order, so a resumed run only has to skip the
+ * first {@link #getCompletedCount()} companies and replay the journal into
+ * the output before continuing.
+ */
+public class CheckpointJournal implements Closeable {
+
+    // Only reading records needs Gson's reflective binding; a fresh run never builds it
+    private static class Json {
+        static final Gson GSON = new Gson();
+    }
+
+    private final Path path;
+    private final BufferedWriter writer;
+    private int completedCount;
+    private String lastCompany;
+
+    private CheckpointJournal(Path path, BufferedWriter writer, int completedCount, String lastCompany) {
+        this.path = path;
+        this.writer = writer;
+        this.completedCount = completedCount;
+        this.lastCompany = lastCompany;
+    }
+
+    /**
+     * Opens a journal for writing.
+     *
+     * @param path Journal file
+     * @param resume If true, keep existing records and continue after them;
+     *               otherwise start a fresh journal
+     * @return Open journal
+     * @throws IOException if the journal cannot be read or created
+     */
+    public static CheckpointJournal open(Path path, boolean resume) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        int completed = 0;
+        String lastCompany = null;
+
+        if (resume && Files.exists(path)) {
+            long validBytes = 0;
+            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    Record record = parseRecord(line);
+                    if (record == null || record.index != completed) {
+                        // A torn write from a crash; everything after it is discarded
+                        Log.warn("Warning: Discarding incomplete journal record after " + completed + " companies");
+                        break;
+                    }
+                    completed++;
+                    lastCompany = record.company;
+                    validBytes += line.getBytes(StandardCharsets.UTF_8).length + 1;
+                }
+            }
+            trimTo(path, validBytes);
+        } else {
+            Files.deleteIfExists(path);
+        }
+
+        BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        return new CheckpointJournal(path, writer, completed, lastCompany);
+    }
+
+    /**
+     * Cuts the journal back to its last complete record, restoring a missing final newline.
+     */
+    private static void trimTo(Path path, long validBytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            if (size > validBytes) {
+                channel.truncate(validBytes);
+            } else if (size == validBytes - 1) {
+                channel.write(ByteBuffer.wrap(new byte[] {'\n'}), size);
+            }
+        }
+    }
+
+    private static Record parseRecord(String line) {
+        try {
+            Record record = Json.GSON.fromJson(line, Record.class);
+            if (record == null || record.company == null || record.founders == null) {
+                return null;
+            }
+            return record;
+        } catch (JsonParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Appends the result for the next company in input order and flushes it to the OS.
+     * The record survives the process being killed; it is not forced to disk, so a
+     * machine crash can lose the last few records, which a resumed run then redoes.
+     *
+     * @param companyName Company name
+     * @param result Founders found for the company and the article they came from
+     * @throws IOException if the record cannot be written
+     */
+    public synchronized void append(String companyName, FounderResult result) throws IOException {
+        Record record = new Record();
+        record.index = completedCount;
+        record.company = companyName;
+        record.founders = result.getFounders();
+        record.title = result.getTitle();
+        record.revision = result.getRevision() != 0 ? result.getRevision() : null;
+        record.failed = result.isFailed() ? Boolean.TRUE : null;
+
+        record.writeTo(new JsonWriter(writer));
+        writer.newLine();
+        writer.flush();
+
+        completedCount++;
+        lastCompany = companyName;
+    }
+
+    /**
+     * Returns the number of companies recorded so far, including those from a resumed run.
+     */
+    public synchronized int getCompletedCount() {
+        return completedCount;
+    }
+
+    /**
+     * Returns the name of the last recorded company, or null if the journal is empty.
+     */
+    public synchronized String getLastCompany() {
+        return lastCompany;
+    }
+
+    /**
+     * Replays every recorded company, in input order, into a result writer.
+     * Used when resuming so the output contains the companies finished by earlier runs.
+     *
+     * @param resultWriter Writer receiving the recorded results
+     * @throws IOException if the journal cannot be read or the output cannot be written
+     */
+    public synchronized void replayInto(ResultWriter resultWriter) throws IOException {
+        writer.flush();
+
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Record record = parseRecord(line);
+                if (record != null) {
+                    resultWriter.write(record.company, record.founders);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the results recorded in a journal, keyed by company name, for a run that
+     * refreshes an earlier one. A torn final record is ignored.
+     *
+     * @param path Journal of the earlier run
+     * @return Recorded results; the first record wins for repeated companies
+     * @throws IOException if the journal cannot be read
+     */
+    public static Map<String, FounderResult> readResults(Path path) throws IOException {
+        Map<String, FounderResult> results = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Record record = parseRecord(line);
+                if (record != null && !results.containsKey(record.company)) {
+                    results.put(record.company, record.toResult());
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Opens a journal for reading its records in order, such as a shard's journal
+     * that is being merged.
+     *
+     * @param path Journal file
+     * @return Open reader
+     * @throws IOException if the journal cannot be opened
+     */
+    public static Reader read(Path path) throws IOException {
+        return new Reader(Files.newBufferedReader(path, StandardCharsets.UTF_8));
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+
+    /**
+     * Reads a journal's records in order. Like a resumed run, it stops at the first
+     * torn or out-of-sequence record.
+     */
+    public static class Reader implements Closeable {
+        private final BufferedReader reader;
+        private int count;
+        private boolean ended;
+        private String company;
+        private FounderResult result;
+
+        private Reader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        /**
+         * Moves to the next record.
+         *
+         * @return false at the end of the journal or at a torn record
+         * @throws IOException if the journal cannot be read
+         */
+        public boolean next() throws IOException {
+            String line = ended ? null : reader.readLine();
+            Record record = line != null ? parseRecord(line) : null;
+            if (record == null || record.index != count) {
+                ended = true;
+                company = null;
+                result = null;
+                return false;
+            }
+            count++;
+            company = record.company;
+            result = record.toResult();
+            return true;
+        }
+
+        /**
+         * Returns the company of the current record.
+         */
+        public String getCompany() {
+            return company;
+        }
+
+        /**
+         * Returns the result of the current record.
+         */
+        public FounderResult getResult() {
+            return result;
+        }
+
+        /**
+         * Returns the number of records read so far.
+         */
+        public int getCount() {
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    /**
+     * One line of the journal.
+     */
+    private static class Record {
+        int index;
+        String company;
+        List<String> founders;
+        // Article the founders came from and its revision, when known
+        String title;
+        Long revision;
+        Boolean failed;
+
+        /**
+         * Writes the record as Gson would bind it: fields in declaration order, nulls
+         * left out and HTML characters escaped.
+         */
+        void writeTo(JsonWriter json) throws IOException {
+            json.setHtmlSafe(true);
+            json.beginObject();
+            json.name("index").value(index);
+            json.name("company").value(company);
+            if (founders != null) {
+                json.name("founders").beginArray();
+                for (String founder : founders) {
+                    json.value(founder);
+                }
+                json.endArray();
+            }
+            if (title != null) {
+                json.name("title").value(title);
+            }
+            if (revision != null) {
+                json.name("revision").value(revision);
+            }
+            if (failed != null) {
+                json.name("failed").value(failed);
+            }
+            json.endObject();
+        }
+
+        FounderResult toResult() {
+            if (Boolean.TRUE.equals(failed)) {
+                return FounderResult.failed();
+            }
+            return new FounderResult(founders, title, revision != null ? revision : 0);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.packvc.founderfinder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Circuit breaker for one host, shared by every worker.
+ * After repeated host failures, or as soon as the host sends Retry-After with a
+ * throttling or unavailable response, the breaker opens and every worker waits in
+ * {@link #acquire()} instead of retrying on its own. When the pause is over a
+ * single probe request is let through; if it succeeds the breaker closes, if it
+ * fails the breaker reopens for twice as long.
+ */
+public class CircuitBreaker {
+
+    private static final int DEFAULT_FAILURE_THRESHOLD = 5;
+    private static final long DEFAULT_OPEN_MILLIS = 5_000;
+    private static final long DEFAULT_MAX_OPEN_MILLIS = 60_000;
+
+    private enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String host;
+    private final int failureThreshold;
+    private final long baseOpenNanos;
+    private final long maxOpenNanos;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openUntilNanos;
+    private long nextOpenNanos;
+    private boolean probeInFlight;
+
+    /**
+     * Creates a breaker with the default settings: open after 5 consecutive failures,
+     * for 5 seconds at first and at most 60 seconds.
+     *
+     * @param host Host this breaker guards, used in log messages
+     */
+    public CircuitBreaker(String host) {
+        this(host, DEFAULT_FAILURE_THRESHOLD, DEFAULT_OPEN_MILLIS, DEFAULT_MAX_OPEN_MILLIS);
+    }
+
+    /**
+     * @param host Host this breaker guards, used in log messages
+     * @param failureThreshold Consecutive host failures that open the breaker
+     * @param openMillis First pause once the breaker opens
+     * @param maxOpenMillis Longest pause after repeated failed probes
+     */
+    public CircuitBreaker(String host, int failureThreshold, long openMillis, long maxOpenMillis) {
+        this.host = host;
+        this.failureThreshold = failureThreshold;
+        this.baseOpenNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+        this.maxOpenNanos = TimeUnit.MILLISECONDS.toNanos(maxOpenMillis);
+        this.nextOpenNanos = baseOpenNanos;
+    }
+
+    /**
+     * Waits until a request to the host is allowed.
+     * Returns immediately while the breaker is closed.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public synchronized void acquire() throws InterruptedException {
+        long waitStart = System.nanoTime();
+        boolean waited = false;
+        while (true) {
+            if (state == State.CLOSED) {
+                break;
+            }
+            long now = System.nanoTime();
+            if (state == State.OPEN && now >= openUntilNanos) {
+                state = State.HALF_OPEN;
+            }
+            if (state == State.HALF_OPEN && !probeInFlight) {
+                probeInFlight = true;
+                Log.debug("  Circuit half-open for " + host + ", sending a probe request");
+                break;
+            }
+
+            waited = true;
+            long waitNanos = state == State.OPEN ? openUntilNanos - now : baseOpenNanos;
+            TimeUnit.NANOSECONDS.timedWait(this, Math.max(1, waitNanos));
+        }
+        if (waited) {
+            Metrics.add(Metrics.Counter.CIRCUIT_WAIT_MS, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - waitStart));
+        }
+    }
+
+    /**
+     * Records a request that got an answer from the host, including client errors such as 404.
+     */
+    public synchronized void recordSuccess() {
+        if (state == State.OPEN) {
+            // A request sent before the breaker opened; only the probe decides when to close
+            return;
+        }
+        consecutiveFailures = 0;
+        if (state == State.HALF_OPEN) {
+            Log.info("Circuit closed for " + host + ", resuming requests");
+            state = State.CLOSED;
+            probeInFlight = false;
+            nextOpenNanos = baseOpenNanos;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Records a host failure: a server error, throttling or a network failure.
+     *
+     * @param retryAfterMillis Delay the host asked for, or -1 if it did not send one;
+     *                         when present the breaker opens immediately for that long
+     */
+    public synchronized void recordFailure(long retryAfterMillis) {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN) {
+            probeInFlight = false;
+            open(retryAfterMillis >= 0 ? TimeUnit.MILLISECONDS.toNanos(retryAfterMillis) : nextOpenNanos);
+            nextOpenNanos = Math.min(maxOpenNanos, nextOpenNanos * 2);
+        } else if (state == State.CLOSED && retryAfterMillis >= 0) {
+            open(TimeUnit.MILLISECONDS.toNanos(retryAfterMillis));
+        } else if (state == State.CLOSED && consecutiveFailures >= failureThreshold) {
+            open(nextOpenNanos);
+            nextOpenNanos = Math.min(maxOpenNanos, nextOpenNanos * 2);
+        }
+    }
+
+    /**
+     * Releases the probe slot when a probe ended without a verdict on the host, e.g. on interrupt.
+     */
+    public synchronized void release() {
+        if (state == State.HALF_OPEN && probeInFlight) {
+            probeInFlight = false;
+            notifyAll();
+        }
+    }
+
+    public synchronized boolean isOpen() {
+        return state != State.CLOSED;
+    }
+
+    private void open(long durationNanos) {
+        state = State.OPEN;
+        openUntilNanos = System.nanoTime() + durationNanos;
+        Metrics.increment(Metrics.Counter.CIRCUIT_OPENS);
+        Log.warn("Circuit open for " + host + " after " + consecutiveFailures + " failure(s); pausing all requests for "
+                 + TimeUnit.NANOSECONDS.toMillis(durationNanos) + "ms");
+        notifyAll();
+    }
+}
@@ -0,0 +1,496 @@
+package com.packvc.founderfinder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Command line options for the Founder Finder CLI.
+ * Positional arguments are the input file and an optional output file;
+ * everything else is a "--flag value" pair.
+ */
+public class CliOptions {
+
+    private static final int DEFAULT_WORKERS = 1;
+    private static final double DEFAULT_REQUESTS_PER_SECOND = 2.0;
+    private static final int DEFAULT_BURST = 2;
+    private static final int DEFAULT_CACHE_TTL_HOURS = 24;
+    private static final int DEFAULT_CACHE_MAX_MB = 512;
+    private static final int DEFAULT_PORT = 8080;
+    private static final int DEFAULT_RESULT_CACHE_ENTRIES = 10_000;
+
+    private String inputFile;
+    private String outputFile = "founders.json";
+    private int workers = DEFAULT_WORKERS;
+    private boolean virtualThreads = false;
+    private double requestsPerSecond = DEFAULT_REQUESTS_PER_SECOND;
+    private int burst = DEFAULT_BURST;
+    private String cacheDir;
+    private int cacheTtlHours = DEFAULT_CACHE_TTL_HOURS;
+    private int cacheMaxMb = DEFAULT_CACHE_MAX_MB;
+    private boolean offline = false;
+    private String journalFile;
+    private boolean resume = false;
+    private boolean refresh = false;
+    private ResultWriter.Format format = ResultWriter.Format.JSON;
+    private boolean echo = false;
+    private String resolver = "html";
+    private String wikiBase;
+    private Log.Level logLevel = Log.Level.INFO;
+    private String metricsJsonFile;
+    private String storeFile;
+    private String recordDir;
+    private String transport = "http-client";
+    private String resolutionIndexFile;
+    private int indexTtlDays = (int) ResolutionIndex.DEFAULT_TTL.toDays();
+    private int indexNegativeTtlDays = (int) ResolutionIndex.DEFAULT_NEGATIVE_TTL.toDays();
+    private boolean domainIndex = false;
+    private String dumpFile;
+    private String infoboxHeadersFile;
+    private int maxConcurrentRequests = 0;
+    private int port = DEFAULT_PORT;
+    private int resultCacheEntries = DEFAULT_RESULT_CACHE_ENTRIES;
+    private Shard shard;
+    private int shardCount;
+
+    /**
+     * Parses command line arguments.
+     *
+     * @param args Raw arguments passed to main
+     * @return Parsed options
+     * @throws IllegalArgumentException if the arguments are invalid
+     */
+    public static CliOptions parse(String[] args) {
+        return parse(args, Command.RUN);
+    }
+
+    /**
+     * Parses the options of the serve subcommand, which takes no input or output file.
+     *
+     * @param args Arguments after "serve"
+     * @return Parsed options
+     * @throws IllegalArgumentException if the arguments are invalid
+     */
+    public static CliOptions parseServe(String[] args) {
+        return parse(args, Command.SERVE);
+    }
+
+    /**
+     * Parses the options of the merge subcommand: the input file, the merged output
+     * file and the number of shards to merge.
+     *
+     * @param args Arguments after "merge"
+     * @return Parsed options
+     * @throws IllegalArgumentException if the arguments are invalid
+     */
+    public static CliOptions parseMerge(String[] args) {
+        return parse(args, Command.MERGE);
+    }
+
+    private enum Command { RUN, SERVE, MERGE }
+
+    private static CliOptions parse(String[] args, Command command) {
+        CliOptions options = new CliOptions();
+        List<String> positional = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                positional.add(arg);
+                continue;
+            }
+
+            switch (arg) {
+                case "--workers":
+                    options.workers = parsePositiveInt(arg, valueOf(args, ++i, arg));
+                    break;
+                case "--virtual-threads":
+                    options.virtualThreads = true;
+                    break;
+                case "--rate":
+                    options.requestsPerSecond = parsePositiveDouble(arg, valueOf(args, ++i, arg));
+                    break;
+                case "--burst":
+                    options.burst = parsePositiveInt(arg, valueOf(args, ++i, arg));
+                    break;
+                case "--cache-dir":
+                    options.cacheDir = valueOf(args, ++i, arg);
+                    break;
+                case "--cache-ttl-hours":
+                    options.cacheTtlHours = parsePositiveInt(arg, valueOf(args, ++i, arg));
+                    break;
+                case "--cache-max-mb":
+                    options.cacheMaxMb = parsePositiveInt(arg, valueOf(args, ++i, arg));
+                    break;
+                case "--offline":
+                    options.offline = true;
+                    break;
+                case "--journal":
+                    options.journalFile = valueOf(args, ++i, arg);
+                    break;
+                case "--resume":
+                    options.resume = true;
+                    break;
+                case "--refresh":
+                    options.refresh = true;
+                    break;
+                case "--format":
+                    options.format = ResultWriter.Format.fromName(valueOf(args, ++i, arg));
+                    break;
+                case "--echo":
+                    options.echo = true;
+                    break;
+                case "--resolver":
+                    options.resolver = valueOf(args, ++i, arg);
+                    if (!options.resolver.equals("html") && !options.resolver.equals("api")) {
+                        throw new IllegalArgumentException("--resolver must be html or api: " + options.resolver);
+                    }
+                    break;
+                case "--wiki-base":
+                    options.wikiBase = valueOf(args, ++i, arg).replaceAll("/+$", "");
+                    break;
+                case "--log-level":
+                    options.logLevel = Log.Level.fromName(valueOf(args, ++i, arg));
+                    break;
+                case "--metrics-json":
+                    options.metricsJsonFile = valueOf(args, ++i, arg);
+                    break;
+                case "--store":
+                    options.storeFile = valueOf(args, ++i, arg);
+                    break;
+                case "--record":
+                    options.recordDir = valueOf(args, ++i, arg);
+                    break;
+                case "--transport":
+                    options.transport = valueOf(args, ++i, arg);
+                    if (!options.transport.equals("http-client") && !options.transport.equals("http1")
+                        && !options.transport.equals("jsoup")) {
+                        throw new IllegalArgumentException("--transport must be http-client, http1 or jsoup: " + options.transport);
+                    }
+                    break;
+                case "--resolution-index":
+                    options.resolutionIndexFile = valueOf(args, ++i, arg);
+                    break;
+                case "--index-ttl-days":
+                    options.indexTtlDays = parsePositiveInt(arg, valueOf(args, ++i, arg));
+                    break;
+                case "--index-negative-ttl-days":
+                    options.indexNegativeTtlDays = parsePositiveInt(arg, valueOf(args, ++i, arg));
+                    break;
+                case "--domain-index":
+                    options.domainIndex = true;
+                    break;
+                case "--dump":
+                    options.dumpFile = valueOf(args, ++i, arg);
+                    break;
+                case "--infobox-headers":
+                    options.infoboxHeadersFile = valueOf(args, ++i, arg);
+                    break;
+                case "--max-requests":
+                    options.maxConcurrentRequests = parsePositiveInt(arg, valueOf(args, ++i, arg));
+                    break;
+                case "--port":
+                    options.port = parsePort(arg, valueOf(args, ++i, arg));
+                    break;
+                case "--result-cache":
+                    options.resultCacheEntries = parsePositiveInt(arg, valueOf(args, ++i, arg));
+                    break;
+                case "--shard":
+                    options.shard = Shard.parse(valueOf(args, ++i, arg));
+                    break;
+                case "--shards":
+                    options.shardCount = parsePositiveInt(arg, valueOf(args, ++i, arg));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+
+        if (options.offline && options.cacheDir == null) {
+            throw new IllegalArgumentException("--offline requires --cache-dir");
+        }
+        if (options.recordDir != null && (options.offline || options.dumpFile != null || command == Command.MERGE)) {
+            throw new IllegalArgumentException("--record needs requests to the wiki and cannot be used with --offline, --dump or merge");
+        }
+        if (options.refresh && options.dumpFile != null) {
+            throw new IllegalArgumentException("--refresh checks revisions on the wiki and cannot be used with --dump");
+        }
+
+        if (options.shard != null && command != Command.RUN) {
+            throw new IllegalArgumentException("--shard applies to batch runs only");
+        }
+        if (options.shardCount != 0 && command != Command.MERGE) {
+            throw new IllegalArgumentException("--shards applies to merge only; use --shard i/N to run one shard");
+        }
+
+        if (command == Command.SERVE) {
+            if (options.storeFile != null) {
+                throw new IllegalArgumentException("--store applies to batch runs and merge only");
+            }
+            if (!positional.isEmpty()) {
+                throw new IllegalArgumentException("serve takes no input file: " + positional.get(0));
+            }
+            return options;
+        }
+        if (command == Command.MERGE && options.shardCount == 0) {
+            throw new IllegalArgumentException("merge needs --shards N");
+        }
+
+        if (positional.isEmpty()) {
+            throw new IllegalArgumentException("Missing input file.");
+        }
+        if (positional.size() > 2) {
+            throw new IllegalArgumentException("Too many arguments provided.");
+        }
+
+        options.inputFile = positional.get(0);
+        if (positional.size() == 2) {
+            options.outputFile = positional.get(1);
+        }
+        if (options.journalFile == null) {
+            options.journalFile = options.outputFile + ".journal";
+        }
+        if (options.shard != null) {
+            // Each shard writes its own files, so shards can share a directory
+            options.outputFile = options.shard.path(options.outputFile);
+            options.journalFile = options.shard.path(options.journalFile);
+            if (options.metricsJsonFile != null) {
+                options.metricsJsonFile = options.shard.path(options.metricsJsonFile);
+            }
+            if (options.resolutionIndexFile != null) {
+                options.resolutionIndexFile = options.shard.path(options.resolutionIndexFile);
+            }
+            if (options.storeFile != null) {
+                options.storeFile = options.shard.path(options.storeFile);
+            }
+        }
+        return options;
+    }
+
+    private static String valueOf(String[] args, int index, String flag) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + flag);
+        }
+        return args[index];
+    }
+
+    private static int parsePositiveInt(String flag, String value) {
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed < 1) {
+                throw new IllegalArgumentException(flag + " must be at least 1: " + value);
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number for " + flag + ": " + value);
+        }
+    }
+
+    private static int parsePort(String flag, String value) {
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed < 0 || parsed > 65535) {
+                throw new IllegalArgumentException(flag + " must be between 0 and 65535: " + value);
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number for " + flag + ": " + value);
+        }
+    }
+
+    private static double parsePositiveDouble(String flag, String value) {
+        try {
+            double parsed = Double.parseDouble(value);
+            if (!(parsed > 0)) {
+                throw new IllegalArgumentException(flag + " must be positive: " + value);
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number for " + flag + ": " + value);
+        }
+    }
+
+    public String getInputFile() {
+        return inputFile;
+    }
+
+    public String getOutputFile() {
+        return outputFile;
+    }
+
+    /**
+     * Returns the shard this run processes, or null to process the whole input.
+     * File names in the other options already carry the shard's suffix.
+     */
+    public Shard getShard() {
+        return shard;
+    }
+
+    /**
+     * Returns the number of shards to merge.
+     */
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public boolean useVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public double getRequestsPerSecond() {
+        return requestsPerSecond;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    /**
+     * Returns the response cache directory, or null if caching is disabled.
+     */
+    public String getCacheDir() {
+        return cacheDir;
+    }
+
+    public int getCacheTtlHours() {
+        return cacheTtlHours;
+    }
+
+    public int getCacheMaxMb() {
+        return cacheMaxMb;
+    }
+
+    public boolean isOffline() {
+        return offline;
+    }
+
+    public String getJournalFile() {
+        return journalFile;
+    }
+
+    public boolean isResume() {
+        return resume;
+    }
+
+    /**
+     * Returns true if the run should reuse the journaled results of the previous run
+     * for articles that have not changed since.
+     */
+    public boolean isRefresh() {
+        return refresh;
+    }
+
+    public ResultWriter.Format getFormat() {
+        return format;
+    }
+
+    public boolean isEcho() {
+        return echo;
+    }
+
+    /**
+     * Returns the page resolver to use: "html" for the rendered site or "api" for the Action API.
+     */
+    public String getResolver() {
+        return resolver;
+    }
+
+    /**
+     * Returns the wiki base URL override, or null to use English Wikipedia.
+     */
+    public String getWikiBase() {
+        return wikiBase;
+    }
+
+    public Log.Level getLogLevel() {
+        return logLevel;
+    }
+
+    /**
+     * Returns the file to dump run metrics to as JSON, or null if no dump was requested.
+     */
+    public String getMetricsJsonFile() {
+        return metricsJsonFile;
+    }
+
+    /**
+     * Returns the founder store to write next to the output, or null if none was requested.
+     */
+    public String getStoreFile() {
+        return storeFile;
+    }
+
+    /**
+     * Returns the directory to record responses to, or null if none was requested.
+     */
+    public String getRecordDir() {
+        return recordDir;
+    }
+
+    /**
+     * Returns the HTTP transport name: "http-client", "http1" or "jsoup".
+     */
+    public String getTransport() {
+        return transport;
+    }
+
+    /**
+     * Returns the resolution index file, or null if resolutions are not remembered between runs.
+     */
+    public String getResolutionIndexFile() {
+        return resolutionIndexFile;
+    }
+
+    public int getIndexTtlDays() {
+        return indexTtlDays;
+    }
+
+    public int getIndexNegativeTtlDays() {
+        return indexNegativeTtlDays;
+    }
+
+    /**
+     * Returns true if companies with a website are resolved by domain before trying their name.
+     */
+    public boolean useDomainIndex() {
+        return domainIndex;
+    }
+
+    /**
+     * Returns the Wikipedia dump to answer companies from, or null to query the wiki.
+     */
+    public String getDumpFile() {
+        return dumpFile;
+    }
+
+    /**
+     * Returns a file of extra infobox header aliases, or null to use only the built-in ones.
+     */
+    public String getInfoboxHeadersFile() {
+        return infoboxHeadersFile;
+    }
+
+    /**
+     * Returns the cap on concurrent Wikipedia requests, or 0 if only the rate limit applies.
+     */
+    public int getMaxConcurrentRequests() {
+        return maxConcurrentRequests;
+    }
+
+    /**
+     * Returns the port the lookup server listens on; 0 picks a free port.
+     */
+    public int getPort() {
+        return port;
+    }
+
+    /**
+     * Returns how many company and article results the lookup server keeps in memory.
+     */
+    public int getResultCacheEntries() {
+        return resultCacheEntries;
+    }
+}
@@ -1,18 +1,27 @@
 package com.packvc.founderfinder;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Parses companies.txt file into Company objects.
  * Handles lines in format: "CompanyName (https://example.com/)"
+ * <p>
+ * Input is read as UTF-8 in large chunks and parsed lazily, so processing can
+ * start on the first company of a multi-million line file. Problems with a line
+ * are reported as warnings with its line number and never stop the parse.
  */
 public class CompanyParser {
     
-    // Regex to match: Name (URL) or just Name
-    private static final Pattern COMPANY_PATTERN = Pattern.compile("^(.+?)\\s*\\(([^)]+)\\)\\s*$");
+    private static final int READ_BUFFER_CHARS = 64 * 1024;
     
     /**
      * Parses a companies.txt file and returns a list of Company objects.
@@ -22,51 +31,116 @@ public class CompanyParser {
      * @throws IOException if file cannot be read
      */
     public static List<Company> parseFile(String filePath) throws IOException {
-        List<Company> companies = new ArrayList<>();
+        try (Stream<Company> companies = stream(Paths.get(filePath))) {
+            return companies.collect(Collectors.toList());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+    
+    /**
+     * Streams the companies in a file in input order, reading it only as fast as
+     * the stream is consumed. Close the stream to close the file.
+     * 
+     * @param path Path to the companies.txt file
+     * @return Sequential stream of companies
+     * @throws IOException if the file cannot be opened
+     */
+    public static Stream<Company> stream(Path path) throws IOException {
+        return stream(path, false);
+    }
+    
+    /**
+     * Streams the companies in a file in input order. Close the stream to close the file.
+     * 
+     * @param path Path to the companies.txt file
+     * @param parallel If true, batches of lines are handed to the common fork-join
+     *                 pool and parsed in parallel while the file is still being read;
+     *                 only worth it when the stream does more per company than parsing
+     * @return Stream of companies; read errors surface as {@link UncheckedIOException}
+     * @throws IOException if the file cannot be opened
+     */
+    public static Stream<Company> stream(Path path, boolean parallel) throws IOException {
+        return stream(path, parallel, true);
+    }
+    
+    /**
+     * Streams the companies in a file, optionally without the per-line warnings;
+     * for extra passes over a file whose problems are reported elsewhere.
+     */
+    static Stream<Company> stream(Path path, boolean parallel, boolean reportProblems) throws IOException {
+        // Malformed bytes are decoded as U+FFFD and reported per line instead of failing the file
+        BufferedReader reader = new BufferedReader(
+            new InputStreamReader(Files.newInputStream(path), StandardCharsets.UTF_8), READ_BUFFER_CHARS);
         
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            int lineNumber = 0;
+        Spliterator<Line> lines = new Spliterators.AbstractSpliterator<Line>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            private int lineNumber = 0;
             
-            while ((line = reader.readLine()) != null) {
-                lineNumber++;
-                line = line.trim();
-                
-                // Skip blank lines
-                if (line.isEmpty()) {
-                    continue;
-                }
-                
-                Company company = parseLine(line, lineNumber);
-                if (company != null) {
-                    companies.add(company);
+            @Override
+            public boolean tryAdvance(Consumer<? super Line> action) {
+                try {
+                    String text;
+                    while ((text = reader.readLine()) != null) {
+                        lineNumber++;
+                        if (lineNumber == 1 && text.startsWith("\uFEFF")) {
+                            // Byte order mark written by some spreadsheet exports
+                            text = text.substring(1);
+                        }
+                        // Skip blank lines
+                        if (!text.trim().isEmpty()) {
+                            action.accept(new Line(lineNumber, text));
+                            return true;
+                        }
+                    }
+                    return false;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
                 }
             }
-        }
+        };
         
-        return companies;
+        return StreamSupport.stream(lines, parallel)
+            .map(line -> parseLine(line.text.trim(), line.number, reportProblems))
+            .onClose(() -> {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
     }
     
     /**
      * Parses a single line into a Company object.
      * 
-     * @param line The line to parse
+     * @param line The line to parse, already trimmed and not blank
      * @param lineNumber Line number for error reporting
-     * @return Company object or null if line is invalid
+     * @return Company object
      */
-    private static Company parseLine(String line, int lineNumber) {
+    static Company parseLine(String line, int lineNumber) {
+        return parseLine(line, lineNumber, true);
+    }
+    
+    private static Company parseLine(String line, int lineNumber, boolean reportProblems) {
+        if (reportProblems && line.indexOf('\uFFFD') >= 0) {
+            Log.warn("Warning: Line " + lineNumber + " is not valid UTF-8; undecodable bytes were replaced");
+        }
+        
         // Try to match pattern: Name (URL)
-        Matcher matcher = COMPANY_PATTERN.matcher(line);
+        int[] split = splitNameAndUrl(line);
         
-        if (matcher.matches()) {
-            String name = matcher.group(1).trim();
-            String url = matcher.group(2).trim();
+        if (split != null) {
+            String name = line.substring(0, split[0]).trim();
+            String url = line.substring(split[1], split[2]).trim();
             
             // Validate URL format (basic check)
             if (isValidUrl(url)) {
                 return new Company(name, url);
             } else {
-                System.err.println("Warning: Invalid URL format on line " + lineNumber + ": " + url);
+                if (reportProblems) {
+                    Log.warn("Warning: Invalid URL format on line " + lineNumber + ": " + url);
+                }
                 return new Company(name, null);
             }
         } else {
@@ -75,6 +149,61 @@ public class CompanyParser {
         }
     }
     
+    /**
+     * Finds the name and the parenthesised URL of a "Name (URL)" line in one pass.
+     * Matches exactly what the regex {@code ^(.+?)\s*\(([^)]+)\)\s*$} matches, without
+     * its backtracking: the URL runs from the first '(' after the last inner ')' to
+     * the closing ')' at the end of the line.
+     * 
+     * @return End of the name, and start and end of the URL, or null if the line has no URL
+     */
+    static int[] splitNameAndUrl(String line) {
+        int end = line.length();
+        while (end > 0 && isRegexSpace(line.charAt(end - 1))) {
+            end--;
+        }
+        int close = end - 1;
+        if (close < 2 || line.charAt(close) != ')') {
+            return null;
+        }
+        
+        // The URL may not contain ')', so its '(' comes after any earlier ')'
+        int open = -1;
+        for (int i = Math.max(1, line.lastIndexOf(')', close - 1) + 1); i < close - 1; i++) {
+            if (line.charAt(i) == '(') {
+                open = i;
+                break;
+            }
+        }
+        if (open == -1) {
+            return null;
+        }
+        
+        // The shortest name is everything before the whitespace in front of '(', but at least one char
+        int nameEnd = open;
+        while (nameEnd > 1 && isRegexSpace(line.charAt(nameEnd - 1))) {
+            nameEnd--;
+        }
+        for (int i = 0; i < nameEnd; i++) {
+            if (isLineTerminator(line.charAt(i))) {
+                // '.' in the name group does not match line terminators
+                return null;
+            }
+        }
+        return new int[] {nameEnd, open + 1, close};
+    }
+    
+    /**
+     * Returns true for the characters matched by the regex class {@code \s}.
+     */
+    private static boolean isRegexSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+    
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+    
     /**
      * Basic URL validation.
      * 
@@ -84,4 +213,17 @@ public class CompanyParser {
     private static boolean isValidUrl(String url) {
         return url.startsWith("http://") || url.startsWith("https://");
     }
+    
+    /**
+     * A non-blank input line and its 1-based line number.
+     */
+    private static class Line {
+        final int number;
+        final String text;
+        
+        Line(int number, String text) {
+            this.number = number;
+            this.text = text;
+        }
+    }
 }
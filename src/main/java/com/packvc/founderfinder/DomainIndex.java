@@ -0,0 +1,223 @@
+package com.packvc.founderfinder;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Map from website domain to the Wikipedia articles whose infobox lists that domain
+ * as the official website. Filled from the articles in the response cache and from
+ * articles downloaded during the run, it resolves a company with a known website to
+ * its article without any request, even when the name alone is ambiguous ("Zoom",
+ * "Slack").
+ * <p>
+ * A domain only picks between articles titled after the company; it never resolves a
+ * company on its own. Company websites are often pages on someone else's domain (an
+ * app store listing, a LinkedIn profile, a project on github.io) whose infobox belongs
+ * to the platform, not the company.
+ */
+public class DomainIndex {
+
+    // Shared hosting suffixes whose subdomains are separate sites, from the private
+    // section of the public suffix list; parent-domain lookups stop below them
+    private static final Set<String> HOSTING_SUFFIXES = new HashSet<>(Arrays.asList(
+        "github.io", "gitlab.io", "herokuapp.com", "netlify.app", "vercel.app", "pages.dev",
+        "web.app", "firebaseapp.com", "appspot.com", "azurewebsites.net", "cloudfront.net",
+        "amazonaws.com", "blogspot.com", "wordpress.com", "substack.com", "medium.com",
+        "wixsite.com", "squarespace.com", "myshopify.com", "webflow.io", "notion.site", "carrd.co"));
+
+    private final Map<String, Set<String>> titlesByDomain = new ConcurrentHashMap<>();
+
+    /**
+     * Builds an index from every cached article with a website in its infobox.
+     *
+     * @param cache Response cache to scan
+     * @return Index of the cached articles
+     * @throws IOException if the cache directory cannot be listed
+     */
+    public static DomainIndex fromCache(HttpCache cache) throws IOException {
+        DomainIndex index = new DomainIndex();
+        cache.forEachPage(page -> {
+            String title = ResolutionIndex.titleFromUrl(page.getUrl());
+            if (title == null || title.contains(":")) {
+                // Search results, API responses and non-article namespaces
+                return;
+            }
+            try {
+                index.add(title, page);
+            } catch (IOException | RuntimeException e) {
+                Log.debug("  Skipping cached page " + page.getUrl() + ": " + e.getMessage());
+            }
+        });
+        return index;
+    }
+
+    /**
+     * Records the website domains in an article's infobox.
+     *
+     * @param title Article title
+     * @param page Raw article
+     * @throws IOException if the article cannot be decoded
+     */
+    public void add(String title, PageBody page) throws IOException {
+        // The website row sits below the founders, so read the whole infobox
+        InfoboxStreamExtractor.Result result = InfoboxStreamExtractor.scan(
+            new ByteArrayInputStream(page.getBody()), Charset.forName(page.getCharset()), false);
+        if (result.getInfoboxHtml() == null) {
+            return;
+        }
+        Document fragment = Jsoup.parseBodyFragment(result.getInfoboxHtml(), page.getUrl());
+        add(title, fragment.selectFirst("table.infobox"));
+    }
+
+    /**
+     * Records the website domains in an article's infobox.
+     *
+     * @param title Article title
+     * @param infobox Infobox table, or null
+     */
+    public void add(String title, Element infobox) {
+        for (String domain : websiteDomains(infobox)) {
+            addDomain(domain, title);
+        }
+    }
+
+    /**
+     * Records that an article lists a website domain.
+     *
+     * @param domain Domain without a leading "www."
+     * @param title Article title
+     */
+    public void addDomain(String domain, String title) {
+        titlesByDomain.computeIfAbsent(domain, d -> ConcurrentHashMap.newKeySet()).add(title);
+    }
+
+    /**
+     * Finds the article for a company website. The full host is tried first, then
+     * its parent domains up to the registrable domain, so "about.example.com" also
+     * finds "example.com" but "foo.github.io" never reaches "github.io". Of the
+     * articles listing the domain, the single one titled after the company wins;
+     * otherwise nothing is returned and the company is resolved by name.
+     *
+     * @param companyName Company name, which the article's title must match
+     * @param companyUrl Company website, or null
+     * @return Article title, or null if the domain is unknown, ambiguous or belongs
+     *         to an article about something else
+     */
+    public String lookup(String companyName, String companyUrl) {
+        String domain = ResolutionIndex.domainOf(companyUrl);
+        for (String candidate = domain; candidate != null; candidate = parentDomain(candidate)) {
+            Set<String> titles = titlesByDomain.get(candidate);
+            if (titles != null) {
+                return pick(companyName, titles, candidate);
+            }
+        }
+        return null;
+    }
+
+    public int size() {
+        return titlesByDomain.size();
+    }
+
+    private static String pick(String companyName, Set<String> titles, String domain) {
+        List<String> snapshot = new ArrayList<>(titles);
+        String name = ResolutionIndex.normalizeName(companyName);
+        String match = null;
+        for (String title : snapshot) {
+            if (isTitledAfter(ResolutionIndex.normalizeName(title), name)) {
+                if (match != null) {
+                    match = null;
+                    break;
+                }
+                match = title;
+            }
+        }
+        if (match == null) {
+            Log.debug("  Domain " + domain + " is claimed by " + snapshot + "; resolving '" + companyName + "' by name");
+        }
+        return match;
+    }
+
+    /**
+     * Returns true if one normalized name starts with the other as whole words, so
+     * "zoom" matches "zoom communications" but not "zoominfo".
+     */
+    private static boolean isTitledAfter(String title, String name) {
+        return startsWithWords(title, name) || startsWithWords(name, title);
+    }
+
+    private static boolean startsWithWords(String text, String prefix) {
+        return !prefix.isEmpty() && text.startsWith(prefix)
+               && (text.length() == prefix.length() || !Character.isLetterOrDigit(text.charAt(prefix.length())));
+    }
+
+    /**
+     * Returns the domain one label up, or null once only two labels are left or the
+     * domain is a site on a shared hosting suffix.
+     */
+    private static String parentDomain(String domain) {
+        int dot = domain.indexOf('.');
+        if (dot == -1 || domain.indexOf('.', dot + 1) == -1) {
+            return null;
+        }
+        String parent = domain.substring(dot + 1);
+        return HOSTING_SUFFIXES.contains(parent) ? null : parent;
+    }
+
+    /**
+     * Returns true if a company website shares a domain with any of an article's websites,
+     * counting subdomains of either side as the same site.
+     */
+    static boolean sameSite(String companyDomain, Collection<String> websiteDomains) {
+        for (String website : websiteDomains) {
+            if (companyDomain.equals(website)
+                    || companyDomain.endsWith("." + website)
+                    || website.endsWith("." + companyDomain)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Extracts the official website domains from an infobox: the targets of links in
+     * its website row, or bare host names written in the cell when it has no links.
+     *
+     * @param infobox Infobox table, or null
+     * @return Domains without a leading "www.", possibly empty
+     */
+    static Set<String> websiteDomains(Element infobox) {
+        Set<String> domains = new LinkedHashSet<>();
+        Element cell = InfoboxScanner.scan(infobox).getCell(InfoboxScanner.Field.WEBSITE);
+        if (cell == null) {
+            return domains;
+        }
+        for (Element link : cell.select("a[href]")) {
+            String domain = ResolutionIndex.domainOf(link.absUrl("href"));
+            if (domain != null && !isWikiDomain(domain)) {
+                domains.add(domain);
+            }
+        }
+        if (domains.isEmpty()) {
+            for (String token : cell.text().split("[\\s,;]+")) {
+                if (token.indexOf('.') > 0) {
+                    String domain = ResolutionIndex.domainOf(token.contains("://") ? token : "http://" + token);
+                    if (domain != null && domain.indexOf('.') > 0) {
+                        domains.add(domain);
+                    }
+                }
+            }
+        }
+        return domains;
+    }
+
+    private static boolean isWikiDomain(String domain) {
+        return domain.endsWith("wikipedia.org") || domain.endsWith("wikidata.org") || domain.endsWith("wikimedia.org");
+    }
+}
@@ -0,0 +1,243 @@
+package com.packvc.founderfinder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Founders of every article in a Wikipedia dump, built in one pass so a company
+ * list can be answered by lookup instead of by request. The reader thread parses
+ * the XML while a pool of workers extracts infoboxes from batches of articles.
+ * <p>
+ * Articles are indexed by title; redirects and website domains are only kept for
+ * the names and domains in the company list, which keeps a full English dump's
+ * millions of redirects out of memory.
+ */
+public class DumpIndex {
+
+    // Articles handed to a worker at a time
+    private static final int BATCH_SIZE = 256;
+
+    // Redirect chains longer than this are broken or looping
+    private static final int MAX_REDIRECT_HOPS = 3;
+
+    private final Map<String, List<String>> foundersByTitle = new ConcurrentHashMap<>();
+    private final Map<String, String> redirects = new HashMap<>();
+    private final DomainIndex domains = new DomainIndex();
+
+    private DumpIndex() {
+    }
+
+    /**
+     * Titles and website domains a run will look up, collected from the company list
+     * before the dump is read.
+     */
+    public static class Wanted {
+        private final Set<String> titles = new HashSet<>();
+        private final Set<String> domains = new HashSet<>();
+
+        /**
+         * Adds the titles a company may be found under and its website domain.
+         */
+        public void add(Company company) {
+            for (String title : candidateTitles(company.getName())) {
+                titles.add(ResolutionIndex.normalizeName(title));
+            }
+            String domain = ResolutionIndex.domainOf(company.getUrl());
+            if (domain != null) {
+                domains.add(domain);
+            }
+        }
+
+        boolean wantsTitle(String normalizedTitle) {
+            return titles.contains(normalizedTitle);
+        }
+
+        /**
+         * Returns true if a website domain is a company's domain or one of its parents.
+         */
+        boolean wantsDomain(String domain) {
+            for (String companyDomain : domains) {
+                if (companyDomain.equals(domain) || companyDomain.endsWith("." + domain)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public int size() {
+            return titles.size();
+        }
+    }
+
+    /**
+     * Reads a dump and indexes the founders and websites of its articles.
+     *
+     * @param dump Dump file (.xml, .xml.gz or .xml.bz2)
+     * @param wanted Titles and domains to keep redirects and websites for, or null to keep all
+     * @param threads Extraction workers
+     * @return Index of the dump
+     * @throws IOException if the dump cannot be read or is not a MediaWiki export
+     */
+    public static DumpIndex build(Path dump, Wanted wanted, int threads) throws IOException {
+        DumpIndex index = new DumpIndex();
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        // Bounds the batches waiting for a worker, so parsing cannot run ahead of extraction
+        Semaphore pending = new Semaphore(threads * 2);
+        List<WikiDumpReader.Page> batch = new ArrayList<>(BATCH_SIZE);
+
+        try (InputStream in = WikiDumpReader.open(dump)) {
+            WikiDumpReader.read(in, page -> {
+                Metrics.increment(Metrics.Counter.DUMP_PAGES);
+                if (page.getNamespace() != 0) {
+                    return;
+                }
+                if (page.isRedirect()) {
+                    index.addRedirect(page.getTitle(), page.getRedirectTarget(), wanted);
+                    return;
+                }
+                batch.add(page);
+                if (batch.size() == BATCH_SIZE) {
+                    index.submit(new ArrayList<>(batch), wanted, workers, pending);
+                    batch.clear();
+                }
+            });
+            if (!batch.isEmpty()) {
+                index.submit(batch, wanted, workers, pending);
+            }
+        } finally {
+            workers.shutdown();
+        }
+
+        try {
+            workers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while indexing " + dump, e);
+        }
+        return index;
+    }
+
+    private void submit(List<WikiDumpReader.Page> pages, Wanted wanted, ExecutorService workers, Semaphore pending) {
+        try {
+            pending.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while indexing dump", e);
+        }
+        workers.execute(() -> {
+            try {
+                for (WikiDumpReader.Page page : pages) {
+                    addArticle(page, wanted);
+                }
+            } finally {
+                pending.release();
+            }
+        });
+    }
+
+    private void addArticle(WikiDumpReader.Page page, Wanted wanted) {
+        try {
+            WikitextInfobox infobox = WikitextInfobox.find(page.getText());
+            if (infobox == null) {
+                return;
+            }
+            List<String> founders = infobox.getFounders();
+            if (!founders.isEmpty()) {
+                foundersByTitle.put(ResolutionIndex.normalizeName(page.getTitle()), founders);
+                Metrics.increment(Metrics.Counter.DUMP_FOUNDER_ARTICLES);
+            }
+            for (String domain : infobox.getWebsiteDomains()) {
+                if (wanted == null || wanted.wantsDomain(domain)) {
+                    domains.addDomain(domain, page.getTitle());
+                }
+            }
+        } catch (RuntimeException e) {
+            // One malformed article must not stop the dump
+            Log.debug("  Skipping dump article " + page.getTitle() + ": " + e.getMessage());
+        }
+    }
+
+    private void addRedirect(String title, String target, Wanted wanted) {
+        String source = ResolutionIndex.normalizeName(title);
+        if (wanted != null && !wanted.wantsTitle(source)) {
+            return;
+        }
+        int fragment = target.indexOf('#');
+        redirects.put(source, fragment == -1 ? target : target.substring(0, fragment));
+        Metrics.increment(Metrics.Counter.DUMP_REDIRECTS);
+    }
+
+    /**
+     * Looks up a company's founders: by website domain first, then by the titles its
+     * article usually has, following redirects.
+     *
+     * @param companyName Company name
+     * @param companyUrl Company website, or null
+     * @return Founders, or null if no article for the company has any
+     */
+    public List<String> lookup(String companyName, String companyUrl) {
+        String byDomain = domains.lookup(companyName, companyUrl);
+        if (byDomain != null) {
+            List<String> founders = foundersOf(byDomain);
+            if (founders != null) {
+                Log.debug("  Found " + byDomain + " by website domain");
+                return founders;
+            }
+        }
+        for (String title : candidateTitles(companyName)) {
+            List<String> founders = foundersOf(title);
+            if (founders != null) {
+                Log.debug("  Found " + title + " in dump");
+                return founders;
+            }
+        }
+        return null;
+    }
+
+    private List<String> foundersOf(String title) {
+        String key = ResolutionIndex.normalizeName(title);
+        for (int hop = 0; hop <= MAX_REDIRECT_HOPS; hop++) {
+            List<String> founders = foundersByTitle.get(key);
+            if (founders != null) {
+                return founders;
+            }
+            String target = redirects.get(key);
+            if (target == null) {
+                return null;
+            }
+            key = ResolutionIndex.normalizeName(target);
+        }
+        return null;
+    }
+
+    /**
+     * Titles a company's article is commonly found under, most likely first.
+     */
+    static List<String> candidateTitles(String companyName) {
+        String name = companyName.trim();
+        return Arrays.asList(name, name + " (company)", name + " Inc.", name + ", Inc.");
+    }
+
+    /**
+     * Returns the number of articles with founders.
+     */
+    public int size() {
+        return foundersByTitle.size();
+    }
+
+    public int redirectCount() {
+        return redirects.size();
+    }
+
+    public int domainCount() {
+        return domains.size();
+    }
+}
@@ -0,0 +1,38 @@
+package com.packvc.founderfinder;
+
+import java.io.IOException;
+
+/**
+ * A request that reached the server but came back with an error status.
+ * Carries the status code and any Retry-After delay so the retry policy can
+ * tell a missing page from a server asking us to slow down.
+ */
+public class FetchException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int statusCode;
+    private final long retryAfterMillis;
+
+    /**
+     * @param url Requested URL
+     * @param statusCode HTTP status code
+     * @param retryAfterMillis Delay requested by a Retry-After header, or -1 if there was none
+     */
+    public FetchException(String url, int statusCode, long retryAfterMillis) {
+        super("HTTP error fetching URL. Status=" + statusCode + ", URL=[" + url + "]");
+        this.statusCode = statusCode;
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * Returns the delay requested by the server's Retry-After header, or -1 if it sent none.
+     */
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+}
@@ -1,11 +1,14 @@
 package com.packvc.founderfinder;
 
+import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
 import java.util.*;
-import java.util.regex.Pattern;
 
 /**
  * Extracts founder names from Wikipedia infoboxes.
@@ -13,14 +16,68 @@ import java.util.regex.Pattern;
  */
 public class FounderExtractor {
     
-    // Patterns for founder-related headers
-    private static final String[] FOUNDER_HEADERS = {"Founder(s)", "Founders", "Founder"};
+    // Titles and suffixes stripped from names
+    private static final String[] TITLE_PREFIXES = {"Mr", "Mrs", "Ms", "Dr"};
+    private static final String[] NAME_SUFFIXES = {"Jr.", "Jr", "Sr.", "Sr", "III", "IV"};
     
-    // Pattern to match person-like names: 2-4 capitalized tokens with optional hyphens/apostrophes
-    private static final Pattern PERSON_NAME_PATTERN = Pattern.compile(
-        "^[A-Z][a-z]+(?:[-'][A-Z][a-z]+)*(?:\\s+[A-Z][a-z]+(?:[-'][A-Z][a-z]+)*){1,3}$"
+    // Common non-person words; a candidate containing any of them is not a founder name
+    private static final KeywordMatcher SKIP_WORDS = new KeywordMatcher(
+        "company", "corporation", "inc", "llc", "ltd", "group", "systems",
+        "technologies", "software", "services", "solutions", "ventures",
+        "capital", "partners", "associates", "holdings", "enterprises"
     );
     
+    /**
+     * Extracts founders from a resolved article.
+     * Uses the parsed document if resolution already produced one, otherwise streams
+     * the article body and parses only its infobox.
+     * 
+     * @param page The resolved Wikipedia article
+     * @param companyName Name of the company for logging
+     * @return List of founder names (may be empty)
+     * @throws IOException if the article has to be fetched and the fetch fails
+     */
+    public static List<String> extractFounders(ResolvedPage page, String companyName) throws IOException {
+        if (page.hasDocument()) {
+            return extractFounders(page.getDocument(), companyName);
+        }
+        return extractFounders(page.getBody(), companyName);
+    }
+    
+    /**
+     * Extracts founders from a raw article body by streaming it up to the infobox.
+     * Falls back to a full document parse if the infobox cannot be isolated.
+     * 
+     * @param body The Wikipedia article body
+     * @param companyName Name of the company for logging
+     * @return List of founder names (may be empty)
+     * @throws IOException if the body cannot be decoded
+     */
+    public static List<String> extractFounders(PageBody body, String companyName) throws IOException {
+        long start = System.nanoTime();
+        InfoboxStreamExtractor.Result result = InfoboxStreamExtractor.scan(
+            new ByteArrayInputStream(body.getBody()), Charset.forName(body.getCharset()));
+        Metrics.add(Metrics.Counter.BYTES_SCANNED, result.getBytesRead());
+        Metrics.add(Metrics.Counter.BYTES_SKIPPED, body.getBody().length - result.getBytesRead());
+        
+        if (!result.isComplete()) {
+            Log.debug("  Infobox not terminated, falling back to full parse");
+            return extractFounders(body.parse(), companyName);
+        }
+        
+        Log.debug("Extracting founders for: " + companyName + 
+                  " (scanned " + result.getBytesRead() + " of " + body.getBody().length + " bytes)");
+        if (result.getInfoboxHtml() == null) {
+            Metrics.recordLatency(Metrics.Stage.PARSE, System.nanoTime() - start);
+            Log.debug("  No infobox found");
+            return new ArrayList<>();
+        }
+        
+        Document fragment = Jsoup.parseBodyFragment(result.getInfoboxHtml(), body.getUrl());
+        Metrics.recordLatency(Metrics.Stage.PARSE, System.nanoTime() - start);
+        return extractFromInfobox(fragment.selectFirst("table.infobox"));
+    }
+    
     /**
      * Extracts founders from a Wikipedia article document.
      * 
@@ -29,144 +86,317 @@ public class FounderExtractor {
      * @return List of founder names (may be empty)
      */
     public static List<String> extractFounders(Document doc, String companyName) {
-        System.out.println("Extracting founders for: " + companyName);
+        Log.debug("Extracting founders for: " + companyName);
         
         // Find the infobox
         Elements infoboxes = doc.select("table.infobox");
         if (infoboxes.isEmpty()) {
-            System.out.println("  No infobox found");
+            Log.debug("  No infobox found");
             return new ArrayList<>();
         }
         
-        Element infobox = infoboxes.first();
-        System.out.println("  Found infobox, searching for founder rows...");
-        
-        // Look for founder-related rows
-        Elements rows = infobox.select("tr");
-        for (Element row : rows) {
-            Elements headers = row.select("th");
-            Elements dataCells = row.select("td");
-            
-            if (headers.isEmpty() || dataCells.isEmpty()) {
-                continue;
-            }
-            
-            String headerText = headers.first().text().trim();
-            System.out.println("  Checking header: '" + headerText + "'");
-            
-            // Check if this is a founder-related header
-            if (isFounderHeader(headerText)) {
-                System.out.println("  ✓ Found founder header: '" + headerText + "'");
-                Element dataCell = dataCells.first();
-                List<String> founders = extractNamesFromCell(dataCell);
-                System.out.println("  Extracted " + founders.size() + " founders: " + founders);
-                return founders;
-            }
+        return extractFromInfobox(infoboxes.first());
+    }
+    
+    /**
+     * Extracts founders from the rows of an infobox table.
+     */
+    private static List<String> extractFromInfobox(Element infobox) {
+        long start = System.nanoTime();
+        Log.debug("  Found infobox, searching for founder rows...");
+        List<String> founders = InfoboxScanner.scan(infobox).getFounders();
+        Metrics.recordLatency(Metrics.Stage.EXTRACT, System.nanoTime() - start);
+        if (founders.isEmpty()) {
+            Log.debug("  No founder information found in infobox");
+        } else {
+            Log.debug("  Extracted " + founders.size() + " founders: " + founders);
         }
-        
-        System.out.println("  No founder information found in infobox");
-        return new ArrayList<>();
+        return founders;
     }
     
     /**
      * Checks if a header text matches founder-related patterns.
      */
-    private static boolean isFounderHeader(String headerText) {
-        for (String founderHeader : FOUNDER_HEADERS) {
-            if (headerText.equals(founderHeader)) {
-                return true;
-            }
-        }
-        return false;
+    static boolean isFounderHeader(String headerText) {
+        return InfoboxScanner.fieldOf(headerText) == InfoboxScanner.Field.FOUNDERS;
     }
     
     /**
-     * Extracts and normalizes names from a data cell.
+     * Extracts founder names from cell-like HTML: splits it into candidates, normalizes
+     * them and keeps the distinct ones that look like person names.
+     * 
+     * @param html Cell HTML, or text using {@code <br>}, newlines, commas or semicolons between names
+     * @return Founder names in order of appearance
      */
-    private static List<String> extractNamesFromCell(Element cell) {
-        // Get all text content, handling <br> tags as separators
-        String cellText = cell.html();
-        
-        // Replace <br> tags with newlines for splitting
-        cellText = cellText.replaceAll("(?i)<br\\s*/?>", "\n");
-        
-        // Remove HTML tags but preserve text content
-        cellText = cellText.replaceAll("<[^>]+>", "");
-        
-        // Split by newlines, commas, and semicolons
-        String[] nameParts = cellText.split("[\n,;]+");
-        
+    static List<String> extractNames(String html) {
         Set<String> uniqueNames = new LinkedHashSet<>();
         
-        for (String part : nameParts) {
-            String normalizedName = normalizeName(part.trim());
+        for (String part : splitCellHtml(html)) {
+            String normalizedName = normalizeName(part);
             if (isValidPersonName(normalizedName)) {
                 uniqueNames.add(normalizedName);
-                System.out.println("    Added founder: '" + normalizedName + "'");
-            } else if (!normalizedName.isEmpty()) {
-                System.out.println("    Skipped invalid name: '" + normalizedName + "'");
+                if (Log.isDebugEnabled()) {
+                    Log.debug("    Added founder: '" + normalizedName + "'");
+                }
+            } else if (!normalizedName.isEmpty() && Log.isDebugEnabled()) {
+                Log.debug("    Skipped invalid name: '" + normalizedName + "'");
             }
         }
         
         return new ArrayList<>(uniqueNames);
     }
     
+    /**
+     * Splits a cell's HTML into candidate name strings.
+     * {@code <br>} tags become separators, every other tag is dropped, and the remaining
+     * text is split on newlines, commas and semicolons. Empty parts are skipped.
+     */
+    static List<String> splitCellHtml(String html) {
+        // Pass 1: replace <br>, <br/>, <BR /> ... with newlines
+        StringBuilder text = new StringBuilder(html.length());
+        for (int i = 0; i < html.length(); i++) {
+            char c = html.charAt(i);
+            int brEnd = c == '<' ? matchBrTag(html, i) : -1;
+            if (brEnd != -1) {
+                text.append('\n');
+                i = brEnd - 1;
+            } else {
+                text.append(c);
+            }
+        }
+        
+        // Pass 2: drop remaining tags and cut the text at separators
+        List<String> parts = new ArrayList<>();
+        StringBuilder part = new StringBuilder();
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c == '<') {
+                int close = text.indexOf(">", i + 1);
+                if (close > i + 1) {
+                    i = close;
+                    continue;
+                }
+            }
+            if (c == '\n' || c == ',' || c == ';') {
+                addPart(parts, part);
+            } else {
+                part.append(c);
+            }
+        }
+        addPart(parts, part);
+        return parts;
+    }
+    
+    private static void addPart(List<String> parts, StringBuilder part) {
+        String trimmed = part.toString().trim();
+        if (!trimmed.isEmpty()) {
+            parts.add(trimmed);
+        }
+        part.setLength(0);
+    }
+    
+    /**
+     * Matches {@code <br\s*\/?>} case-insensitively at the given position.
+     * 
+     * @return Index just past the tag, or -1 if there is no br tag here
+     */
+    private static int matchBrTag(String html, int start) {
+        int i = start + 1;
+        if (i + 1 >= html.length() 
+                || Character.toLowerCase(html.charAt(i)) != 'b' 
+                || Character.toLowerCase(html.charAt(i + 1)) != 'r') {
+            return -1;
+        }
+        i += 2;
+        while (i < html.length() && isRegexWhitespace(html.charAt(i))) {
+            i++;
+        }
+        if (i < html.length() && html.charAt(i) == '/') {
+            i++;
+        }
+        return i < html.length() && html.charAt(i) == '>' ? i + 1 : -1;
+    }
+    
     /**
      * Normalizes a name by cleaning up spacing and Unicode characters.
+     * Collapses whitespace, normalizes apostrophes and dashes, and removes a leading
+     * title (Mr, Mrs, Ms, Dr) and a trailing suffix (Jr, Sr, III, IV), in one pass
+     * over the characters.
      */
-    private static String normalizeName(String name) {
-        if (name == null || name.trim().isEmpty()) {
+    static String normalizeName(String name) {
+        if (name == null) {
+            return "";
+        }
+        name = name.trim();
+        if (name.isEmpty()) {
             return "";
         }
         
-        // Remove extra whitespace
-        name = name.trim().replaceAll("\\s+", " ");
-        
-        // Normalize Unicode apostrophes and hyphens
-        name = name.replaceAll("[''`]", "'");  // Normalize apostrophes
-        name = name.replaceAll("[-–—]", "-");  // Normalize hyphens
+        // Collapse whitespace runs and normalize apostrophes and hyphens
+        StringBuilder normalized = new StringBuilder(name.length());
+        boolean inWhitespace = false;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (isRegexWhitespace(c)) {
+                if (!inWhitespace) {
+                    normalized.append(' ');
+                    inWhitespace = true;
+                }
+                continue;
+            }
+            inWhitespace = false;
+            if (c == '`') {
+                c = '\'';
+            } else if (c == '\u2013' || c == '\u2014') {
+                c = '-';
+            }
+            normalized.append(c);
+        }
         
         // Remove common prefixes/suffixes that aren't part of names
-        name = name.replaceAll("^(Mr\\.?|Mrs\\.?|Ms\\.?|Dr\\.?)\\s+", "");
-        name = name.replaceAll("\\s+(Jr\\.?|Sr\\.?|III|IV)$", "");
+        int start = titlePrefixLength(normalized);
+        int end = normalized.length();
+        // Like regex '$', a suffix may also sit just before one final line terminator
+        if (end > start && isLineTerminator(normalized.charAt(end - 1))) {
+            end--;
+        }
+        int suffix = suffixStart(normalized, start, end);
+        if (suffix != -1) {
+            normalized.delete(suffix, end);
+        }
         
-        return name.trim();
+        return normalized.substring(start).trim();
+    }
+    
+    /**
+     * Returns the length of a leading "Mr", "Mrs.", "Dr " style title including the
+     * whitespace after it, or 0 if the name does not start with one.
+     */
+    private static int titlePrefixLength(CharSequence name) {
+        for (String title : TITLE_PREFIXES) {
+            if (!regionMatches(name, 0, title)) {
+                continue;
+            }
+            int i = title.length();
+            if (i < name.length() && name.charAt(i) == '.') {
+                i++;
+            }
+            if (i < name.length() && isRegexWhitespace(name.charAt(i))) {
+                while (i < name.length() && isRegexWhitespace(name.charAt(i))) {
+                    i++;
+                }
+                return i;
+            }
+        }
+        return 0;
+    }
+    
+    /**
+     * Returns where a " Jr", " Sr.", " III" style suffix ending at {@code end} starts,
+     * including the whitespace before it, or -1 if there is none.
+     */
+    private static int suffixStart(CharSequence name, int from, int end) {
+        for (String suffix : NAME_SUFFIXES) {
+            int suffixAt = end - suffix.length();
+            if (suffixAt - 1 < from 
+                    || !regionMatches(name, suffixAt, suffix) 
+                    || !isRegexWhitespace(name.charAt(suffixAt - 1))) {
+                continue;
+            }
+            int start = suffixAt - 1;
+            while (start - 1 >= from && isRegexWhitespace(name.charAt(start - 1))) {
+                start--;
+            }
+            return start;
+        }
+        return -1;
+    }
+    
+    private static boolean regionMatches(CharSequence text, int offset, String expected) {
+        if (offset < 0 || offset + expected.length() > text.length()) {
+            return false;
+        }
+        for (int i = 0; i < expected.length(); i++) {
+            if (text.charAt(offset + i) != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Whitespace as matched by {@code \\s} in a default Java regex.
+     */
+    private static boolean isRegexWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+    
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
     }
     
     /**
      * Validates if a string looks like a person's name.
      */
-    private static boolean isValidPersonName(String name) {
-        if (name == null || name.trim().isEmpty()) {
+    static boolean isValidPersonName(String name) {
+        // Skip if it's too short or too long
+        if (name == null || name.length() < 3 || name.length() > 100) {
             return false;
         }
         
         // Must match person name pattern (2-4 capitalized tokens)
-        if (!PERSON_NAME_PATTERN.matcher(name).matches()) {
+        if (!isPersonNameShape(name)) {
             return false;
         }
         
-        // Additional filters for common non-person text
-        String lowerName = name.toLowerCase();
-        
         // Skip if it contains common non-person words
-        String[] skipWords = {
-            "company", "corporation", "inc", "llc", "ltd", "group", "systems",
-            "technologies", "software", "services", "solutions", "ventures",
-            "capital", "partners", "associates", "holdings", "enterprises"
-        };
+        return !SKIP_WORDS.containsAny(name);
+    }
+    
+    /**
+     * Checks that a name is 2-4 whitespace-separated words, each made of capitalized
+     * segments ("Smith", "Jean-Luc", "O'Brien"). Only ASCII letters are accepted.
+     */
+    private static boolean isPersonNameShape(String name) {
+        int words = 0;
+        int i = 0;
+        int length = name.length();
         
-        for (String skipWord : skipWords) {
-            if (lowerName.contains(skipWord)) {
-                return false;
+        while (i < length) {
+            if (words > 0) {
+                // Words after the first must be preceded by whitespace
+                if (!isRegexWhitespace(name.charAt(i))) {
+                    return false;
+                }
+                while (i < length && isRegexWhitespace(name.charAt(i))) {
+                    i++;
+                }
             }
+            
+            // One word: Segment ([-'] Segment)*
+            while (true) {
+                if (i >= length || name.charAt(i) < 'A' || name.charAt(i) > 'Z') {
+                    return false;
+                }
+                i++;
+                int lowercase = 0;
+                while (i < length && name.charAt(i) >= 'a' && name.charAt(i) <= 'z') {
+                    i++;
+                    lowercase++;
+                }
+                if (lowercase == 0) {
+                    return false;
+                }
+                if (i < length && (name.charAt(i) == '-' || name.charAt(i) == '\'')) {
+                    i++;
+                    continue;
+                }
+                break;
+            }
+            words++;
         }
         
-        // Skip if it's too short or too long
-        if (name.length() < 3 || name.length() > 100) {
-            return false;
-        }
-        
-        return true;
+        return words >= 2 && words <= 4;
     }
 }
@@ -0,0 +1,66 @@
+package com.packvc.founderfinder;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Founders found for a company together with the article they came from, so a
+ * later run can tell whether the article changed since.
+ */
+public class FounderResult {
+
+    private static final FounderResult NO_ARTICLE = new FounderResult(Collections.emptyList(), null, 0, false);
+    private static final FounderResult FAILED = new FounderResult(Collections.emptyList(), null, 0, true);
+
+    private final List<String> founders;
+    private final String title;
+    private final long revision;
+    private final boolean failed;
+
+    /**
+     * @param founders Founders in order of appearance
+     * @param title Article title, or null if the founders did not come from a known article
+     * @param revision Article revision the founders were extracted from, or 0 if unknown
+     */
+    public FounderResult(List<String> founders, String title, long revision) {
+        this(founders, title, revision, false);
+    }
+
+    private FounderResult(List<String> founders, String title, long revision, boolean failed) {
+        this.founders = Collections.unmodifiableList(founders);
+        this.title = title;
+        this.revision = revision;
+        this.failed = failed;
+    }
+
+    /**
+     * Result for a company that has no article.
+     */
+    public static FounderResult noArticle() {
+        return NO_ARTICLE;
+    }
+
+    /**
+     * Result for a company whose lookup failed; it has no founders and is looked up
+     * again by the next refresh.
+     */
+    public static FounderResult failed() {
+        return FAILED;
+    }
+
+    public List<String> getFounders() {
+        return founders;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public long getRevision() {
+        return revision;
+    }
+
+    public boolean isFailed() {
+        return failed;
+    }
+}
@@ -0,0 +1,286 @@
+package com.packvc.founderfinder;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * HTTP lookup API over a long-lived {@link FounderService}, so tools can ask for a
+ * few companies at a time without starting a JVM and with warm caches.
+ * <ul>
+ *   <li>{@code GET /founders?name=Airbnb&url=https://airbnb.com} looks up one company</li>
+ *   <li>{@code POST /founders/batch} looks up a JSON array of companies, each either
+ *       {@code {"name": ..., "url": ...}} or a "Name (URL)" string as in companies.txt</li>
+ *   <li>{@code GET /health} and {@code GET /metrics} report liveness and the run metrics</li>
+ * </ul>
+ * Batch entries are looked up concurrently on the lookup pool and answered in
+ * request order. A company whose lookup fails gets an "error" field instead of founders.
+ */
+public class FounderServer {
+
+    // Larger batches should be split by the client, or run through the batch CLI
+    static final int MAX_BATCH_SIZE = 1000;
+    private static final int MAX_BODY_BYTES = 1 << 20;
+
+    private static final Gson GSON = new Gson();
+
+    static {
+        // Headers and body go out as separate writes; without TCP_NODELAY every response
+        // on a kept-alive connection waits out the client's delayed ACK (about 40 ms)
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final FounderService service;
+    private final HttpServer server;
+    private final ExecutorService handlers;
+    private final ExecutorService lookups;
+
+    /**
+     * Binds the server; call {@link #start()} to accept requests.
+     *
+     * @param service Lookup pipeline shared by every request
+     * @param port Port to listen on, or 0 for any free port
+     * @param lookups Pool running the lookups of batch requests
+     * @param handlerThreads Threads reading requests and answering single lookups
+     * @throws IOException if the port cannot be bound
+     */
+    public FounderServer(FounderService service, int port, ExecutorService lookups, int handlerThreads) throws IOException {
+        this.service = service;
+        this.lookups = lookups;
+        this.handlers = Executors.newFixedThreadPool(handlerThreads);
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.setExecutor(handlers);
+        server.createContext("/founders", exact("/founders", this::handleLookup));
+        server.createContext("/founders/batch", exact("/founders/batch", this::handleBatch));
+        server.createContext("/health", exact("/health", this::handleHealth));
+        server.createContext("/metrics", exact("/metrics", this::handleMetrics));
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops accepting requests, lets running ones finish for up to the given delay, then
+     * shuts the pools down.
+     *
+     * @param delaySeconds Seconds to wait for running requests
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        handlers.shutdownNow();
+        lookups.shutdownNow();
+    }
+
+    /**
+     * Returns the port the server is bound to.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handleLookup(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestMethod().equals("GET")) {
+            sendError(exchange, 405, "Use GET");
+            return;
+        }
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        String name = query.get("name");
+        if (name == null || name.trim().isEmpty()) {
+            sendError(exchange, 400, "Missing name parameter");
+            return;
+        }
+        Company company = new Company(name.trim(), query.get("url"));
+
+        JsonObject result = lookup(company);
+        sendJson(exchange, result.has("error") ? 502 : 200, result);
+    }
+
+    private void handleBatch(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestMethod().equals("POST")) {
+            sendError(exchange, 405, "Use POST");
+            return;
+        }
+        byte[] body = readBody(exchange.getRequestBody());
+        if (body == null) {
+            sendError(exchange, 413, "Request body is larger than " + MAX_BODY_BYTES + " bytes");
+            return;
+        }
+
+        List<Company> companies;
+        try {
+            companies = parseBatch(new String(body, StandardCharsets.UTF_8));
+        } catch (JsonParseException | IllegalArgumentException | IllegalStateException e) {
+            sendError(exchange, 400, "Expected a JSON array of companies: " + e.getMessage());
+            return;
+        }
+        if (companies.size() > MAX_BATCH_SIZE) {
+            sendError(exchange, 413, "At most " + MAX_BATCH_SIZE + " companies per batch");
+            return;
+        }
+
+        List<Future<JsonObject>> futures = new ArrayList<>(companies.size());
+        for (Company company : companies) {
+            futures.add(lookups.submit(() -> lookup(company)));
+        }
+        JsonArray results = new JsonArray();
+        try {
+            for (Future<JsonObject> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(f -> f.cancel(true));
+            sendError(exchange, 503, "Server is shutting down");
+            return;
+        } catch (ExecutionException e) {
+            // lookup() reports failures in its result, so this is a bug
+            sendError(exchange, 500, String.valueOf(e.getCause()));
+            return;
+        }
+
+        JsonObject response = new JsonObject();
+        response.add("results", results);
+        sendJson(exchange, 200, response);
+    }
+
+    private void handleHealth(HttpExchange exchange) throws IOException {
+        JsonObject response = new JsonObject();
+        response.addProperty("status", "ok");
+        sendJson(exchange, 200, response);
+    }
+
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (Writer writer = new OutputStreamWriter(buffer, StandardCharsets.UTF_8)) {
+            Metrics.writeJson(writer);
+        }
+        send(exchange, 200, buffer.toByteArray());
+    }
+
+    /**
+     * Looks up one company, turning a failure into an "error" field.
+     */
+    private JsonObject lookup(Company company) {
+        JsonObject result = new JsonObject();
+        result.addProperty("name", company.getName());
+        try {
+            result.add("founders", GSON.toJsonTree(service.findFounders(company)));
+        } catch (IOException | RuntimeException e) {
+            Log.warn("✗ Error processing " + company.getName() + ": " + e.getMessage());
+            result.addProperty("error", String.valueOf(e.getMessage()));
+        }
+        return result;
+    }
+
+    /**
+     * Reads the companies of a batch request.
+     */
+    static List<Company> parseBatch(String json) {
+        JsonElement root = JsonParser.parseString(json);
+        if (!root.isJsonArray()) {
+            throw new IllegalArgumentException("body is not an array");
+        }
+        List<Company> companies = new ArrayList<>();
+        int position = 0;
+        for (JsonElement element : root.getAsJsonArray()) {
+            position++;
+            if (element.isJsonPrimitive() && !element.getAsString().trim().isEmpty()) {
+                companies.add(CompanyParser.parseLine(element.getAsString().trim(), position));
+            } else if (element.isJsonObject() && element.getAsJsonObject().has("name")) {
+                JsonObject object = element.getAsJsonObject();
+                JsonElement url = object.get("url");
+                companies.add(new Company(
+                    object.get("name").getAsString().trim(),
+                    url == null || url.isJsonNull() ? null : url.getAsString()));
+            } else {
+                throw new IllegalArgumentException("entry " + position + " has no company name");
+            }
+        }
+        return companies;
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = equals == -1 ? pair : pair.substring(0, equals);
+            String value = equals == -1 ? "" : pair.substring(equals + 1);
+            params.putIfAbsent(
+                URLDecoder.decode(name, StandardCharsets.UTF_8),
+                URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    /**
+     * Reads a request body, or returns null if it is larger than the limit.
+     */
+    private static byte[] readBody(InputStream in) throws IOException {
+        byte[] body = in.readNBytes(MAX_BODY_BYTES + 1);
+        return body.length > MAX_BODY_BYTES ? null : body;
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        JsonObject response = new JsonObject();
+        response.addProperty("error", message);
+        sendJson(exchange, status, response);
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, JsonElement response) throws IOException {
+        send(exchange, status, GSON.toJson(response).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * Answers 404 for paths that only share a prefix with the context, and times every request.
+     */
+    private static HttpHandler exact(String path, HttpHandler handler) {
+        return exchange -> {
+            long start = System.nanoTime();
+            try {
+                if (!exchange.getRequestURI().getPath().equals(path)) {
+                    sendError(exchange, 404, "Not found: " + exchange.getRequestURI().getPath());
+                    return;
+                }
+                handler.handle(exchange);
+            } finally {
+                exchange.close();
+                Metrics.recordLatency(Metrics.Stage.LOOKUP, System.nanoTime() - start);
+            }
+        };
+    }
+}
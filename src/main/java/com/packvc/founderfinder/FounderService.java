@@ -0,0 +1,215 @@
+package com.packvc.founderfinder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Finds the founders of one company: resolves it to an article and extracts the
+ * founders, or looks it up in a dump index. Repeated companies and companies
+ * resolving to the same article share one resolution and extraction, both while
+ * the work is running and afterwards through the stored results.
+ * <p>
+ * The batch CLI keeps every result for the length of the run; the server bounds
+ * them so it can stay up indefinitely.
+ */
+public class FounderService {
+
+    private final SingleFlight<String, FounderResult> companyResults;
+    private final SingleFlight<String, FounderResult> articleResults;
+    private volatile DumpIndex dumpIndex;
+    private volatile RefreshPlan refreshPlan;
+
+    /**
+     * Creates a service that keeps every result.
+     */
+    public FounderService() {
+        this.companyResults = new SingleFlight<>();
+        this.articleResults = new SingleFlight<>();
+    }
+
+    /**
+     * Creates a service that keeps a bounded number of results.
+     *
+     * @param maxCompanies Company results kept, least recently used evicted first
+     * @param maxArticles Article extraction results kept, least recently used evicted first
+     */
+    public FounderService(int maxCompanies, int maxArticles) {
+        this.companyResults = new SingleFlight<>(maxCompanies);
+        this.articleResults = new SingleFlight<>(maxArticles);
+    }
+
+    /**
+     * Answers companies from a dump index instead of the wiki when set.
+     */
+    public void setDumpIndex(DumpIndex index) {
+        dumpIndex = index;
+    }
+
+    /**
+     * Reuses the results of an earlier run where their articles have not changed when set.
+     */
+    public void setRefreshPlan(RefreshPlan plan) {
+        refreshPlan = plan;
+    }
+
+    /**
+     * Finds a company's founders, counting the company in the run metrics.
+     *
+     * @param company Company to look up
+     * @return Founders in order of appearance; empty if the company has no article or no founders
+     * @throws IOException if the wiki could not be reached
+     */
+    public List<String> findFounders(Company company) throws IOException {
+        return new ArrayList<>(lookup(company).getFounders());
+    }
+
+    /**
+     * Finds a company's founders together with the article and revision they came from,
+     * counting the company in the run metrics.
+     *
+     * @param company Company to look up
+     * @return Founders and their article; no founders if the company has no article or no founders
+     * @throws IOException if the wiki could not be reached
+     */
+    public FounderResult lookup(Company company) throws IOException {
+        Metrics.increment(Metrics.Counter.COMPANIES);
+        long wireBytes = Metrics.getThreadWireBytes();
+
+        try {
+            // Repeated entries share one resolution and extraction
+            SingleFlight.Result<FounderResult> result = companyResults.execute(
+                companyKey(company), () -> resolveAndExtract(company));
+            if (result.isShared()) {
+                Metrics.increment(Metrics.Counter.DEDUPED_COMPANIES);
+                Log.debug("  Reusing result of an earlier entry for " + company.getName());
+            }
+
+            if (!result.getValue().getFounders().isEmpty()) {
+                Metrics.increment(Metrics.Counter.COMPANIES_WITH_FOUNDERS);
+            }
+            return result.getValue();
+
+        } catch (IOException | RuntimeException e) {
+            Metrics.increment(Metrics.Counter.COMPANY_ERRORS);
+            throw e;
+        } finally {
+            Metrics.recordCompanyBytes(Metrics.getThreadWireBytes() - wireBytes);
+        }
+    }
+
+    /**
+     * Resolves a company to its article and extracts the founders, sharing the
+     * extraction with any other company that resolved to the same article.
+     */
+    private FounderResult resolveAndExtract(Company company) throws IOException {
+        String companyName = company.getName();
+
+        DumpIndex dump = dumpIndex;
+        if (dump != null) {
+            return lookupInDump(dump, company);
+        }
+
+        RefreshPlan refresh = refreshPlan;
+        if (refresh != null) {
+            FounderResult unchanged = refresh.unchanged(company);
+            if (unchanged != null) {
+                Metrics.increment(Metrics.Counter.REFRESH_UNCHANGED);
+                Log.debug("✓ Article unchanged since the last run, keeping founders of " + companyName);
+                return unchanged;
+            }
+            String changedTitle = refresh.changedTitle(company);
+            if (changedTitle != null) {
+                // The company still has the same article; only its content needs another look
+                Metrics.increment(Metrics.Counter.REFRESH_CHANGED);
+                Log.debug("Article changed since the last run, re-extracting: " + changedTitle);
+                return extract(company, ResolvedPage.changed(WikipediaFetcher.articleUrl(changedTitle)));
+            }
+        }
+
+        // Step 1: Resolve Wikipedia page
+        Log.debug("Resolving Wikipedia page for: " + companyName);
+        long start = System.nanoTime();
+        Optional<ResolvedPage> page = WikipediaFetcher.resolve(companyName, company.getUrl());
+        Metrics.recordLatency(Metrics.Stage.RESOLVE, System.nanoTime() - start);
+
+        if (!page.isPresent()) {
+            Log.debug("✗ No Wikipedia page found for " + companyName);
+            return FounderResult.noArticle();
+        }
+        Log.debug("✓ Found Wikipedia page: " + page.get().getUrl());
+
+        // Step 2: Extract founders (reuses the article if resolution already downloaded it)
+        return extract(company, page.get());
+    }
+
+    /**
+     * Extracts the founders from a company's article, sharing the extraction with any
+     * other company that resolved to the same article.
+     */
+    private FounderResult extract(Company company, ResolvedPage article) throws IOException {
+        String companyName = company.getName();
+        Log.debug("Extracting founders from Wikipedia page...");
+        SingleFlight.Result<FounderResult> result = articleResults.execute(
+            articleKey(article.getCanonicalUrl()),
+            () -> {
+                List<String> founders = FounderExtractor.extractFounders(article, companyName);
+                return new FounderResult(founders, ResolutionIndex.titleFromUrl(article.getCanonicalUrl()),
+                                         article.getRevisionId());
+            });
+        if (result.isShared()) {
+            Metrics.increment(Metrics.Counter.DEDUPED_ARTICLES);
+            if (!article.isDownloaded()) {
+                // Another company already downloaded this article
+                WikipediaFetcher.recordSavedFetch();
+            }
+            Log.debug("  Reusing founders already extracted from " + article.getCanonicalUrl());
+        }
+
+        List<String> founders = result.getValue().getFounders();
+        if (!founders.isEmpty()) {
+            Log.debug("✓ Found " + founders.size() + " founders for " + companyName + ": " + founders);
+        } else {
+            Log.debug("✗ No founders found for " + companyName);
+        }
+        return result.getValue();
+    }
+
+    /**
+     * Answers a company from the dump index without touching the network.
+     */
+    private static FounderResult lookupInDump(DumpIndex dump, Company company) {
+        long start = System.nanoTime();
+        List<String> founders = dump.lookup(company.getName(), company.getUrl());
+        Metrics.recordLatency(Metrics.Stage.RESOLVE, System.nanoTime() - start);
+
+        if (founders == null) {
+            Metrics.increment(Metrics.Counter.UNRESOLVED);
+            Log.debug("✗ No article with founders in the dump for " + company.getName());
+            return FounderResult.noArticle();
+        }
+        Metrics.increment(Metrics.Counter.RESOLVED_DUMP);
+        Log.debug("✓ Found " + founders.size() + " founders for " + company.getName() + ": " + founders);
+        // The dump's revisions are not tracked, so a refresh looks these companies up again
+        return new FounderResult(founders, null, 0);
+    }
+
+    /**
+     * Key under which repeated entries for a company share one result: the
+     * normalized name plus the website domain, which tells apart companies sharing a name.
+     */
+    static String companyKey(Company company) {
+        String domain = ResolutionIndex.domainOf(company.getUrl());
+        return ResolutionIndex.normalizeName(company.getName()) + '\t' + (domain != null ? domain : "");
+    }
+
+    /**
+     * Key under which companies resolving to the same article share one extraction:
+     * the article title, or the URL itself if it is not an article URL.
+     */
+    static String articleKey(String canonicalUrl) {
+        String title = ResolutionIndex.titleFromUrl(canonicalUrl);
+        return title != null ? title : canonicalUrl;
+    }
+}
@@ -0,0 +1,411 @@
+package com.packvc.founderfinder;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Read-only binary copy of a run's results for downstream lookups, answering both
+ * "who founded X" and "which companies did Y found" straight from a memory-mapped
+ * file. Opening a store reads only its header; a lookup hashes the name, probes a
+ * slot table in the mapped bytes and decodes just the names it returns, so startup
+ * time and heap use do not grow with the number of companies.
+ * <p>
+ * The file is a header followed by these sections, all integers big-endian:
+ * <ul>
+ *   <li>string offsets and string data: every company and founder name once, in UTF-8;</li>
+ *   <li>companies: one (name, first founder) entry per company in output order, plus
+ *       an end entry, each company's founders running up to the next entry's;</li>
+ *   <li>company founders: the founders of each company as string numbers;</li>
+ *   <li>company slots: an open-addressing table of (name hash, entry + 1) pairs, at
+ *       most half full, with 0 marking an empty slot;</li>
+ *   <li>founders, founder companies and founder slots: the same for each distinct
+ *       founder, in order of first appearance, and their companies in output order.</li>
+ * </ul>
+ * Names are matched exactly, as keys of the JSON output are. A store is limited to
+ * 2 GB, the size of one mapping.
+ */
+public class FounderStore {
+
+    private static final int MAGIC = 0x46465354; // "FFST"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+
+    private final ByteBuffer buffer;
+    private final int stringCount;
+    private final int companyCount;
+    private final int founderCount;
+    private final int stringOffsetsPos;
+    private final int stringDataPos;
+    private final Section companies;
+    private final Section founders;
+
+    /**
+     * Positions of one side of the index: its entries, their lists and its slot table.
+     */
+    private static class Section {
+        final int entriesPos;
+        final int listPos;
+        final int slotsPos;
+        final int slotMask;
+
+        Section(int entriesPos, int listPos, int slotsPos, int slotCount) {
+            this.entriesPos = entriesPos;
+            this.listPos = listPos;
+            this.slotsPos = slotsPos;
+            this.slotMask = slotCount - 1;
+        }
+    }
+
+    private FounderStore(ByteBuffer buffer, Path path) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a founder store: " + path);
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported founder store version " + buffer.getInt(4) + ": " + path);
+        }
+        if (buffer.getInt(60) != buffer.capacity()) {
+            throw new IOException("Truncated founder store: " + path);
+        }
+        stringCount = buffer.getInt(8);
+        companyCount = buffer.getInt(12);
+        founderCount = buffer.getInt(16);
+        stringOffsetsPos = buffer.getInt(20);
+        stringDataPos = buffer.getInt(24);
+        companies = new Section(buffer.getInt(28), buffer.getInt(32), buffer.getInt(36), buffer.getInt(40));
+        founders = new Section(buffer.getInt(44), buffer.getInt(48), buffer.getInt(52), buffer.getInt(56));
+    }
+
+    /**
+     * Maps a store into memory. The mapping outlives the file handle, so there is
+     * nothing to close; it is released once the store is unreachable.
+     *
+     * @param path Store file
+     * @return Open store, safe to share between threads
+     * @throws IOException if the file cannot be read or is not a complete store
+     */
+    public static FounderStore open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Founder store larger than 2 GB: " + path);
+            }
+            return new FounderStore(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), path);
+        }
+    }
+
+    public int getCompanyCount() {
+        return companyCount;
+    }
+
+    /**
+     * Returns the number of distinct founders across all companies.
+     */
+    public int getFounderCount() {
+        return founderCount;
+    }
+
+    /**
+     * Returns true if the store has a result for the company, even one without founders.
+     */
+    public boolean containsCompany(String company) {
+        return find(companies, company) != -1;
+    }
+
+    /**
+     * Returns the founders of a company in the order they were written, or null if the
+     * store has no result for it.
+     */
+    public List<String> getFounders(String company) {
+        int entry = find(companies, company);
+        return entry == -1 ? null : names(companies, entry);
+    }
+
+    /**
+     * Returns the companies a person is listed as founder of, in output order; empty if none.
+     */
+    public List<String> getCompanies(String founder) {
+        int entry = find(founders, founder);
+        return entry == -1 ? Collections.emptyList() : names(founders, entry);
+    }
+
+    /**
+     * Probes a section's slots for a name, comparing the mapped UTF-8 bytes without
+     * decoding them.
+     *
+     * @return Entry number, or -1 if the name is absent
+     */
+    private int find(Section section, String name) {
+        byte[] key = name.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(key);
+        for (int slot = hash & section.slotMask; ; slot = (slot + 1) & section.slotMask) {
+            int slotPos = section.slotsPos + slot * 8;
+            int entry = buffer.getInt(slotPos + 4) - 1;
+            if (entry == -1) {
+                return -1;
+            }
+            if (buffer.getInt(slotPos) == hash && matches(buffer.getInt(section.entriesPos + entry * 8), key)) {
+                return entry;
+            }
+        }
+    }
+
+    private boolean matches(int stringId, byte[] key) {
+        int start = stringDataPos + buffer.getInt(stringOffsetsPos + stringId * 4);
+        int end = stringDataPos + buffer.getInt(stringOffsetsPos + stringId * 4 + 4);
+        if (end - start != key.length) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (buffer.get(start + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Decodes the names listed for one entry, which run up to the next entry's start.
+     */
+    private List<String> names(Section section, int entry) {
+        int start = buffer.getInt(section.entriesPos + entry * 8 + 4);
+        int end = buffer.getInt(section.entriesPos + entry * 8 + 12);
+        List<String> names = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            names.add(string(buffer.getInt(section.listPos + i * 4)));
+        }
+        return names;
+    }
+
+    private String string(int stringId) {
+        if (stringId < 0 || stringId >= stringCount) {
+            throw new IllegalStateException("Corrupt founder store: string " + stringId + " of " + stringCount);
+        }
+        int start = stringDataPos + buffer.getInt(stringOffsetsPos + stringId * 4);
+        int end = stringDataPos + buffer.getInt(stringOffsetsPos + stringId * 4 + 4);
+        byte[] bytes = new byte[end - start];
+        // A duplicate keeps the shared buffer's position untouched
+        ByteBuffer view = buffer.duplicate();
+        view.position(start);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * FNV-1a over the UTF-8 bytes of a name.
+     */
+    private static int hash(byte[] name) {
+        int hash = 0x811c9dc5;
+        for (byte b : name) {
+            hash ^= b & 0xff;
+            hash *= 0x01000193;
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Returns a power of two at least twice the entry count, so probes stay short.
+     */
+    private static int slotCount(int entries) {
+        return Integer.highestOneBit(Math.max(1, entries * 2 - 1)) << 1;
+    }
+
+    /**
+     * Collects results in memory and writes them as a store. Each name is kept once
+     * however many companies it appears in. Not thread-safe.
+     */
+    public static class Builder {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<byte[]> strings = new ArrayList<>();
+        // Per company: its name's string number, then its founders'
+        private final List<int[]> companies = new ArrayList<>();
+        private final Set<Integer> companyIds = new HashSet<>();
+
+        /**
+         * Adds a company's result. Later results for a company already added are ignored.
+         */
+        public void add(String company, List<String> founders) {
+            int nameId = intern(company);
+            if (!companyIds.add(nameId)) {
+                return;
+            }
+            Set<String> distinct = new LinkedHashSet<>(founders);
+            int[] record = new int[distinct.size() + 1];
+            record[0] = nameId;
+            int i = 1;
+            for (String founder : distinct) {
+                record[i++] = intern(founder);
+            }
+            companies.add(record);
+        }
+
+        public int size() {
+            return companies.size();
+        }
+
+        /**
+         * Writes the store to a temporary file next to the target and moves it into place.
+         *
+         * @throws IOException if the file cannot be written or would exceed 2 GB
+         */
+        public void write(Path path) throws IOException {
+            // Founders in order of first appearance, with their company counts
+            int[] founderCounts = new int[strings.size()];
+            List<Integer> founders = new ArrayList<>();
+            int totalFounders = 0;
+            for (int[] record : companies) {
+                for (int i = 1; i < record.length; i++) {
+                    if (founderCounts[record[i]]++ == 0) {
+                        founders.add(record[i]);
+                    }
+                }
+                totalFounders += record.length - 1;
+            }
+
+            // Each founder's companies in one array, filled in output order
+            int[] founderStarts = new int[strings.size()];
+            int start = 0;
+            for (int founder : founders) {
+                founderStarts[founder] = start;
+                start += founderCounts[founder];
+            }
+            int[] founderCompanies = new int[totalFounders];
+            int[] filled = founderStarts.clone();
+            for (int[] record : companies) {
+                for (int i = 1; i < record.length; i++) {
+                    founderCompanies[filled[record[i]]++] = record[0];
+                }
+            }
+
+            long stringBytes = 0;
+            for (byte[] string : strings) {
+                stringBytes += string.length;
+            }
+            int companySlots = slotCount(companies.size());
+            int founderSlots = slotCount(founders.size());
+            long stringOffsetsPos = HEADER_SIZE;
+            long stringDataPos = stringOffsetsPos + 4L * (strings.size() + 1);
+            // Integer sections start on a 4-byte boundary
+            long padding = (4 - stringBytes % 4) % 4;
+            long companiesPos = stringDataPos + stringBytes + padding;
+            long companyFoundersPos = companiesPos + 8L * (companies.size() + 1);
+            long companySlotsPos = companyFoundersPos + 4L * totalFounders;
+            long foundersPos = companySlotsPos + 8L * companySlots;
+            long founderCompaniesPos = foundersPos + 8L * (founders.size() + 1);
+            long founderSlotsPos = founderCompaniesPos + 4L * totalFounders;
+            long length = founderSlotsPos + 8L * founderSlots;
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException("Founder store would exceed 2 GB: " + length + " bytes");
+            }
+
+            Path absolute = path.toAbsolutePath();
+            Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(strings.size());
+                out.writeInt(companies.size());
+                out.writeInt(founders.size());
+                out.writeInt((int) stringOffsetsPos);
+                out.writeInt((int) stringDataPos);
+                out.writeInt((int) companiesPos);
+                out.writeInt((int) companyFoundersPos);
+                out.writeInt((int) companySlotsPos);
+                out.writeInt(companySlots);
+                out.writeInt((int) foundersPos);
+                out.writeInt((int) founderCompaniesPos);
+                out.writeInt((int) founderSlotsPos);
+                out.writeInt(founderSlots);
+                out.writeInt((int) length);
+
+                int offset = 0;
+                for (byte[] string : strings) {
+                    out.writeInt(offset);
+                    offset += string.length;
+                }
+                out.writeInt(offset);
+                for (byte[] string : strings) {
+                    out.write(string);
+                }
+                for (int i = 0; i < padding; i++) {
+                    out.writeByte(0);
+                }
+
+                int[] companyNames = new int[companies.size()];
+                int founderStart = 0;
+                for (int c = 0; c < companies.size(); c++) {
+                    int[] record = companies.get(c);
+                    companyNames[c] = record[0];
+                    out.writeInt(record[0]);
+                    out.writeInt(founderStart);
+                    founderStart += record.length - 1;
+                }
+                out.writeInt(-1);
+                out.writeInt(founderStart);
+                for (int[] record : companies) {
+                    for (int i = 1; i < record.length; i++) {
+                        out.writeInt(record[i]);
+                    }
+                }
+                writeSlots(out, companyNames, companySlots);
+
+                int[] founderNames = new int[founders.size()];
+                for (int f = 0; f < founders.size(); f++) {
+                    founderNames[f] = founders.get(f);
+                    out.writeInt(founderNames[f]);
+                    out.writeInt(founderStarts[founderNames[f]]);
+                }
+                out.writeInt(-1);
+                out.writeInt(totalFounders);
+                for (int company : founderCompanies) {
+                    out.writeInt(company);
+                }
+                writeSlots(out, founderNames, founderSlots);
+            } catch (IOException e) {
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        /**
+         * Writes the slot table for entries whose names are the given string numbers.
+         */
+        private void writeSlots(DataOutputStream out, int[] names, int slotCount) throws IOException {
+            int[] hashes = new int[slotCount];
+            int[] entries = new int[slotCount];
+            int mask = slotCount - 1;
+            for (int entry = 0; entry < names.length; entry++) {
+                int hash = hash(strings.get(names[entry]));
+                int slot = hash & mask;
+                while (entries[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                hashes[slot] = hash;
+                entries[slot] = entry + 1;
+            }
+            for (int slot = 0; slot < slotCount; slot++) {
+                out.writeInt(hashes[slot]);
+                out.writeInt(entries[slot]);
+            }
+        }
+
+        private int intern(String name) {
+            Integer id = ids.get(name);
+            if (id == null) {
+                id = strings.size();
+                ids.put(name, id);
+                strings.add(name.getBytes(StandardCharsets.UTF_8));
+            }
+            return id;
+        }
+    }
+}
@@ -0,0 +1,379 @@
+package com.packvc.founderfinder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Disk-backed HTTP response cache for Wikipedia pages.
+ * Each entry is stored as a gzip-compressed body plus a small properties file holding
+ * the final URL, charset and the ETag/Last-Modified validators used for revalidation.
+ * Entries older than the TTL are revalidated with a conditional request; the least
+ * recently used entries are evicted once the cache grows past its size limit.
+ */
+public class HttpCache {
+
+    private static final String BODY_SUFFIX = ".body.gz";
+    private static final String META_SUFFIX = ".meta";
+
+    // Evict down to this fraction of the limit so we don't evict on every store
+    private static final double EVICTION_TARGET = 0.9;
+
+    private final Path directory;
+    private final long ttlMillis;
+    private final long maxBytes;
+    private final boolean offline;
+
+    private final AtomicLong currentBytes = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong revalidations = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Opens (or creates) a cache directory.
+     *
+     * @param directory Directory holding cache entries
+     * @param ttl How long an entry is served without revalidation
+     * @param maxBytes Maximum total size of the cache on disk
+     * @param offline If true, only cached entries are served and the network is never used
+     * @throws IOException if the directory cannot be created or scanned
+     */
+    public HttpCache(Path directory, Duration ttl, long maxBytes, boolean offline) throws IOException {
+        this.directory = directory;
+        this.ttlMillis = ttl.toMillis();
+        this.maxBytes = maxBytes;
+        this.offline = offline;
+
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                currentBytes.addAndGet(Files.size(file));
+            }
+        }
+    }
+
+    /**
+     * Looks up a cached response.
+     *
+     * @param url URL that was requested
+     * @return Cached entry, or null if the URL is not cached or the entry is unreadable
+     */
+    public Entry lookup(String url) {
+        String key = keyFor(url);
+        Path metaFile = directory.resolve(key + META_SUFFIX);
+        Path bodyFile = directory.resolve(key + BODY_SUFFIX);
+
+        try {
+            Properties meta = new Properties();
+            try (Reader reader = Files.newBufferedReader(metaFile, StandardCharsets.UTF_8)) {
+                meta.load(reader);
+            }
+
+            byte[] body;
+            try (InputStream in = new GZIPInputStream(Files.newInputStream(bodyFile))) {
+                body = in.readAllBytes();
+            }
+
+            // Touch the metadata so eviction sees this entry as recently used
+            Files.setLastModifiedTime(metaFile, FileTime.fromMillis(System.currentTimeMillis()));
+
+            PageBody page = new PageBody(
+                meta.getProperty("finalUrl", url),
+                body,
+                meta.getProperty("charset"),
+                meta.getProperty("etag"),
+                meta.getProperty("lastModified"));
+            long storedAt = Long.parseLong(meta.getProperty("storedAt", "0"));
+            return new Entry(page, storedAt);
+
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | NumberFormatException e) {
+            Log.warn("  Warning: Ignoring unreadable cache entry for " + url + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Hands every readable cached response to a visitor, without counting hits or
+     * changing which entries are least recently used. Unreadable entries are skipped.
+     *
+     * @param visitor Receives each cached page; its URL is the final URL after redirects
+     * @throws IOException if the cache directory cannot be listed
+     */
+    public void forEachPage(Consumer<PageBody> visitor) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + META_SUFFIX)) {
+            for (Path metaFile : files) {
+                String name = metaFile.getFileName().toString();
+                Path bodyFile = directory.resolve(name.substring(0, name.length() - META_SUFFIX.length()) + BODY_SUFFIX);
+                PageBody page;
+                try {
+                    Properties meta = new Properties();
+                    try (Reader reader = Files.newBufferedReader(metaFile, StandardCharsets.UTF_8)) {
+                        meta.load(reader);
+                    }
+                    byte[] body;
+                    try (InputStream in = new GZIPInputStream(Files.newInputStream(bodyFile))) {
+                        body = in.readAllBytes();
+                    }
+                    page = new PageBody(
+                        meta.getProperty("finalUrl", meta.getProperty("url")),
+                        body,
+                        meta.getProperty("charset"),
+                        meta.getProperty("etag"),
+                        meta.getProperty("lastModified"));
+                } catch (IOException e) {
+                    // Evicted or half-written while we were listing
+                    Log.debug("  Skipping unreadable cache entry " + name + ": " + e.getMessage());
+                    continue;
+                }
+                visitor.accept(page);
+            }
+        }
+    }
+
+    /**
+     * Stores a response, replacing any previous entry for the URL.
+     * Failures are logged and otherwise ignored; the cache is best effort.
+     *
+     * @param url URL that was requested
+     * @param page Response to store
+     */
+    public void store(String url, PageBody page) {
+        String key = keyFor(url);
+        Path metaFile = directory.resolve(key + META_SUFFIX);
+        Path bodyFile = directory.resolve(key + BODY_SUFFIX);
+
+        try {
+            long previousSize = sizeOf(metaFile) + sizeOf(bodyFile);
+
+            Path bodyTemp = Files.createTempFile(directory, key, ".tmp");
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(bodyTemp))) {
+                out.write(page.getBody());
+            }
+            Files.move(bodyTemp, bodyFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            writeMeta(url, page, System.currentTimeMillis(), metaFile);
+
+            long newSize = sizeOf(metaFile) + sizeOf(bodyFile);
+            if (currentBytes.addAndGet(newSize - previousSize) > maxBytes) {
+                evict();
+            }
+        } catch (IOException e) {
+            Log.warn("  Warning: Could not cache " + url + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Marks an entry as fresh again after the server answered 304 Not Modified.
+     *
+     * @param url URL that was requested
+     * @param entry Entry that was revalidated
+     */
+    public void markRevalidated(String url, Entry entry) {
+        revalidations.incrementAndGet();
+        Path metaFile = directory.resolve(keyFor(url) + META_SUFFIX);
+        try {
+            writeMeta(url, entry.getPage(), System.currentTimeMillis(), metaFile);
+        } catch (IOException e) {
+            Log.warn("  Warning: Could not update cache entry for " + url + ": " + e.getMessage());
+        }
+    }
+
+    private void writeMeta(String url, PageBody page, long storedAt, Path metaFile) throws IOException {
+        Properties meta = new Properties();
+        meta.setProperty("url", url);
+        meta.setProperty("finalUrl", page.getUrl());
+        meta.setProperty("charset", page.getCharset());
+        meta.setProperty("storedAt", Long.toString(storedAt));
+        if (page.getEtag() != null) {
+            meta.setProperty("etag", page.getEtag());
+        }
+        if (page.getLastModified() != null) {
+            meta.setProperty("lastModified", page.getLastModified());
+        }
+
+        Path metaTemp = Files.createTempFile(directory, metaFile.getFileName().toString(), ".tmp");
+        try (Writer writer = Files.newBufferedWriter(metaTemp, StandardCharsets.UTF_8)) {
+            meta.store(writer, null);
+        }
+        Files.move(metaTemp, metaFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Deletes least recently used entries until the cache is back under its size target.
+     */
+    private synchronized void evict() throws IOException {
+        long target = (long) (maxBytes * EVICTION_TARGET);
+        if (currentBytes.get() <= target) {
+            return;
+        }
+
+        List<Path> metaFiles = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + META_SUFFIX)) {
+            for (Path file : files) {
+                metaFiles.add(file);
+            }
+        }
+
+        Map<Path, Long> lastUsed = new HashMap<>();
+        for (Path metaFile : metaFiles) {
+            lastUsed.put(metaFile, lastModifiedMillis(metaFile));
+        }
+        metaFiles.sort(Comparator.comparing(lastUsed::get));
+
+        for (Path metaFile : metaFiles) {
+            if (currentBytes.get() <= target) {
+                break;
+            }
+            String name = metaFile.getFileName().toString();
+            Path bodyFile = directory.resolve(name.substring(0, name.length() - META_SUFFIX.length()) + BODY_SUFFIX);
+
+            long freed = sizeOf(metaFile) + sizeOf(bodyFile);
+            Files.deleteIfExists(bodyFile);
+            Files.deleteIfExists(metaFile);
+            currentBytes.addAndGet(-freed);
+            evictions.incrementAndGet();
+            Metrics.increment(Metrics.Counter.CACHE_EVICTIONS);
+        }
+    }
+
+    private static long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static long lastModifiedMillis(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Builds the cache key for a URL: a SHA-256 hash of its normalized form.
+     */
+    static String keyFor(String url) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(normalizeUrl(url).getBytes(StandardCharsets.UTF_8));
+            StringBuilder key = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                key.append(Character.forDigit((b >> 4) & 0xF, 16));
+                key.append(Character.forDigit(b & 0xF, 16));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Normalizes a URL so equivalent spellings share a cache entry:
+     * lowercases the scheme and host, drops default ports and fragments.
+     */
+    static String normalizeUrl(String url) {
+        try {
+            URI uri = new URI(url.trim()).normalize();
+            String scheme = uri.getScheme() == null ? "https" : uri.getScheme().toLowerCase(Locale.ROOT);
+            String host = uri.getHost() == null ? "" : uri.getHost().toLowerCase(Locale.ROOT);
+            int port = uri.getPort();
+            boolean defaultPort = port == -1
+                || ("http".equals(scheme) && port == 80)
+                || ("https".equals(scheme) && port == 443);
+
+            StringBuilder normalized = new StringBuilder();
+            normalized.append(scheme).append("://").append(host);
+            if (!defaultPort) {
+                normalized.append(':').append(port);
+            }
+            String path = uri.getRawPath();
+            normalized.append(path == null || path.isEmpty() ? "/" : path);
+            if (uri.getRawQuery() != null) {
+                normalized.append('?').append(uri.getRawQuery());
+            }
+            return normalized.toString();
+        } catch (URISyntaxException e) {
+            return url.trim();
+        }
+    }
+
+    public boolean isOffline() {
+        return offline;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getRevalidations() {
+        return revalidations.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public long getSizeBytes() {
+        return currentBytes.get();
+    }
+
+    void recordHit() {
+        hits.incrementAndGet();
+    }
+
+    void recordMiss() {
+        misses.incrementAndGet();
+    }
+
+    /**
+     * A cached response and the time it was last fetched or revalidated.
+     */
+    public class Entry {
+        private final PageBody page;
+        private final long storedAtMillis;
+
+        Entry(PageBody page, long storedAtMillis) {
+            this.page = page;
+            this.storedAtMillis = storedAtMillis;
+        }
+
+        public PageBody getPage() {
+            return page;
+        }
+
+        /**
+         * Returns true if the entry is younger than the cache TTL.
+         */
+        public boolean isFresh() {
+            return System.currentTimeMillis() - storedAtMillis < ttlMillis;
+        }
+    }
+}
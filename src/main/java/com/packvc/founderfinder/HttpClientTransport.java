@@ -0,0 +1,231 @@
+package com.packvc.founderfinder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * Transport built on {@link HttpClient}.
+ * One client is shared by every worker, so requests to the same host are multiplexed
+ * as HTTP/2 streams over a single TLS connection instead of paying a handshake per
+ * request. Servers that do not speak HTTP/2 are served over pooled HTTP/1.1
+ * keep-alive connections. Responses are requested gzip or deflate compressed and
+ * decoded here.
+ */
+public class HttpClientTransport implements HttpTransport {
+
+    private static final String ACCEPT_ENCODING = "gzip, deflate";
+    private static final int CONNECT_TIMEOUT_MS = 12000;
+    // Decoded bytes handed to a ReadLimit at a time
+    private static final int READ_CHUNK = 8192;
+
+    private final HttpClient client;
+    private final String userAgent;
+
+    /**
+     * @param userAgent User-Agent sent with every request
+     * @param version Preferred protocol version; HTTP_2 falls back to HTTP/1.1 when the server refuses it
+     */
+    public HttpClientTransport(String userAgent, HttpClient.Version version) {
+        this.userAgent = userAgent;
+        this.client = HttpClient.newBuilder()
+            .version(version)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .connectTimeout(Duration.ofMillis(CONNECT_TIMEOUT_MS))
+            .build();
+    }
+
+    @Override
+    public Response get(String url, Map<String, String> headers, int timeoutMillis) throws IOException {
+        HttpResponse<byte[]> response = send(url, headers, timeoutMillis, HttpResponse.BodyHandlers.ofByteArray());
+        byte[] wire = response.body();
+        byte[] body = decode(wire, response.headers().firstValue("Content-Encoding").orElse("identity"));
+        return toResponse(response, body, wire.length, true);
+    }
+
+    /**
+     * Streams the body, decoding it as it arrives, and closes the response as soon as
+     * the limit is satisfied; the rest of the body is never transferred. Deflate bodies
+     * are read whole, since whether they carry the zlib wrapper is only known afterwards.
+     */
+    @Override
+    public Response get(String url, Map<String, String> headers, int timeoutMillis, ReadLimit limit) throws IOException {
+        HttpResponse<InputStream> response = send(url, headers, timeoutMillis, HttpResponse.BodyHandlers.ofInputStream());
+        String encoding = response.headers().firstValue("Content-Encoding").orElse("identity")
+            .trim().toLowerCase(Locale.ROOT);
+        try (CountingInputStream wire = new CountingInputStream(response.body())) {
+            if (encoding.equals("deflate")) {
+                byte[] body = decode(readAll(wire), encoding);
+                return toResponse(response, body, wire.count, true);
+            }
+
+            boolean gzip = encoding.equals("gzip") || encoding.equals("x-gzip");
+            if (!gzip && !encoding.equals("identity") && !encoding.isEmpty()) {
+                throw new IOException("Unsupported Content-Encoding: " + encoding);
+            }
+            InputStream in = gzip ? new GZIPInputStream(wire, READ_CHUNK) : wire;
+
+            byte[] buffer = new byte[READ_CHUNK * 4];
+            int length = 0;
+            while (true) {
+                if (buffer.length - length < READ_CHUNK) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                int read = in.read(buffer, length, READ_CHUNK);
+                if (read == -1) {
+                    return toResponse(response, Arrays.copyOf(buffer, length), wire.count, true);
+                }
+                length += read;
+                if (limit.isSatisfied(buffer, length)) {
+                    // Closing the stream before its end abandons the rest of the body
+                    return toResponse(response, Arrays.copyOf(buffer, length), wire.count, false);
+                }
+            }
+        }
+    }
+
+    private <T> HttpResponse<T> send(String url, Map<String, String> headers, int timeoutMillis,
+                                     HttpResponse.BodyHandler<T> handler) throws IOException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+            .timeout(Duration.ofMillis(timeoutMillis))
+            .header("User-Agent", userAgent)
+            .header("Accept-Encoding", ACCEPT_ENCODING)
+            .GET();
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            request.header(header.getKey(), header.getValue());
+        }
+
+        HttpResponse<T> response;
+        try {
+            response = client.send(request.build(), handler);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted during request", e);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid request for " + url + ": " + e.getMessage(), e);
+        }
+
+        int status = response.statusCode();
+        if (status != 304 && (status < 200 || status >= 300)) {
+            if (response.body() instanceof InputStream) {
+                ((InputStream) response.body()).close();
+            }
+            throw new FetchException(url, status,
+                RetryPolicy.parseRetryAfter(response.headers().firstValue("Retry-After").orElse(null)));
+        }
+        return response;
+    }
+
+    private static Response toResponse(HttpResponse<?> response, byte[] body, long wireBytes, boolean complete) {
+        Map<String, String> firstValues = new HashMap<>();
+        for (Map.Entry<String, List<String>> header : response.headers().map().entrySet()) {
+            if (!header.getValue().isEmpty()) {
+                firstValues.put(header.getKey(), header.getValue().get(0));
+            }
+        }
+
+        String charset = charsetOf(response.headers().firstValue("Content-Type").orElse(null));
+        String protocol = response.version() == HttpClient.Version.HTTP_2 ? "HTTP/2" : "HTTP/1.1";
+        return new Response(response.statusCode(), response.uri().toString(), body, charset, protocol,
+                            wireBytes, firstValues, complete);
+    }
+
+    @Override
+    public String getName() {
+        return "http-client";
+    }
+
+    /**
+     * Undoes the Content-Encoding of a response body.
+     */
+    static byte[] decode(byte[] wire, String contentEncoding) throws IOException {
+        String encoding = contentEncoding.trim().toLowerCase(Locale.ROOT);
+        switch (encoding) {
+            case "":
+            case "identity":
+                return wire;
+            case "gzip":
+            case "x-gzip":
+                return readAll(new GZIPInputStream(new ByteArrayInputStream(wire)));
+            case "deflate":
+                try {
+                    return readAll(new InflaterInputStream(new ByteArrayInputStream(wire)));
+                } catch (ZipException e) {
+                    // Some servers send raw deflate without the zlib wrapper
+                    return readAll(new InflaterInputStream(new ByteArrayInputStream(wire), new Inflater(true)));
+                }
+            default:
+                throw new IOException("Unsupported Content-Encoding: " + contentEncoding);
+        }
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        try (InputStream stream = in) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            stream.transferTo(out);
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * Counts the compressed bytes read from the connection.
+     */
+    private static class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+    }
+
+    /**
+     * Extracts the charset parameter from a Content-Type header, or null if there is none.
+     */
+    static String charsetOf(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        for (String parameter : contentType.split(";")) {
+            String trimmed = parameter.trim();
+            if (trimmed.regionMatches(true, 0, "charset=", 0, "charset=".length())) {
+                String value = trimmed.substring("charset=".length()).replace("\"", "").trim();
+                return value.isEmpty() ? null : value;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,144 @@
+package com.packvc.founderfinder;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Sends a single GET request for WikipediaFetcher.
+ * Retries, rate limiting and caching stay in WikipediaFetcher; a transport only
+ * moves bytes and reports what happened on the wire.
+ */
+public interface HttpTransport {
+
+    /**
+     * Performs a GET request, following redirects.
+     *
+     * @param url URL to fetch
+     * @param headers Extra request headers, e.g. conditional request validators
+     * @param timeoutMillis Request timeout in milliseconds
+     * @return Response with a 2xx or 304 status and a fully decoded body
+     * @throws FetchException if the server answers with any other status code
+     * @throws IOException on network failures
+     */
+    Response get(String url, Map<String, String> headers, int timeoutMillis) throws IOException;
+
+    /**
+     * Performs a GET request, but stops reading the body as soon as the limit says
+     * the rest is not needed. Transports that cannot stop early read the whole body.
+     *
+     * @param url URL to fetch
+     * @param headers Extra request headers, e.g. conditional request validators
+     * @param timeoutMillis Request timeout in milliseconds
+     * @param limit Decides, as the decoded body arrives, when enough has been read
+     * @return Response whose body may be a prefix; see {@link Response#isComplete()}
+     * @throws FetchException if the server answers with a status other than 2xx or 304
+     * @throws IOException on network failures
+     */
+    default Response get(String url, Map<String, String> headers, int timeoutMillis, ReadLimit limit) throws IOException {
+        return get(url, headers, timeoutMillis);
+    }
+
+    /**
+     * Returns the name used for this transport on the command line.
+     */
+    String getName();
+
+    /**
+     * Decides when a streamed body has been read far enough.
+     */
+    interface ReadLimit {
+        /**
+         * Called each time more of the decoded body has arrived.
+         *
+         * @param body Buffer holding the decoded body so far
+         * @param length Number of valid bytes in the buffer
+         * @return true to stop reading and close the response
+         */
+        boolean isSatisfied(byte[] body, int length);
+    }
+
+    /**
+     * A completed response.
+     */
+    class Response {
+        private final int statusCode;
+        private final String url;
+        private final byte[] body;
+        private final String charset;
+        private final String protocol;
+        private final long wireBytes;
+        private final boolean complete;
+        private final Map<String, String> headers = new TreeMap<>();
+
+        /**
+         * @param statusCode HTTP status code
+         * @param url Final URL after redirects
+         * @param body Decoded response body
+         * @param charset Charset from the Content-Type header, or null
+         * @param protocol Protocol the response arrived over, e.g. "HTTP/2"
+         * @param wireBytes Body size as transferred, before decompression
+         * @param headers Response headers; only the first value of each is kept
+         */
+        public Response(int statusCode, String url, byte[] body, String charset, String protocol,
+                        long wireBytes, Map<String, String> headers) {
+            this(statusCode, url, body, charset, protocol, wireBytes, headers, true);
+        }
+
+        /**
+         * @param complete False if reading stopped before the end of the body
+         */
+        public Response(int statusCode, String url, byte[] body, String charset, String protocol,
+                        long wireBytes, Map<String, String> headers, boolean complete) {
+            this.statusCode = statusCode;
+            this.url = url;
+            this.body = body;
+            this.charset = charset;
+            this.protocol = protocol;
+            this.wireBytes = wireBytes;
+            this.complete = complete;
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                this.headers.put(header.getKey().toLowerCase(Locale.ROOT), header.getValue());
+            }
+        }
+
+        public int getStatusCode() {
+            return statusCode;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        public String getCharset() {
+            return charset;
+        }
+
+        public String getProtocol() {
+            return protocol;
+        }
+
+        public long getWireBytes() {
+            return wireBytes;
+        }
+
+        /**
+         * Returns false if the body is only the prefix a {@link ReadLimit} asked for.
+         */
+        public boolean isComplete() {
+            return complete;
+        }
+
+        /**
+         * Returns a response header by case-insensitive name, or null if absent.
+         */
+        public String header(String name) {
+            return headers.get(name.toLowerCase(Locale.ROOT));
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.packvc.founderfinder;
+
+import org.jsoup.nodes.Element;
+import org.jsoup.parser.Parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Reads the fields of interest from an infobox in one walk over its rows.
+ * Only the table's own rows are visited, and each row's header is looked up in a
+ * map from header alias to field, so new header variants ("Founded by",
+ * "Co-founders") are a line in {@code infobox-headers.properties} rather than a
+ * code change. The first row for each field wins.
+ */
+public class InfoboxScanner {
+
+    private static final String DEFAULT_ALIASES = "infobox-headers.properties";
+
+    /**
+     * Infobox fields the scanner recognises.
+     */
+    public enum Field {
+        FOUNDERS,
+        FOUNDED,
+        KEY_PEOPLE,
+        WEBSITE;
+
+        /**
+         * Parses a field name as written in an alias file, such as "key_people".
+         *
+         * @throws IllegalArgumentException if the name is not a known field
+         */
+        public static Field fromName(String name) {
+            for (Field field : values()) {
+                if (field.name().equalsIgnoreCase(name.trim())) {
+                    return field;
+                }
+            }
+            throw new IllegalArgumentException("Unknown infobox field: " + name);
+        }
+    }
+
+    // Normalized header -> field; replaced as a whole so scans never see a partial update
+    private static volatile Map<String, Field> aliases = loadDefaults();
+
+    /**
+     * Cells of the rows found for each field.
+     */
+    public static class Fields {
+        private final Map<Field, Element> cells = new EnumMap<>(Field.class);
+
+        /**
+         * Returns the data cell of a field's row, or null if the infobox has none.
+         */
+        public Element getCell(Field field) {
+            return cells.get(field);
+        }
+
+        public boolean has(Field field) {
+            return cells.containsKey(field);
+        }
+
+        /**
+         * Returns the founders, normalized and validated as person names.
+         */
+        public List<String> getFounders() {
+            Element cell = cells.get(Field.FOUNDERS);
+            return cell == null ? new ArrayList<>() : FounderExtractor.extractNames(cell.html());
+        }
+
+        /**
+         * Returns the text of the founded row, such as "August 2008; San Francisco", or null.
+         */
+        public String getFounded() {
+            Element cell = cells.get(Field.FOUNDED);
+            return cell == null ? null : cell.text().trim();
+        }
+
+        /**
+         * Returns the key people as listed, roles included, such as "Brian Chesky (CEO)".
+         */
+        public List<String> getKeyPeople() {
+            List<String> people = new ArrayList<>();
+            Element cell = cells.get(Field.KEY_PEOPLE);
+            if (cell != null) {
+                for (String part : FounderExtractor.splitCellHtml(cell.html())) {
+                    String person = Parser.unescapeEntities(part, false).replace('\u00A0', ' ').trim();
+                    if (!person.isEmpty()) {
+                        people.add(person);
+                    }
+                }
+            }
+            return people;
+        }
+    }
+
+    /**
+     * Scans an infobox's rows, including those inside its thead, tbody and tfoot,
+     * but not rows of tables nested in its cells.
+     *
+     * @param infobox Infobox table, or null
+     * @return Fields found; empty if the infobox is null or has none
+     */
+    public static Fields scan(Element infobox) {
+        Fields fields = new Fields();
+        if (infobox == null) {
+            return fields;
+        }
+        Map<String, Field> lookup = aliases;
+        for (Element child : infobox.children()) {
+            String tag = child.normalName();
+            if (tag.equals("tr")) {
+                scanRow(child, lookup, fields);
+            } else if (tag.equals("tbody") || tag.equals("thead") || tag.equals("tfoot")) {
+                for (Element row : child.children()) {
+                    scanRow(row, lookup, fields);
+                }
+            }
+        }
+        return fields;
+    }
+
+    private static void scanRow(Element row, Map<String, Field> lookup, Fields fields) {
+        Element header = null;
+        Element cell = null;
+        for (Element child : row.children()) {
+            String tag = child.normalName();
+            if (header == null && tag.equals("th")) {
+                header = child;
+            } else if (cell == null && tag.equals("td")) {
+                cell = child;
+            }
+        }
+        if (header == null || cell == null) {
+            return;
+        }
+
+        String headerText = header.text();
+        Field field = lookup.get(normalizeHeader(headerText));
+        if (Log.isDebugEnabled()) {
+            Log.debug("  Checking header: '" + headerText.trim() + "'" + (field != null ? " -> " + field : ""));
+        }
+        if (field != null && !fields.has(field)) {
+            fields.cells.put(field, cell);
+        }
+    }
+
+    /**
+     * Returns the field a header or wikitext parameter name stands for, or null.
+     */
+    public static Field fieldOf(String header) {
+        return aliases.get(normalizeHeader(header));
+    }
+
+    /**
+     * Adds the aliases in a properties file to the built-in ones for the rest of the run.
+     * Each key is a field name and each value a comma-separated list of headers.
+     *
+     * @param file Alias file
+     * @throws IOException if the file cannot be read or names an unknown field
+     */
+    public static void addAliases(Path file) throws IOException {
+        Map<String, Field> merged = new HashMap<>(aliases);
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            merged.putAll(parseAliases(reader));
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage() + " in " + file, e);
+        }
+        aliases = merged;
+    }
+
+    private static Map<String, Field> loadDefaults() {
+        try (InputStream in = InfoboxScanner.class.getResourceAsStream(DEFAULT_ALIASES)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing resource " + DEFAULT_ALIASES);
+            }
+            return parseAliases(new InputStreamReader(in, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Map<String, Field> parseAliases(Reader reader) throws IOException {
+        Properties properties = new Properties();
+        properties.load(reader);
+        Map<String, Field> parsed = new HashMap<>();
+        for (String name : properties.stringPropertyNames()) {
+            Field field = Field.fromName(name);
+            for (String alias : properties.getProperty(name).split(",")) {
+                String key = normalizeHeader(alias);
+                if (!key.isEmpty()) {
+                    parsed.put(key, field);
+                }
+            }
+        }
+        return parsed;
+    }
+
+    /**
+     * Lower-cases a header and reads underscores and runs of whitespace, including
+     * non-breaking spaces, as single spaces.
+     */
+    static String normalizeHeader(String header) {
+        StringBuilder normalized = new StringBuilder(header.length());
+        boolean space = false;
+        for (int i = 0; i < header.length(); i++) {
+            char c = header.charAt(i);
+            if (Character.isWhitespace(c) || c == '\u00A0' || c == '_') {
+                space = normalized.length() > 0;
+                continue;
+            }
+            if (space) {
+                normalized.append(' ');
+                space = false;
+            }
+            normalized.append(Character.toLowerCase(c));
+        }
+        return normalized.toString();
+    }
+}
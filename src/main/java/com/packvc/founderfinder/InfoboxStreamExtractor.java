@@ -0,0 +1,333 @@
+package com.packvc.founderfinder;
+
+import org.jsoup.parser.Parser;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.Locale;
+
+/**
+ * Finds the first infobox table in an HTML stream without building a DOM for the whole article.
+ * The stream is scanned in chunks; text before the infobox is discarded as it goes, and reading
+ * stops as soon as the infobox closes or its founder row has been seen.
+ */
+public class InfoboxStreamExtractor {
+
+    private static final int CHUNK_SIZE = 8192;
+
+    // Longest marker we look for, so a marker split across chunks is still found
+    private static final int MARKER_OVERLAP = "</table".length();
+
+    /**
+     * Outcome of scanning a stream for an infobox.
+     */
+    public static class Result {
+        private final String infoboxHtml;
+        private final boolean complete;
+        private final long bytesRead;
+
+        Result(String infoboxHtml, boolean complete, long bytesRead) {
+            this.infoboxHtml = infoboxHtml;
+            this.complete = complete;
+            this.bytesRead = bytesRead;
+        }
+
+        /**
+         * Returns the HTML of the infobox table, or null if the stream has no infobox.
+         * When reading stopped early at the founder row, the table is closed artificially.
+         */
+        public String getInfoboxHtml() {
+            return infoboxHtml;
+        }
+
+        /**
+         * Returns false if an infobox was started but the stream ended before it closed,
+         * in which case callers should fall back to a full parse.
+         */
+        public boolean isComplete() {
+            return complete;
+        }
+
+        /**
+         * Returns the number of bytes consumed from the underlying stream.
+         */
+        public long getBytesRead() {
+            return bytesRead;
+        }
+    }
+
+    /**
+     * Scans an HTML stream for the first {@code table.infobox}.
+     *
+     * @param in HTML stream; it is read only as far as needed and not closed
+     * @param charset Charset of the stream
+     * @return Scan result
+     * @throws IOException if the stream cannot be read
+     */
+    public static Result scan(InputStream in, Charset charset) throws IOException {
+        return scan(in, charset, true);
+    }
+
+    /**
+     * Scans an HTML stream for the first {@code table.infobox}.
+     *
+     * @param in HTML stream; it is read only as far as needed and not closed
+     * @param charset Charset of the stream
+     * @param stopAtFounderRow If true, stop reading after the founder row instead of
+     *                         at the end of the infobox
+     * @return Scan result
+     * @throws IOException if the stream cannot be read
+     */
+    public static Result scan(InputStream in, Charset charset, boolean stopAtFounderRow) throws IOException {
+        CountingInputStream counting = new CountingInputStream(in);
+        Reader reader = new InputStreamReader(counting, charset);
+        char[] chunk = new char[CHUNK_SIZE];
+        StringBuilder buffer = new StringBuilder(CHUNK_SIZE * 2);
+
+        int scanPos = 0;
+        int infoboxStart = -1;
+        int rowStart = -1;
+        int depth = 0;
+        String skipUntil = null;
+
+        int read;
+        while ((read = reader.read(chunk)) != -1) {
+            buffer.append(chunk, 0, read);
+
+            while (true) {
+                if (skipUntil != null) {
+                    // Script and style bodies may contain '<' that is not markup
+                    int close = indexOfIgnoreCase(buffer, skipUntil, scanPos);
+                    if (close == -1) {
+                        scanPos = Math.max(scanPos, buffer.length() - MARKER_OVERLAP);
+                        break;
+                    }
+                    scanPos = close;
+                    skipUntil = null;
+                }
+
+                int tagStart = buffer.indexOf("<", scanPos);
+                if (tagStart == -1) {
+                    scanPos = buffer.length();
+                    break;
+                }
+                if (tagStart + 1 >= buffer.length()) {
+                    scanPos = tagStart;
+                    break;
+                }
+                char next = buffer.charAt(tagStart + 1);
+                if (!Character.isLetter(next) && next != '/' && next != '!') {
+                    // A stray '<' in text, not a tag
+                    scanPos = tagStart + 1;
+                    continue;
+                }
+                int tagEnd = findTagEnd(buffer, tagStart);
+                if (tagEnd == -1) {
+                    // Tag continues in the next chunk
+                    scanPos = tagStart;
+                    break;
+                }
+                scanPos = tagEnd;
+
+                if (startsWithTag(buffer, tagStart, "<script")) {
+                    skipUntil = "</script";
+                    continue;
+                }
+                if (startsWithTag(buffer, tagStart, "<style")) {
+                    skipUntil = "</style";
+                    continue;
+                }
+
+                if (infoboxStart == -1) {
+                    if (startsWithTag(buffer, tagStart, "<table") && hasInfoboxClass(buffer, tagStart, tagEnd)) {
+                        infoboxStart = tagStart;
+                        rowStart = tagEnd;
+                        depth = 1;
+                    }
+                    continue;
+                }
+
+                if (startsWithTag(buffer, tagStart, "<table")) {
+                    depth++;
+                } else if (startsWithTag(buffer, tagStart, "</table")) {
+                    depth--;
+                    if (depth == 0) {
+                        String html = buffer.substring(infoboxStart, tagEnd);
+                        return new Result(html, true, counting.count);
+                    }
+                } else if (stopAtFounderRow && depth == 1 && startsWithTag(buffer, tagStart, "</tr")) {
+                    if (isFounderRow(buffer, rowStart, tagEnd)) {
+                        // Everything we need has been read; close the table ourselves
+                        String html = buffer.substring(infoboxStart, tagEnd) + "</table>";
+                        return new Result(html, true, counting.count);
+                    }
+                    rowStart = tagEnd;
+                }
+            }
+
+            if (infoboxStart == -1) {
+                // Nothing before the infobox is needed; keep only a possibly split tag
+                int keepFrom = Math.max(0, Math.min(scanPos, buffer.length() - MARKER_OVERLAP));
+                buffer.delete(0, keepFrom);
+                scanPos -= keepFrom;
+            }
+        }
+
+        if (infoboxStart != -1) {
+            return new Result(buffer.substring(infoboxStart), false, counting.count);
+        }
+        return new Result(null, true, counting.count);
+    }
+
+    static int indexOfIgnoreCase(StringBuilder buffer, String target, int from) {
+        int last = buffer.length() - target.length();
+        for (int i = Math.max(0, from); i <= last; i++) {
+            if (buffer.charAt(i) == '<' && regionMatchesIgnoreCase(buffer, i, target)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Compares without copying the buffer; tag names are ASCII so simple case folding is enough.
+     */
+    private static boolean regionMatchesIgnoreCase(StringBuilder buffer, int offset, String target) {
+        if (offset + target.length() > buffer.length()) {
+            return false;
+        }
+        for (int i = 0; i < target.length(); i++) {
+            if (Character.toLowerCase(buffer.charAt(offset + i)) != target.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the index just past the closing '>' of the tag starting at tagStart,
+     * honouring quoted attribute values, or -1 if the tag is not complete yet.
+     */
+    static int findTagEnd(CharSequence buffer, int tagStart) {
+        char quote = 0;
+        for (int i = tagStart + 1; i < buffer.length(); i++) {
+            char c = buffer.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == '>') {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Checks that the tag at tagStart is the given tag name, not just a prefix of a longer one.
+     */
+    static boolean startsWithTag(StringBuilder buffer, int tagStart, String tag) {
+        int end = tagStart + tag.length();
+        if (end >= buffer.length() || !regionMatchesIgnoreCase(buffer, tagStart, tag)) {
+            return false;
+        }
+        char next = buffer.charAt(end);
+        return next == '>' || next == '/' || Character.isWhitespace(next);
+    }
+
+    /**
+     * Checks whether a table start tag has "infobox" as one of its class names.
+     */
+    static boolean hasInfoboxClass(StringBuilder buffer, int tagStart, int tagEnd) {
+        String tag = buffer.substring(tagStart, tagEnd);
+        String lower = tag.toLowerCase(Locale.ROOT);
+        int classAttr = lower.indexOf("class=");
+        if (classAttr == -1) {
+            return false;
+        }
+
+        int valueStart = classAttr + "class=".length();
+        int valueEnd;
+        char first = tag.charAt(valueStart);
+        if (first == '"' || first == '\'') {
+            valueStart++;
+            valueEnd = tag.indexOf(first, valueStart);
+        } else {
+            valueEnd = valueStart;
+            while (valueEnd < tag.length() && !Character.isWhitespace(tag.charAt(valueEnd)) && tag.charAt(valueEnd) != '>') {
+                valueEnd++;
+            }
+        }
+        if (valueEnd <= valueStart) {
+            return false;
+        }
+
+        for (String className : tag.substring(valueStart, valueEnd).split("\\s+")) {
+            if (className.equals("infobox")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether a top-level infobox row has both a header and a data cell,
+     * with a header that FounderExtractor treats as a founder header.
+     */
+    private static boolean isFounderRow(StringBuilder buffer, int rowStart, int rowEnd) {
+        String row = buffer.substring(rowStart, rowEnd);
+        String lower = row.toLowerCase(Locale.ROOT);
+
+        int thOpen = lower.indexOf("<th");
+        if (thOpen == -1 || lower.indexOf("<td") == -1) {
+            return false;
+        }
+        int thContent = row.indexOf('>', thOpen) + 1;
+        int thClose = lower.indexOf("</th", thContent);
+        if (thContent == 0 || thClose == -1) {
+            return false;
+        }
+
+        String headerHtml = row.substring(thContent, thClose);
+        String headerText = Parser.unescapeEntities(headerHtml.replaceAll("<[^>]+>", ""), false)
+            .replace('\u00A0', ' ')
+            .replaceAll("\\s+", " ")
+            .trim();
+        return FounderExtractor.isFounderHeader(headerText);
+    }
+
+    /**
+     * Counts bytes pulled from the underlying stream.
+     */
+    private static class CountingInputStream extends FilterInputStream {
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.packvc.founderfinder;
+
+import org.jsoup.Connection;
+import org.jsoup.Jsoup;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Transport built on Jsoup's HttpURLConnection-based client.
+ * Always speaks HTTP/1.1; kept for comparison and as a fallback.
+ */
+public class JsoupTransport implements HttpTransport {
+
+    private final String userAgent;
+
+    public JsoupTransport(String userAgent) {
+        this.userAgent = userAgent;
+    }
+
+    @Override
+    public Response get(String url, Map<String, String> headers, int timeoutMillis) throws IOException {
+        Connection connection = Jsoup.connect(url)
+            .userAgent(userAgent)
+            .timeout(timeoutMillis)
+            .followRedirects(true)
+            .ignoreContentType(true)
+            .maxBodySize(0)
+            .ignoreHttpErrors(true)
+            .headers(headers);
+
+        Connection.Response response = connection.execute();
+        int status = response.statusCode();
+        if (status != 304 && (status < 200 || status >= 300)) {
+            throw new FetchException(url, status, RetryPolicy.parseRetryAfter(response.header("Retry-After")));
+        }
+        byte[] body = response.bodyAsBytes();
+        // Jsoup decompresses transparently, so the transferred size is not visible here
+        return new Response(response.statusCode(), response.url().toString(), body, response.charset(),
+                            "HTTP/1.1", body.length, response.headers());
+    }
+
+    @Override
+    public String getName() {
+        return "jsoup";
+    }
+}
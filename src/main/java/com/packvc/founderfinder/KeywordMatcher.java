@@ -0,0 +1,106 @@
+package com.packvc.founderfinder;
+
+import java.util.*;
+
+/**
+ * Aho-Corasick matcher that finds whether any of a fixed set of lowercase ASCII keywords
+ * occurs in a string, case-insensitively, in a single pass over the string.
+ */
+class KeywordMatcher {
+
+    private static final int ALPHABET = 26;
+
+    // goTo[state][letter] is the next state; failure links are folded in at build time
+    private final int[][] goTo;
+    private final boolean[] accepting;
+
+    /**
+     * Builds the automaton.
+     *
+     * @param keywords Keywords made of the letters a-z only
+     */
+    KeywordMatcher(String... keywords) {
+        List<int[]> transitions = new ArrayList<>();
+        List<Boolean> accepts = new ArrayList<>();
+        transitions.add(newRow());
+        accepts.add(false);
+
+        // Build the keyword trie
+        for (String keyword : keywords) {
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                int letter = keyword.charAt(i) - 'a';
+                if (letter < 0 || letter >= ALPHABET) {
+                    throw new IllegalArgumentException("Keywords must be lowercase a-z: " + keyword);
+                }
+                if (transitions.get(state)[letter] == -1) {
+                    transitions.add(newRow());
+                    accepts.add(false);
+                    transitions.get(state)[letter] = transitions.size() - 1;
+                }
+                state = transitions.get(state)[letter];
+            }
+            accepts.set(state, true);
+        }
+
+        goTo = transitions.toArray(new int[0][]);
+        accepting = new boolean[accepts.size()];
+        for (int i = 0; i < accepting.length; i++) {
+            accepting[i] = accepts.get(i);
+        }
+
+        // Breadth-first pass computing failure links and completing the transition table
+        int[] failure = new int[goTo.length];
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int letter = 0; letter < ALPHABET; letter++) {
+            if (goTo[0][letter] == -1) {
+                goTo[0][letter] = 0;
+            } else {
+                failure[goTo[0][letter]] = 0;
+                queue.add(goTo[0][letter]);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            accepting[state] |= accepting[failure[state]];
+            for (int letter = 0; letter < ALPHABET; letter++) {
+                int next = goTo[state][letter];
+                if (next == -1) {
+                    goTo[state][letter] = goTo[failure[state]][letter];
+                } else {
+                    failure[next] = goTo[failure[state]][letter];
+                    queue.add(next);
+                }
+            }
+        }
+    }
+
+    private static int[] newRow() {
+        int[] row = new int[ALPHABET];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    /**
+     * Returns true if any keyword occurs in the text, ignoring ASCII case.
+     * Characters outside A-Z/a-z never occur in a keyword, so they reset the match.
+     */
+    boolean containsAny(CharSequence text) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                c = (char) (c + ('a' - 'A'));
+            }
+            if (c < 'a' || c > 'z') {
+                state = 0;
+                continue;
+            }
+            state = goTo[state][c - 'a'];
+            if (accepting[state]) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,73 @@
+package com.packvc.founderfinder;
+
+/**
+ * Minimal leveled console logging.
+ * INFO and DEBUG go to stdout and WARN and ERROR to stderr. Messages below the
+ * configured level are dropped before any console I/O happens; callers building
+ * expensive messages in hot paths should check {@link #isDebugEnabled()} first.
+ */
+public class Log {
+
+    /**
+     * Log levels, from least to most verbose.
+     */
+    public enum Level {
+        ERROR, WARN, INFO, DEBUG;
+
+        /**
+         * Parses a level name case-insensitively.
+         *
+         * @throws IllegalArgumentException if the name is not a known level
+         */
+        public static Level fromName(String name) {
+            for (Level level : values()) {
+                if (level.name().equalsIgnoreCase(name)) {
+                    return level;
+                }
+            }
+            throw new IllegalArgumentException("Unknown log level: " + name);
+        }
+    }
+
+    private static volatile Level level = Level.INFO;
+
+    public static void setLevel(Level newLevel) {
+        level = newLevel;
+    }
+
+    public static Level getLevel() {
+        return level;
+    }
+
+    public static boolean isEnabled(Level messageLevel) {
+        return messageLevel.ordinal() <= level.ordinal();
+    }
+
+    public static boolean isDebugEnabled() {
+        return isEnabled(Level.DEBUG);
+    }
+
+    public static void debug(String message) {
+        if (isEnabled(Level.DEBUG)) {
+            System.out.println(message);
+        }
+    }
+
+    public static void info(String message) {
+        if (isEnabled(Level.INFO)) {
+            System.out.println(message);
+        }
+    }
+
+    public static void warn(String message) {
+        if (isEnabled(Level.WARN)) {
+            System.err.println(message);
+        }
+    }
+
+    public static void error(String message) {
+        if (isEnabled(Level.ERROR)) {
+            System.err.println(message);
+        }
+    }
+}
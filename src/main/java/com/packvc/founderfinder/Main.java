@@ -1,13 +1,19 @@
 package com.packvc.founderfinder;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import org.jsoup.nodes.Document;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
 
 /**
  * Main entry point for the Founder Finder CLI tool.
@@ -15,6 +21,12 @@ import com.google.gson.GsonBuilder;
  */
 public class Main {
     
+    // Names handed to the resolver ahead of processing; matches the Action API title limit
+    private static final int PREPARE_BATCH_SIZE = 50;
+    
+    // Shared by repeated companies and by companies resolving to the same article; bounded by --result-cache
+    private static FounderService founders;
+    
     public static void main(String[] args) {
         // Validate command line arguments
         if (args.length == 0) {
@@ -22,133 +34,549 @@ public class Main {
             System.exit(1);
         }
         
-        if (args.length > 2) {
-            System.err.println("Error: Too many arguments provided.");
+        if (args[0].equals("compact-index")) {
+            compactIndex(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args[0].equals("serve")) {
+            serve(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args[0].equals("merge")) {
+            merge(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        
+        CliOptions options;
+        try {
+            options = CliOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
             printUsage();
             System.exit(1);
+            return;
         }
         
-        // Parse arguments
-        String inputFile = args[0];
-        String outputFile = args.length == 2 ? args[1] : "founders.json";
+        String inputFile = options.getInputFile();
+        String outputFile = options.getOutputFile();
+        Log.setLevel(options.getLogLevel());
+        founders = new FounderService(options.getResultCacheEntries(), options.getResultCacheEntries());
         
-        System.out.println("Founder Finder - Pack Ventures Technical Screening");
-        System.out.println("Input file: " + inputFile);
-        System.out.println("Output file: " + outputFile);
+        Log.info("Founder Finder - Pack Ventures Technical Screening");
+        Log.info("Input file: " + inputFile);
+        Log.info("Output file: " + outputFile);
+        Log.info("Workers: " + options.getWorkers() + 
+                 ", rate limit: " + options.getRequestsPerSecond() + " req/s (burst " + options.getBurst() + ")" +
+                 ", transport: " + options.getTransport());
+        Shard shard = options.getShard();
+        if (shard != null) {
+            Log.info("Shard " + shard + ": processing only the companies that hash to this shard");
+        }
         
         try {
-            // Parse companies from input file
-            List<Company> companies = CompanyParser.parseFile(inputFile);
+            ResolutionIndex resolutionIndex = configureFetcher(options);
             
-            System.out.println("\nParsed " + companies.size() + " companies:");
-            for (Company company : companies) {
-                System.out.println("  " + company.toString());
+            boolean dumpMode = options.getDumpFile() != null;
+            if (dumpMode) {
+                try {
+                    founders.setDumpIndex(buildDumpIndex(Paths.get(options.getDumpFile()), Paths.get(inputFile), shard));
+                } catch (NoSuchFileException e) {
+                    Log.error("✗ File not found: " + e.getFile());
+                    System.exit(1);
+                } catch (IOException e) {
+                    Log.error("✗ Error reading dump " + options.getDumpFile() + ": " + e.getMessage());
+                    System.exit(1);
+                }
             }
             
-            System.out.println("\nPhase 2 complete - Company parsing ready");
-            
-            // Phase 5: Complete orchestration - process all companies
-            System.out.println("\n=== PHASE 5: Complete Processing ===");
-            
-            Map<String, List<String>> foundersMap = new LinkedHashMap<>();
-            
-            for (int i = 0; i < companies.size(); i++) {
-                Company company = companies.get(i);
-                String companyName = company.getName();
+            // Companies are parsed lazily, so processing starts with the first line of the file
+            try (Stream<Company> input = CompanyParser.stream(Paths.get(inputFile))) {
+                Iterator<Company> companies = (shard != null ? input.filter(shard::owns) : input).iterator();
                 
-                System.out.println("\n--- Processing " + (i + 1) + "/" + companies.size() + ": " + companyName + " ---");
+                Log.info("\n=== PHASE 5: Complete Processing ===");
                 
-                try {
-                    // Step 1: Resolve Wikipedia page
-                    System.out.println("Resolving Wikipedia page for: " + companyName);
-                    Optional<String> wikipediaUrl = WikipediaFetcher.resolveWikipediaPage(companyName);
+                Path journalPath = Paths.get(options.getJournalFile());
+                Path previousJournal = null;
+                if (options.isRefresh()) {
+                    previousJournal = startRefresh(journalPath);
+                }
+                boolean complete = false;
+                try (CheckpointJournal journal = CheckpointJournal.open(journalPath, options.isResume())) {
+                    int alreadyDone = journal.getCompletedCount();
+                    if (alreadyDone > 0) {
+                        // The journal must describe a prefix of this input file
+                        if (!skipJournaled(companies, alreadyDone, journal.getLastCompany())) {
+                            Log.error("Error: Journal " + journalPath + " does not match " + inputFile + 
+                                      "; rerun without --resume to start over");
+                            System.exit(1);
+                        }
+                        Log.info("Resuming after " + alreadyDone + " companies recorded in " + journalPath);
+                    }
+                    int position = alreadyDone;
                     
-                    if (wikipediaUrl.isPresent()) {
-                        System.out.println("✓ Found Wikipedia page: " + wikipediaUrl.get());
+                    // Phase 6: Results are streamed to the output file as they are produced
+                    Log.info("Writing " + options.getFormat().name().toLowerCase() + " output to: " + outputFile);
+                    try (ResultWriter resultWriter = ResultWriter.open(options.getFormat(), Paths.get(outputFile), options.isEcho())) {
+                        writeStore(resultWriter, options);
+                        RepeatedNames repeated = RepeatedNames.scan(Paths.get(inputFile));
+                        Log.debug(repeated.size() + " company names may repeat in " + inputFile);
+                        resultWriter.deduplicate(repeated);
+                        journal.replayInto(resultWriter);
                         
-                        // Step 2: Extract founders
-                        System.out.println("Extracting founders from Wikipedia page...");
-                        Document doc = WikipediaFetcher.fetch(wikipediaUrl.get());
-                        List<String> founders = FounderExtractor.extractFounders(doc, companyName);
-                        
-                        if (!founders.isEmpty()) {
-                            System.out.println("✓ Found " + founders.size() + " founders for " + companyName + ":");
-                            for (int j = 0; j < founders.size(); j++) {
-                                System.out.println("  " + (j + 1) + ". " + founders.get(j));
+                        ExecutorService executor = createExecutor(options);
+                        try {
+                            // Keep at most 'workers' companies in flight and drain them in input order
+                            Deque<Future<FounderResult>> inFlight = new ArrayDeque<>();
+                            Deque<Company> inFlightCompanies = new ArrayDeque<>();
+                            
+                            List<Company> batch;
+                            while (!(batch = nextBatch(companies, PREPARE_BATCH_SIZE)).isEmpty()) {
+                                // Let the resolver look up the next batch of names in as few requests as it can
+                                if (!dumpMode) {
+                                    WikipediaFetcher.prepare(batch);
+                                }
+                                
+                                for (Company company : batch) {
+                                    int companyPosition = ++position;
+                                    inFlight.add(executor.submit(() -> processCompany(company, companyPosition)));
+                                    inFlightCompanies.add(company);
+                                    
+                                    if (inFlight.size() >= options.getWorkers()) {
+                                        collectResult(inFlightCompanies.poll(), inFlight.poll(), journal, resultWriter);
+                                    }
+                                }
+                            }
+                            
+                            while (!inFlight.isEmpty()) {
+                                collectResult(inFlightCompanies.poll(), inFlight.poll(), journal, resultWriter);
                             }
-                            foundersMap.put(companyName, founders);
-                        } else {
-                            System.out.println("✗ No founders found for " + companyName);
-                            foundersMap.put(companyName, new ArrayList<>());
+                            complete = true;
+                        } catch (InterruptedException ie) {
+                            Thread.currentThread().interrupt();
+                            Log.error("Interrupted while processing companies");
+                        } finally {
+                            executor.shutdownNow();
                         }
-                        
-                    } else {
-                        System.out.println("✗ No Wikipedia page found for " + companyName);
-                        foundersMap.put(companyName, new ArrayList<>());
+                    } catch (IOException e) {
+                        Log.error("✗ Error writing output: " + e.getMessage());
+                        System.exit(1);
                     }
+                    Log.info("✓ Successfully wrote founders to: " + outputFile);
                     
-                } catch (Exception e) {
-                    System.err.println("✗ Error processing " + companyName + ": " + e.getMessage());
-                    foundersMap.put(companyName, new ArrayList<>());
+                    // Print final results
+                    Log.info("\n=== FINAL RESULTS ===");
+                    Log.info("Recorded " + journal.getCompletedCount() + " of " + position + 
+                             " companies in " + journalPath);
                 }
-                
-                // Add delay between companies (except for the last one)
-                if (i < companies.size() - 1) {
-                    try {
-                        System.out.println("Waiting 400ms before next company...");
-                        Thread.sleep(400);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        System.err.println("Interrupted during delay");
-                        break;
-                    }
+                if (previousJournal != null && complete) {
+                    // The new journal now holds every company; an interrupted refresh keeps the old one to retry from
+                    Files.delete(previousJournal);
                 }
             }
             
-            // Print final results
-            System.out.println("\n=== FINAL RESULTS ===");
-            System.out.println("Founders Map:");
-            for (Map.Entry<String, List<String>> entry : foundersMap.entrySet()) {
-                String company = entry.getKey();
-                List<String> founders = entry.getValue();
-                System.out.println("  " + company + ": " + founders);
+            if (resolutionIndex != null) {
+                resolutionIndex.close();
             }
             
-            // Phase 6: Write JSON output
-            System.out.println("\n=== PHASE 6: JSON Output ===");
+            if (Log.isEnabled(Log.Level.INFO)) {
+                Metrics.printSummary(System.out);
+            }
+            if (options.getMetricsJsonFile() != null) {
+                Metrics.writeJson(Paths.get(options.getMetricsJsonFile()));
+                Log.info("Metrics written to: " + options.getMetricsJsonFile());
+            }
+            
+            Log.info("\nPhase 6 complete - output written");
+            
+        } catch (IOException e) {
+            Log.error("Error reading input file or cache: " + e.getMessage());
+            System.exit(1);
+        } catch (UncheckedIOException e) {
+            Log.error("Error reading input file: " + e.getCause().getMessage());
+            System.exit(1);
+        }
+    }
+    
+    /**
+     * Resolves and extracts founders for a single company.
+     * Failures are logged and reported as an empty founder list.
+     */
+    private static FounderResult processCompany(Company company, int position) {
+        Log.debug("\n--- Processing " + position + ": " + company.getName() + " ---");
+        long start = System.nanoTime();
+        try {
+            return founders.lookup(company);
+        } catch (Exception e) {
+            Log.warn("✗ Error processing " + company.getName() + ": " + e.getMessage());
+            return FounderResult.failed();
+        } finally {
+            Metrics.recordLatency(Metrics.Stage.COMPANY, System.nanoTime() - start);
+        }
+    }
+    
+    /**
+     * Sets aside the previous run's journal and checks which of its articles changed,
+     * so only those are fetched again. A journal set aside by an interrupted refresh is
+     * reused, since the journal in its place is incomplete.
+     * 
+     * @return The set-aside journal, to delete once the refresh completes
+     */
+    private static Path startRefresh(Path journalPath) throws IOException {
+        Path previous = journalPath.resolveSibling(journalPath.getFileName() + ".previous");
+        if (Files.exists(previous)) {
+            Log.info("Refreshing from " + previous + " left by an interrupted refresh");
+        } else if (Files.exists(journalPath)) {
+            Files.move(journalPath, previous, StandardCopyOption.ATOMIC_MOVE);
+        } else {
+            Log.error("✗ No journal of a previous run to refresh from: " + journalPath);
+            System.exit(1);
+        }
+        
+        RefreshPlan plan = new RefreshPlan(CheckpointJournal.readResults(previous));
+        Log.info("Checking article revisions for " + plan.size() + " companies from the previous run...");
+        int changed;
+        try {
+            changed = plan.checkRevisions();
+        } catch (IOException e) {
+            Log.error("✗ Could not check article revisions: " + e.getMessage());
+            System.exit(1);
+            return previous;
+        }
+        Log.info("✓ " + changed + " articles changed since the previous run");
+        founders.setRefreshPlan(plan);
+        return previous;
+    }
+    
+    /**
+     * Applies the request, cache and index options shared by the batch run and the server.
+     * 
+     * @return Resolution index to close when done, or null if none was requested
+     */
+    private static ResolutionIndex configureFetcher(CliOptions options) throws IOException {
+        WikipediaFetcher.setRateLimiter(new RateLimiter(options.getRequestsPerSecond(), options.getBurst()));
+        WikipediaFetcher.setMaxConcurrentRequests(options.getMaxConcurrentRequests());
+        WikipediaFetcher.useTransport(options.getTransport());
+        if (options.getWikiBase() != null) {
+            WikipediaFetcher.setBaseUrl(options.getWikiBase());
+        }
+        if (options.getRecordDir() != null) {
+            WikipediaFetcher.recordTo(new ResponseArchive(Paths.get(options.getRecordDir())));
+            Log.info("Recording responses to: " + options.getRecordDir());
+        }
+        if (options.getInfoboxHeadersFile() != null) {
             try {
-                Gson gson = new GsonBuilder().setPrettyPrinting().create();
-                String json = gson.toJson(foundersMap);
-                
-                Files.write(Paths.get(outputFile), json.getBytes());
-                System.out.println("✓ Successfully wrote founders to: " + outputFile);
-                System.out.println("JSON content:");
-                System.out.println(json);
-                
-            } catch (IOException e) {
-                System.err.println("✗ Error writing JSON file: " + e.getMessage());
-                System.exit(1);
+                InfoboxScanner.addAliases(Paths.get(options.getInfoboxHeadersFile()));
+            } catch (NoSuchFileException e) {
+                throw new IOException("Infobox header aliases not found: " + e.getFile(), e);
             }
+            Log.info("Infobox header aliases: " + options.getInfoboxHeadersFile());
+        }
+        if (options.getResolver().equals("api")) {
+            WikipediaFetcher.setResolver(new ActionApiResolver());
+            Log.info("Resolver: MediaWiki Action API at " + WikipediaFetcher.getBaseUrl());
+        }
+        
+        if (options.getCacheDir() != null) {
+            WikipediaFetcher.setCache(new HttpCache(
+                Paths.get(options.getCacheDir()),
+                Duration.ofHours(options.getCacheTtlHours()),
+                options.getCacheMaxMb() * 1024L * 1024L,
+                options.isOffline()));
+            Log.info("Response cache: " + options.getCacheDir() + 
+                     (options.isOffline() ? " (offline)" : ""));
+        }
+        
+        if (options.useDomainIndex()) {
+            HttpCache cache = WikipediaFetcher.getCache();
+            DomainIndex domainIndex = cache != null ? DomainIndex.fromCache(cache) : new DomainIndex();
+            WikipediaFetcher.setDomainIndex(domainIndex);
+            Log.info("Domain index: " + domainIndex.size() + " website domains from cached articles");
+        }
+        
+        ResolutionIndex resolutionIndex = null;
+        if (options.getResolutionIndexFile() != null) {
+            resolutionIndex = ResolutionIndex.open(
+                Paths.get(options.getResolutionIndexFile()),
+                Duration.ofDays(options.getIndexTtlDays()),
+                Duration.ofDays(options.getIndexNegativeTtlDays()));
+            WikipediaFetcher.setResolutionIndex(resolutionIndex);
+            Log.info("Resolution index: " + options.getResolutionIndexFile() + 
+                     " (" + resolutionIndex.size() + " entries)");
+        }
+        return resolutionIndex;
+    }
+    
+    /**
+     * Serves founder lookups over HTTP until the process is stopped.
+     * Usage: serve [--port P] [--result-cache N] [options]
+     */
+    private static void serve(String[] args) {
+        CliOptions options;
+        try {
+            options = CliOptions.parseServe(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            printUsage();
+            System.exit(1);
+            return;
+        }
+        Log.setLevel(options.getLogLevel());
+        
+        try {
+            ResolutionIndex resolutionIndex = configureFetcher(options);
             
-            System.out.println("\nPhase 6 complete - JSON output written");
+            FounderService service = new FounderService(options.getResultCacheEntries(), options.getResultCacheEntries());
+            if (options.getDumpFile() != null) {
+                service.setDumpIndex(buildDumpIndex(Paths.get(options.getDumpFile()), null, null));
+            }
             
+            FounderServer server = new FounderServer(service, options.getPort(), createExecutor(options),
+                                                     Math.max(4, options.getWorkers()));
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                server.stop(1);
+                if (resolutionIndex != null) {
+                    try {
+                        resolutionIndex.close();
+                    } catch (IOException e) {
+                        Log.warn("Warning: Could not close resolution index: " + e.getMessage());
+                    }
+                }
+                if (Log.isEnabled(Log.Level.INFO)) {
+                    Metrics.printSummary(System.out);
+                }
+            }, "shutdown"));
+            server.start();
+            Log.info("✓ Serving founder lookups on http://localhost:" + server.getPort() + "/founders" + 
+                     " (workers: " + options.getWorkers() + ", result cache: " + options.getResultCacheEntries() + 
+                     (options.getMaxConcurrentRequests() > 0 ? ", max requests: " + options.getMaxConcurrentRequests() : "") + ")");
         } catch (IOException e) {
-            System.err.println("Error reading input file: " + e.getMessage());
+            Log.error("✗ Error starting server: " + e.getMessage());
             System.exit(1);
         }
     }
     
+    /**
+     * Reads a Wikipedia dump into an index of founders, keeping redirects and
+     * websites only for the companies in the input file (and shard, if any), or for
+     * every article without one.
+     */
+    private static DumpIndex buildDumpIndex(Path dump, Path inputFile, Shard shard) throws IOException {
+        DumpIndex.Wanted wanted = null;
+        if (inputFile != null) {
+            // A quiet first pass over the input; its warnings are printed by the main pass
+            wanted = new DumpIndex.Wanted();
+            try (Stream<Company> companies = CompanyParser.stream(inputFile, false, false)) {
+                (shard != null ? companies.filter(shard::owns) : companies).forEach(wanted::add);
+            }
+        }
+        
+        int threads = Runtime.getRuntime().availableProcessors();
+        Log.info("Reading dump " + dump + " with " + threads + " extraction threads...");
+        long start = System.nanoTime();
+        DumpIndex index = DumpIndex.build(dump, wanted, threads);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        Log.info("✓ Dump index: " + index.size() + " articles with founders, " + index.redirectCount() + 
+                 " redirects, " + index.domainCount() + " website domains (" + elapsedMs + " ms)");
+        return index;
+    }
+    
+    /**
+     * Rewrites a resolution index with only its live entries.
+     * Usage: compact-index FILE [--index-ttl-days D] [--index-negative-ttl-days D]
+     */
+    private static void compactIndex(String[] args) {
+        CliOptions options;
+        try {
+            // The index file takes the place of the input file
+            options = CliOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            printUsage();
+            System.exit(1);
+            return;
+        }
+        
+        Path indexPath = Paths.get(options.getInputFile());
+        try {
+            ResolutionIndex.Compaction result = ResolutionIndex.compact(
+                indexPath,
+                Duration.ofDays(options.getIndexTtlDays()),
+                Duration.ofDays(options.getIndexNegativeTtlDays()));
+            System.out.println("✓ Compacted " + indexPath + ": kept " + result.getKept() + 
+                               " entries, dropped " + result.getDropped() + " stale records");
+        } catch (IOException e) {
+            System.err.println("✗ Error compacting " + indexPath + ": " + e.getMessage());
+            System.exit(1);
+        }
+    }
+    
+    /**
+     * Has the output also written as a founder store if --store was given.
+     */
+    private static void writeStore(ResultWriter resultWriter, CliOptions options) {
+        if (options.getStoreFile() != null) {
+            Log.info("Writing founder store to: " + options.getStoreFile());
+            resultWriter.writeStoreTo(Paths.get(options.getStoreFile()));
+        }
+    }
+    
+    /**
+     * Merges the journals of a run split with --shard into one output in input order.
+     * Usage: merge companies.txt [founders.json] --shards N [--journal FILE] [--format F] [--store FILE]
+     */
+    private static void merge(String[] args) {
+        CliOptions options;
+        try {
+            options = CliOptions.parseMerge(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            printUsage();
+            System.exit(1);
+            return;
+        }
+        Log.setLevel(options.getLogLevel());
+        
+        int shards = options.getShardCount();
+        String outputFile = options.getOutputFile();
+        Path journalPath = Paths.get(options.getJournalFile());
+        ShardMerger.Report report;
+        try (ResultWriter resultWriter = ResultWriter.open(options.getFormat(), Paths.get(outputFile), options.isEcho())) {
+            writeStore(resultWriter, options);
+            report = ShardMerger.merge(Paths.get(options.getInputFile()), shards, journalPath, resultWriter);
+        } catch (IOException | UncheckedIOException e) {
+            Log.error("✗ Error merging shards: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        
+        Log.info("✓ Merged " + report.getMerged() + " companies from " + shards + " shards into " + outputFile + 
+                 " (journal: " + journalPath + ")");
+        if (report.getFailed() > 0) {
+            Log.info("  " + report.getFailed() + " lookups failed in their shard; rerun with --refresh to retry them");
+        }
+        if (report.getConflicting() > 0) {
+            Log.warn("  " + report.getConflicting() + " companies share a name with an entry that got other founders");
+        }
+        if (!report.isComplete()) {
+            Log.error("✗ Merge incomplete: " + report.getMissing() + " missing, " + report.getMismatched() + 
+                      " mismatched shards, " + report.getExtra() + " extra records");
+            System.exit(1);
+        }
+    }
+    
+    /**
+     * Reads up to {@code size} companies from the input.
+     */
+    private static List<Company> nextBatch(Iterator<Company> companies, int size) {
+        List<Company> batch = new ArrayList<>(size);
+        while (batch.size() < size && companies.hasNext()) {
+            batch.add(companies.next());
+        }
+        return batch;
+    }
+    
+    /**
+     * Skips the companies a resumed journal already recorded.
+     * 
+     * @return false if the input ends early or the last skipped company is not the journal's last one
+     */
+    private static boolean skipJournaled(Iterator<Company> companies, int count, String lastCompany) {
+        Company company = null;
+        for (int i = 0; i < count; i++) {
+            if (!companies.hasNext()) {
+                return false;
+            }
+            company = companies.next();
+        }
+        return company != null && company.getName().equals(lastCompany);
+    }
+    
+    /**
+     * Waits for a company's result, appends it to the checkpoint journal and streams it to the output.
+     */
+    private static void collectResult(Company company, Future<FounderResult> future, CheckpointJournal journal,
+                                      ResultWriter resultWriter) throws InterruptedException, IOException {
+        FounderResult result;
+        try {
+            result = future.get();
+        } catch (ExecutionException e) {
+            Metrics.increment(Metrics.Counter.COMPANY_ERRORS);
+            Log.warn("✗ Error processing " + company.getName() + ": " + e.getCause().getMessage());
+            result = FounderResult.failed();
+        }
+        journal.append(company.getName(), result);
+        resultWriter.write(company.getName(), result.getFounders());
+        Log.info("  " + company.getName() + ": " + result.getFounders());
+    }
+    
+    /**
+     * Creates the worker pool, using virtual threads when requested and supported by the JVM.
+     */
+    private static ExecutorService createExecutor(CliOptions options) {
+        if (options.useVirtualThreads()) {
+            try {
+                // Looked up reflectively so the tool still runs on Java 11
+                return (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+            } catch (ReflectiveOperationException e) {
+                Log.warn("Warning: Virtual threads are not available on this JVM, using platform threads");
+            }
+        }
+        return Executors.newFixedThreadPool(options.getWorkers());
+    }
+    
     /**
      * Prints usage information for the CLI tool.
      */
     private static void printUsage() {
-        System.out.println("Usage: java -jar founder-finder.jar <companies.txt> [founders.json]");
+        System.out.println("Usage: java -jar founder-finder.jar <companies.txt> [founders.json] [options]");
         System.out.println("  companies.txt  - Input file with company names and URLs");
         System.out.println("  founders.json  - Output file (default: founders.json)");
         System.out.println();
+        System.out.println("Options:");
+        System.out.println("  --workers N                  - Companies processed concurrently (default: 1)");
+        System.out.println("  --virtual-threads            - Run workers on virtual threads (Java 21+)");
+        System.out.println("  --rate R                     - Maximum Wikipedia requests per second (default: 2.0)");
+        System.out.println("  --burst B                    - Requests allowed back to back before rate limiting (default: 2)");
+        System.out.println("  --cache-dir DIR              - Cache Wikipedia responses on disk in DIR");
+        System.out.println("  --cache-ttl-hours H          - Serve cached responses without revalidation for H hours (default: 24)");
+        System.out.println("  --cache-max-mb M             - Evict least recently used responses above M megabytes (default: 512)");
+        System.out.println("  --offline                    - Serve only from the cache, never touch the network");
+        System.out.println("  --journal FILE               - Checkpoint journal (default: <founders.json>.journal)");
+        System.out.println("  --resume                     - Skip companies already recorded in the journal");
+        System.out.println("  --refresh                    - Reuse the journaled results of the last run whose articles have not changed");
+        System.out.println("  --format FORMAT              - Output format: json or ndjson (default: json)");
+        System.out.println("  --echo                       - Also print the output to stdout");
+        System.out.println("  --resolver NAME              - Page resolver: html or api (default: html)");
+        System.out.println("  --wiki-base URL              - Wiki to query (default: https://en.wikipedia.org)");
+        System.out.println("  --log-level LEVEL            - error, warn, info or debug (default: info)");
+        System.out.println("  --metrics-json FILE          - Also write run metrics to FILE as JSON");
+        System.out.println("  --transport NAME             - http-client (HTTP/2, default), http1 or jsoup");
+        System.out.println("  --resolution-index FILE      - Remember which article each company resolved to in FILE");
+        System.out.println("  --index-ttl-days D           - Trust remembered articles for D days (default: 30)");
+        System.out.println("  --index-negative-ttl-days D  - Trust remembered missing articles for D days (default: 7)");
+        System.out.println("  --domain-index               - Resolve companies by website domain using cached and downloaded articles");
+        System.out.println("  --dump FILE                  - Answer companies from a Wikipedia dump (.xml, .xml.gz or .xml.bz2) instead of the wiki");
+        System.out.println("  --infobox-headers FILE       - Extra infobox header aliases, as in infobox-headers.properties");
+        System.out.println("  --max-requests N             - Wikipedia requests in flight at once across all workers (default: no cap)");
+        System.out.println("  --record DIR                 - Record every Wikipedia response to an archive in DIR for replay");
+        System.out.println("  --store FILE                 - Also write the results as a memory-mappable founder store to FILE");
+        System.out.println("  --shard i/N                  - Process only shard i of N; output, journal, metrics and index files get a -i-of-N suffix");
+        System.out.println();
         System.out.println("Example:");
         System.out.println("  java -jar founder-finder.jar companies.txt");
         System.out.println("  java -jar founder-finder.jar companies.txt output.json");
+        System.out.println("  java -jar founder-finder.jar companies.txt output.json --workers 8 --rate 5");
+        System.out.println();
+        System.out.println("Maintenance:");
+        System.out.println("  java -jar founder-finder.jar compact-index FILE [--index-ttl-days D] [--index-negative-ttl-days D]");
+        System.out.println("  java -jar founder-finder.jar merge companies.txt [founders.json] --shards N [--journal FILE] [--format F] [--store FILE]");
+        System.out.println();
+        System.out.println("Server:");
+        System.out.println("  java -jar founder-finder.jar serve [--port P] [--result-cache N] [options]");
+        System.out.println("  --port P                     - Port to listen on (default: 8080)");
+        System.out.println("  --result-cache N             - Company and article results kept in memory (default: 10000 each)");
     }
 }
 
@@ -0,0 +1,478 @@
+package com.packvc.founderfinder;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide run metrics: event counters and per-stage latency histograms.
+ * Recording is lock-free and cheap enough to leave on in every run; the totals
+ * are printed as a table at the end of the run and can be dumped as JSON.
+ */
+public class Metrics {
+
+    /**
+     * Events counted during a run.
+     */
+    public enum Counter {
+        COMPANIES,
+        COMPANIES_WITH_FOUNDERS,
+        COMPANY_ERRORS,
+        RESOLVED_DIRECT,
+        RESOLVED_SEARCH,
+        RESOLVED_TITLE_LOOKUP,
+        RESOLVED_API_SEARCH,
+        RESOLVED_DOMAIN,
+        RESOLVED_DUMP,
+        DOMAIN_MISMATCHES,
+        UNRESOLVED,
+        INDEX_HITS,
+        INDEX_NEGATIVE_HITS,
+        INDEX_MISSES,
+        INDEX_EXPIRED,
+        HTTP_REQUESTS,
+        HTTP_RETRIES,
+        HTTP_FAILURES,
+        HTTP_CLIENT_ERRORS,
+        CIRCUIT_OPENS,
+        CIRCUIT_WAIT_MS,
+        REQUEST_SLOT_WAIT_MS,
+        BYTES_DOWNLOADED,
+        CACHE_HITS,
+        CACHE_MISSES,
+        CACHE_REVALIDATIONS,
+        CACHE_EVICTIONS,
+        SAVED_FETCHES,
+        DEDUPED_COMPANIES,
+        DEDUPED_ARTICLES,
+        BYTES_SCANNED,
+        BYTES_SKIPPED,
+        DUMP_PAGES,
+        DUMP_REDIRECTS,
+        DUMP_FOUNDER_ARTICLES,
+        REFRESH_UNCHANGED,
+        REFRESH_CHANGED,
+        PARTIAL_DOWNLOADS,
+        PROBE_REJECTIONS;
+
+        /**
+         * Returns the name used in the summary table and the JSON dump.
+         */
+        public String label() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Timed stages of processing a company.
+     */
+    public enum Stage {
+        /** Turning a company name into an article, including any requests it makes. */
+        RESOLVE,
+        /** One HTTP request, from sending it to having the whole body. */
+        FETCH,
+        /** Building a DOM, either for a full page or for a streamed infobox. */
+        PARSE,
+        /** Walking infobox rows and normalizing founder names. */
+        EXTRACT,
+        /** Answering one request to the lookup server, from reading it to writing the response. */
+        LOOKUP,
+        /** One company of a batch run, from the start of its lookup to its result. */
+        COMPANY;
+
+        public String label() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    // Latencies are bucketed by the microsecond, wire bytes by the byte
+    public static final long LATENCY_RESOLUTION_NANOS = 1000;
+
+    private static final LongAdder[] COUNTERS = new LongAdder[Counter.values().length];
+    private static final Histogram[] HISTOGRAMS = new Histogram[Stage.values().length];
+    private static final Map<String, HostStats> HOSTS = new ConcurrentHashMap<>();
+    // Wire bytes of the requests each thread has made, so a lookup can tell what it cost
+    private static final ThreadLocal<long[]> THREAD_WIRE_BYTES = ThreadLocal.withInitial(() -> new long[1]);
+    private static volatile Histogram companyBytes = new Histogram(1);
+    private static volatile long startNanos = System.nanoTime();
+
+    static {
+        for (int i = 0; i < COUNTERS.length; i++) {
+            COUNTERS[i] = new LongAdder();
+        }
+        for (int i = 0; i < HISTOGRAMS.length; i++) {
+            HISTOGRAMS[i] = new Histogram(LATENCY_RESOLUTION_NANOS);
+        }
+    }
+
+    public static void increment(Counter counter) {
+        COUNTERS[counter.ordinal()].increment();
+    }
+
+    public static void add(Counter counter, long amount) {
+        COUNTERS[counter.ordinal()].add(amount);
+    }
+
+    public static long get(Counter counter) {
+        return COUNTERS[counter.ordinal()].sum();
+    }
+
+    /**
+     * Records how long one occurrence of a stage took.
+     *
+     * @param stage Stage that was timed
+     * @param elapsedNanos Duration from {@link System#nanoTime()} differences
+     */
+    public static void recordLatency(Stage stage, long elapsedNanos) {
+        HISTOGRAMS[stage.ordinal()].record(elapsedNanos);
+    }
+
+    /**
+     * Returns the latency histogram of a stage, in nanoseconds.
+     */
+    public static Histogram getHistogram(Stage stage) {
+        return HISTOGRAMS[stage.ordinal()];
+    }
+
+    /**
+     * Records one completed HTTP request against its host.
+     *
+     * @param host Host the request went to
+     * @param protocol Protocol the response arrived over, e.g. "HTTP/2"
+     * @param wireBytes Body size as transferred
+     * @param bodyBytes Body size after decompression
+     * @param elapsedNanos Time from sending the request to having the whole body
+     */
+    public static void recordRequest(String host, String protocol, long wireBytes, long bodyBytes, long elapsedNanos) {
+        HOSTS.computeIfAbsent(host, h -> new HostStats()).record(protocol, wireBytes, bodyBytes, elapsedNanos);
+        THREAD_WIRE_BYTES.get()[0] += wireBytes;
+    }
+
+    /**
+     * Returns the wire bytes of every request the calling thread has made so far.
+     * The difference across a company's lookup is what that company cost.
+     */
+    public static long getThreadWireBytes() {
+        return THREAD_WIRE_BYTES.get()[0];
+    }
+
+    /**
+     * Records the wire bytes transferred to look up one company.
+     */
+    public static void recordCompanyBytes(long wireBytes) {
+        companyBytes.record(wireBytes);
+    }
+
+    /**
+     * Returns the distribution of wire bytes per company, in bytes.
+     */
+    public static Histogram getCompanyBytes() {
+        return companyBytes;
+    }
+
+    /**
+     * Returns per-host request statistics, sorted by host.
+     */
+    public static Map<String, HostStats> getHostStats() {
+        return new TreeMap<>(HOSTS);
+    }
+
+    /**
+     * Clears every counter and histogram and restarts the run clock.
+     */
+    public static void reset() {
+        for (LongAdder counter : COUNTERS) {
+            counter.reset();
+        }
+        for (int i = 0; i < HISTOGRAMS.length; i++) {
+            HISTOGRAMS[i] = new Histogram(LATENCY_RESOLUTION_NANOS);
+        }
+        HOSTS.clear();
+        companyBytes = new Histogram(1);
+        startNanos = System.nanoTime();
+    }
+
+    /**
+     * Returns the wall-clock time since the metrics were created or last reset.
+     */
+    public static long getElapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    /**
+     * Prints the counters and latency percentiles as a fixed-width table.
+     *
+     * @param out Stream to print to
+     */
+    public static void printSummary(PrintStream out) {
+        out.println("\n=== METRICS ===");
+        out.printf(Locale.ROOT, "Elapsed: %.1f s%n", getElapsedMillis() / 1000.0);
+        for (Counter counter : Counter.values()) {
+            out.printf(Locale.ROOT, "  %-24s %12d%n", counter.label(), get(counter));
+        }
+        out.println();
+        out.printf(Locale.ROOT, "  %-8s %8s %10s %10s %10s %10s %10s%n",
+                   "stage", "count", "mean ms", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        for (Stage stage : Stage.values()) {
+            Histogram histogram = getHistogram(stage);
+            out.printf(Locale.ROOT, "  %-8s %8d %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                       stage.label(), histogram.getCount(),
+                       millis(histogram.getMean()), millis(histogram.getPercentile(50)),
+                       millis(histogram.getPercentile(90)), millis(histogram.getPercentile(99)),
+                       millis(histogram.getMax()));
+        }
+
+        Histogram bytes = companyBytes;
+        if (bytes.getCount() > 0) {
+            out.println();
+            out.printf(Locale.ROOT, "  %-8s %8s %10s %10s %10s %10s %10s%n",
+                       "bytes", "count", "mean KB", "p50 KB", "p90 KB", "p99 KB", "max KB");
+            out.printf(Locale.ROOT, "  %-8s %8d %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                       "company", bytes.getCount(),
+                       bytes.getMean() / 1024.0, bytes.getPercentile(50) / 1024.0,
+                       bytes.getPercentile(90) / 1024.0, bytes.getPercentile(99) / 1024.0,
+                       bytes.getMax() / 1024.0);
+        }
+
+        Map<String, HostStats> hosts = getHostStats();
+        if (!hosts.isEmpty()) {
+            out.println();
+            out.printf(Locale.ROOT, "  %-24s %8s %8s %12s %12s %10s%n",
+                       "host", "requests", "http/2", "wire KB", "decoded KB", "mean ms");
+            for (Map.Entry<String, HostStats> entry : hosts.entrySet()) {
+                HostStats host = entry.getValue();
+                out.printf(Locale.ROOT, "  %-24s %8d %8d %12.1f %12.1f %10.1f%n",
+                           entry.getKey(), host.getRequests(), host.getHttp2Requests(),
+                           host.getWireBytes() / 1024.0, host.getBodyBytes() / 1024.0,
+                           millis(host.getMeanNanos()));
+            }
+        }
+    }
+
+    /**
+     * Writes the counters and latency percentiles to a JSON file.
+     *
+     * @param path File to write
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeJson(Path path) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writeJson(writer);
+        }
+    }
+
+    /**
+     * Writes the counters and latency percentiles as JSON.
+     *
+     * @param writer Destination; flushed but not closed
+     * @throws IOException if the JSON cannot be written
+     */
+    public static void writeJson(Writer writer) throws IOException {
+        JsonWriter json = new JsonWriter(writer);
+        json.setIndent("  ");
+        json.beginObject();
+        json.name("elapsed_ms").value(getElapsedMillis());
+
+        json.name("counters").beginObject();
+        for (Counter counter : Counter.values()) {
+            json.name(counter.label()).value(get(counter));
+        }
+        json.endObject();
+
+        json.name("latency_ms").beginObject();
+        for (Stage stage : Stage.values()) {
+            Histogram histogram = getHistogram(stage);
+            json.name(stage.label()).beginObject();
+            json.name("count").value(histogram.getCount());
+            json.name("mean").value(millis(histogram.getMean()));
+            json.name("p50").value(millis(histogram.getPercentile(50)));
+            json.name("p90").value(millis(histogram.getPercentile(90)));
+            json.name("p99").value(millis(histogram.getPercentile(99)));
+            json.name("max").value(millis(histogram.getMax()));
+            json.endObject();
+        }
+        json.endObject();
+
+        Histogram bytes = companyBytes;
+        json.name("bytes_per_company").beginObject();
+        json.name("count").value(bytes.getCount());
+        json.name("mean").value(bytes.getMean());
+        json.name("p50").value(bytes.getPercentile(50));
+        json.name("p90").value(bytes.getPercentile(90));
+        json.name("p99").value(bytes.getPercentile(99));
+        json.name("max").value(bytes.getMax());
+        json.endObject();
+
+        json.name("hosts").beginObject();
+        for (Map.Entry<String, HostStats> entry : getHostStats().entrySet()) {
+            HostStats host = entry.getValue();
+            json.name(entry.getKey()).beginObject();
+            json.name("requests").value(host.getRequests());
+            json.name("http2_requests").value(host.getHttp2Requests());
+            json.name("wire_bytes").value(host.getWireBytes());
+            json.name("decoded_bytes").value(host.getBodyBytes());
+            json.name("mean_ms").value(millis(host.getMeanNanos()));
+            json.endObject();
+        }
+        json.endObject();
+
+        json.endObject();
+        json.flush();
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1e4) / 100.0;
+    }
+
+    /**
+     * Request totals for one host. The HTTP/2 count shows whether requests were
+     * multiplexed; the wire and decoded sizes show what compression saved.
+     */
+    public static class HostStats {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder http2Requests = new LongAdder();
+        private final LongAdder wireBytes = new LongAdder();
+        private final LongAdder bodyBytes = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+
+        void record(String protocol, long wire, long body, long elapsedNanos) {
+            requests.increment();
+            if ("HTTP/2".equals(protocol)) {
+                http2Requests.increment();
+            }
+            wireBytes.add(wire);
+            bodyBytes.add(body);
+            totalNanos.add(elapsedNanos);
+        }
+
+        public long getRequests() {
+            return requests.sum();
+        }
+
+        public long getHttp2Requests() {
+            return http2Requests.sum();
+        }
+
+        public long getWireBytes() {
+            return wireBytes.sum();
+        }
+
+        public long getBodyBytes() {
+            return bodyBytes.sum();
+        }
+
+        public long getMeanNanos() {
+            long n = requests.sum();
+            return n == 0 ? 0 : totalNanos.sum() / n;
+        }
+    }
+
+    /**
+     * Concurrent histogram of non-negative values in any unit, such as nanoseconds
+     * or bytes. Buckets are log-linear: each power of two is split into eight equal
+     * sub-buckets, so a reported percentile is within 12.5% of the true value, or
+     * within the resolution for values below eight times it.
+     */
+    public static class Histogram {
+        private static final int SUB_BUCKET_BITS = 3;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        private static final int BUCKETS = SUB_BUCKETS * (64 - SUB_BUCKET_BITS + 1);
+
+        private final long resolution;
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        /**
+         * @param resolution Width of the smallest bucket, in the unit of the recorded
+         *                   values, e.g. {@link Metrics#LATENCY_RESOLUTION_NANOS}
+         */
+        public Histogram(long resolution) {
+            if (resolution < 1) {
+                throw new IllegalArgumentException("Resolution must be at least 1: " + resolution);
+            }
+            this.resolution = resolution;
+        }
+
+        public void record(long value) {
+            long clamped = Math.max(0, value);
+            buckets.incrementAndGet(bucketOf(clamped / resolution));
+            count.increment();
+            total.add(clamped);
+            max.accumulate(clamped);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getMean() {
+            long n = count.sum();
+            return n == 0 ? 0 : total.sum() / n;
+        }
+
+        public long getMax() {
+            return max.get();
+        }
+
+        /**
+         * Returns an upper estimate of the given percentile, capped at the recorded maximum.
+         *
+         * @param percentile Percentile between 0 and 100
+         */
+        public long getPercentile(double percentile) {
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                total += buckets.get(i);
+            }
+            if (total == 0) {
+                return 0;
+            }
+
+            long rank = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets.get(i);
+                if (seen >= rank) {
+                    return Math.min(upperBound(i) * resolution, getMax());
+                }
+            }
+            return getMax();
+        }
+
+        private static int bucketOf(long steps) {
+            if (steps < SUB_BUCKETS) {
+                return (int) steps;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(steps);
+            int shift = exponent - SUB_BUCKET_BITS;
+            int subBucket = (int) (steps >>> shift) & (SUB_BUCKETS - 1);
+            return SUB_BUCKETS + shift * SUB_BUCKETS + subBucket;
+        }
+
+        /**
+         * Returns a bucket's exclusive upper bound, in multiples of the resolution.
+         */
+        private static long upperBound(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket + 1;
+            }
+            int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+            int subBucket = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+            return (long) (SUB_BUCKETS + subBucket + 1) << shift;
+        }
+    }
+}
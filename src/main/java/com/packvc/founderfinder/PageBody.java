@@ -0,0 +1,167 @@
+package com.packvc.founderfinder;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Raw body of a fetched page together with the validators needed to revalidate it.
+ */
+public class PageBody {
+    private static final String DEFAULT_CHARSET = "UTF-8";
+    
+    // MediaWiki's page config in the head of every article view
+    private static final String REVISION_MARKER = "\"wgRevisionId\":";
+    private static final String CANONICAL_MARKER = "<link rel=\"canonical\" href=\"";
+    
+    private final String url;
+    private final byte[] body;
+    private final String charset;
+    private final String etag;
+    private final String lastModified;
+    private final boolean complete;
+    
+    /**
+     * @param url Final URL of the page after redirects
+     * @param body Uncompressed response body
+     * @param charset Response charset, or null if the server did not send one
+     * @param etag ETag header, or null
+     * @param lastModified Last-Modified header, or null
+     */
+    public PageBody(String url, byte[] body, String charset, String etag, String lastModified) {
+        this(url, body, charset, etag, lastModified, true);
+    }
+    
+    /**
+     * @param url Final URL of the page after redirects
+     * @param body Uncompressed response body, or the prefix of it that was read
+     * @param charset Response charset, or null if the server did not send one
+     * @param etag ETag header, or null
+     * @param lastModified Last-Modified header, or null
+     * @param complete False if the body is only a prefix of the page
+     */
+    public PageBody(String url, byte[] body, String charset, String etag, String lastModified, boolean complete) {
+        this.url = url;
+        this.body = body;
+        this.charset = charset != null ? charset : DEFAULT_CHARSET;
+        this.etag = etag;
+        this.lastModified = lastModified;
+        this.complete = complete;
+    }
+    
+    /**
+     * Parses the body into a Jsoup document.
+     * 
+     * @return Parsed document with the final URL as its base URI
+     * @throws IOException if the body cannot be decoded
+     */
+    public Document parse() throws IOException {
+        long start = System.nanoTime();
+        Document document = Jsoup.parse(new ByteArrayInputStream(body), charset, url);
+        Metrics.recordLatency(Metrics.Stage.PARSE, System.nanoTime() - start);
+        return document;
+    }
+    
+    public String getUrl() {
+        return url;
+    }
+    
+    public byte[] getBody() {
+        return body;
+    }
+    
+    public String getCharset() {
+        return charset;
+    }
+    
+    public String getEtag() {
+        return etag;
+    }
+    
+    public String getLastModified() {
+        return lastModified;
+    }
+    
+    /**
+     * Returns false if reading stopped early, after the part of the page that was needed.
+     * Such bodies are never cached.
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+    
+    /**
+     * Returns the revision of the article this page shows, read from MediaWiki's
+     * page config in the head, or 0 if the page has none.
+     */
+    public long getRevisionId() {
+        int marker = indexOf(REVISION_MARKER);
+        return marker == -1 ? 0 : parseDigits(body, marker + REVISION_MARKER.length());
+    }
+    
+    /**
+     * Returns the canonical link in the head, which names the target article when the
+     * page was reached through a redirect, or null if the page has none.
+     */
+    public String getCanonicalUrl() {
+        int marker = indexOf(CANONICAL_MARKER);
+        if (marker == -1) {
+            return null;
+        }
+        int start = marker + CANONICAL_MARKER.length();
+        for (int end = start; end < body.length; end++) {
+            if (body[end] == '"') {
+                return end > start ? new String(body, start, end - start, StandardCharsets.ISO_8859_1) : null;
+            }
+        }
+        return null;
+    }
+    
+    private int indexOf(String text) {
+        byte[] marker = text.getBytes(StandardCharsets.US_ASCII);
+        outer:
+        for (int i = 0; i <= body.length - marker.length; i++) {
+            for (int j = 0; j < marker.length; j++) {
+                if (body[i + j] != marker[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+    
+    /**
+     * Reads the revision from text containing MediaWiki's page config, such as the
+     * head script of a parsed article.
+     * 
+     * @return Revision, or 0 if the text has none
+     */
+    static long parseRevisionId(String text) {
+        int marker = text.indexOf(REVISION_MARKER);
+        if (marker == -1) {
+            return 0;
+        }
+        int start = marker + REVISION_MARKER.length();
+        String digits = text.substring(start, Math.min(start + 20, text.length()));
+        return parseDigits(digits.getBytes(StandardCharsets.US_ASCII), 0);
+    }
+    
+    private static long parseDigits(byte[] bytes, int start) {
+        long value = 0;
+        for (int i = start; i < bytes.length && bytes[i] >= '0' && bytes[i] <= '9'; i++) {
+            value = value * 10 + (bytes[i] - '0');
+        }
+        return value;
+    }
+    
+    /**
+     * Returns true if the page carries a validator usable for a conditional request.
+     */
+    public boolean hasValidator() {
+        return etag != null || lastModified != null;
+    }
+}
@@ -0,0 +1,31 @@
+package com.packvc.founderfinder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Strategy for turning a company name into a Wikipedia article.
+ * WikipediaFetcher.resolve delegates to the configured resolver.
+ */
+public interface PageResolver {
+    
+    /**
+     * Resolves a company name to its Wikipedia article.
+     * 
+     * @param companyName Name of the company
+     * @return Optional containing the resolved page if found; empty only when the
+     *         wiki has no usable article, so the result can be remembered
+     * @throws IOException if resolution could not finish, e.g. because requests failed
+     */
+    Optional<ResolvedPage> resolve(String companyName) throws IOException;
+    
+    /**
+     * Gives the resolver a chance to resolve upcoming names in bulk before
+     * {@link #resolve(String)} is called for each of them. The default does nothing.
+     * 
+     * @param companyNames Names that will be resolved soon
+     */
+    default void prepare(List<String> companyNames) {
+    }
+}
@@ -0,0 +1,80 @@
+package com.packvc.founderfinder;
+
+/**
+ * Token-bucket rate limiter shared by all workers.
+ * Tokens refill at a fixed rate up to the burst size; each request takes one token
+ * and callers block until their token is available.
+ */
+public class RateLimiter {
+
+    private final double permitsPerSecond;
+    private final double burst;
+    private final double nanosPerPermit;
+
+    private double storedPermits;
+    private long nextRefillNanos;
+
+    /**
+     * Creates a limiter that starts with a full bucket.
+     *
+     * @param permitsPerSecond Sustained request rate
+     * @param burst Maximum number of requests that may be issued back to back
+     */
+    public RateLimiter(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("Rate must be positive: " + permitsPerSecond);
+        }
+        if (burst < 1) {
+            throw new IllegalArgumentException("Burst must be at least 1: " + burst);
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.nanosPerPermit = 1_000_000_000.0 / permitsPerSecond;
+        this.storedPermits = burst;
+        this.nextRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Blocks until a request may be issued.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            Thread.sleep(waitNanos / 1_000_000, (int) (waitNanos % 1_000_000));
+        }
+    }
+
+    /**
+     * Reserves the next token and returns how long the caller must wait for it.
+     * Reservations are handed out in order, so waiting happens outside the lock.
+     */
+    private synchronized long reserve() {
+        long now = System.nanoTime();
+        if (now > nextRefillNanos) {
+            double refilled = (now - nextRefillNanos) / nanosPerPermit;
+            storedPermits = Math.min(burst, storedPermits + refilled);
+            nextRefillNanos = now;
+        }
+
+        if (storedPermits >= 1) {
+            storedPermits -= 1;
+            return 0;
+        }
+
+        // Borrow against the next token; later callers queue up behind us
+        double missing = 1 - storedPermits;
+        storedPermits = 0;
+        nextRefillNanos += (long) (missing * nanosPerPermit);
+        return nextRefillNanos - now;
+    }
+
+    public double getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    public int getBurst() {
+        return (int) burst;
+    }
+}
@@ -0,0 +1,51 @@
+package com.packvc.founderfinder;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Transport that passes every request to another transport and records what came
+ * back in a {@link ResponseArchive}. Complete responses and permanent errors such as
+ * 404 are recorded; 304s, 429s, 5xx and network failures are not, since replaying
+ * them would turn a passing condition into a permanent one.
+ * <p>
+ * Bodies are always read whole, so that the archive can answer a later run that
+ * reads further into a page than this one did.
+ */
+public class RecordingTransport implements HttpTransport {
+
+    private final HttpTransport delegate;
+    private final ResponseArchive archive;
+
+    /**
+     * @param delegate Transport that sends the requests
+     * @param archive Archive receiving the responses
+     */
+    public RecordingTransport(HttpTransport delegate, ResponseArchive archive) {
+        this.delegate = delegate;
+        this.archive = archive;
+    }
+
+    @Override
+    public Response get(String url, Map<String, String> headers, int timeoutMillis) throws IOException {
+        Response response;
+        try {
+            response = delegate.get(url, headers, timeoutMillis);
+        } catch (FetchException e) {
+            int status = e.getStatusCode();
+            if (status >= 400 && status < 500 && status != 429) {
+                archive.recordError(url, status);
+            }
+            throw e;
+        }
+        if (response.getStatusCode() != 304) {
+            archive.record(url, response);
+        }
+        return response;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+}
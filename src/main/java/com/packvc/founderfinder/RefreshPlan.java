@@ -0,0 +1,153 @@
+package com.packvc.founderfinder;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Results of an earlier run and the current revisions of their articles, so a
+ * refresh only re-extracts the articles that changed since.
+ * <p>
+ * A recorded company is reused as-is if its article's latest revision is the one
+ * its founders were extracted from, or if it had no article at all. Companies
+ * whose article changed are re-extracted from that article without resolving them
+ * again; companies that failed, were not recorded, or whose revision is unknown are
+ * looked up from scratch.
+ */
+public class RefreshPlan {
+
+    // MediaWiki's limit for titles per query without the apihighlimits right
+    private static final int MAX_TITLES_PER_REQUEST = 50;
+
+    private final Map<String, FounderResult> previous;
+    // Article title -> latest revision, for every recorded article that still exists
+    private final Map<String, Long> latestRevisions = new HashMap<>();
+
+    /**
+     * @param previous Results of the earlier run by company name
+     */
+    public RefreshPlan(Map<String, FounderResult> previous) {
+        this.previous = previous;
+    }
+
+    /**
+     * Looks up the latest revision of every recorded article, up to 50 titles per request.
+     *
+     * @return Number of recorded articles that changed or no longer exist
+     * @throws IOException if a batch cannot be fetched or its response is malformed
+     */
+    public int checkRevisions() throws IOException {
+        Map<String, Long> recorded = new LinkedHashMap<>();
+        for (FounderResult result : previous.values()) {
+            if (hasRevision(result)) {
+                recorded.putIfAbsent(result.getTitle(), result.getRevision());
+            }
+        }
+
+        List<String> titles = new ArrayList<>(recorded.keySet());
+        for (int start = 0; start < titles.size(); start += MAX_TITLES_PER_REQUEST) {
+            List<String> batch = titles.subList(start, Math.min(start + MAX_TITLES_PER_REQUEST, titles.size()));
+            try {
+                latestRevisions.putAll(fetchRevisions(batch));
+            } catch (JsonParseException | IllegalStateException | ClassCastException e) {
+                throw new IOException("Malformed revision response: " + e.getMessage(), e);
+            }
+        }
+
+        int changed = 0;
+        for (Map.Entry<String, Long> entry : recorded.entrySet()) {
+            Long latest = latestRevisions.get(entry.getKey());
+            if (latest == null || latest.longValue() != entry.getValue()) {
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Returns the earlier result for a company if it can be reused unchanged, or null.
+     */
+    public FounderResult unchanged(Company company) {
+        FounderResult result = previous.get(company.getName());
+        if (result == null || result.isFailed()) {
+            return null;
+        }
+        if (result.getTitle() == null && result.getFounders().isEmpty()) {
+            // No article last time; finding new articles is left to a full run
+            return result;
+        }
+        if (hasRevision(result)) {
+            Long latest = latestRevisions.get(result.getTitle());
+            if (latest != null && latest == result.getRevision()) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the title of a company's article if it changed since the earlier run, or null.
+     */
+    public String changedTitle(Company company) {
+        FounderResult result = previous.get(company.getName());
+        if (result == null || result.isFailed() || !hasRevision(result)) {
+            return null;
+        }
+        return unchanged(company) == null ? result.getTitle() : null;
+    }
+
+    public int size() {
+        return previous.size();
+    }
+
+    /**
+     * Queries the latest revision of a batch of titles. Titles that are missing or
+     * have become redirects are left out, so their companies are looked up again.
+     */
+    private static Map<String, Long> fetchRevisions(List<String> titles) throws IOException {
+        String url = WikipediaFetcher.getBaseUrl() + "/w/api.php?format=json&formatversion=2"
+                     + "&action=query&prop=info&titles="
+                     + URLEncoder.encode(String.join("|", titles), StandardCharsets.UTF_8);
+        // Revision metadata must come from the wiki, not a cached copy of an earlier answer
+        PageBody body = WikipediaFetcher.fetchBody(url, true);
+        JsonObject response = JsonParser.parseString(new String(body.getBody(), body.getCharset())).getAsJsonObject();
+        if (response.has("error")) {
+            throw new IOException("API error: " + response.getAsJsonObject("error").get("info"));
+        }
+
+        Map<String, Long> revisions = new HashMap<>();
+        if (!response.has("query")) {
+            return revisions;
+        }
+        Map<String, String> normalized = new HashMap<>();
+        JsonObject query = response.getAsJsonObject("query");
+        if (query.has("normalized")) {
+            for (JsonElement element : query.getAsJsonArray("normalized")) {
+                JsonObject entry = element.getAsJsonObject();
+                normalized.put(entry.get("to").getAsString(), entry.get("from").getAsString());
+            }
+        }
+
+        if (query.has("pages")) {
+            for (JsonElement element : query.getAsJsonArray("pages")) {
+                JsonObject page = element.getAsJsonObject();
+                if (page.has("missing") || page.has("invalid") || page.has("redirect") || !page.has("lastrevid")) {
+                    continue;
+                }
+                String title = page.get("title").getAsString();
+                revisions.put(normalized.getOrDefault(title, title), page.get("lastrevid").getAsLong());
+            }
+        }
+        return revisions;
+    }
+
+    private static boolean hasRevision(FounderResult result) {
+        return result.getTitle() != null && result.getRevision() > 0;
+    }
+}
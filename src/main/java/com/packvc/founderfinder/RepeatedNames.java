@@ -0,0 +1,83 @@
+package com.packvc.founderfinder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * The company names that occur more than once in an input file, found in one pass
+ * over it. Names seen so far go into a fixed-size Bloom filter rather than a set, so
+ * memory is held only for the names the filter reports as seen before: the repeated
+ * ones, plus the few it mistakes for repeated. Writers that keep the first result for
+ * a name only need to remember the names in this set.
+ */
+public class RepeatedNames {
+
+    // 64 Mbit (8 MB): about 1 false repeat per 100,000 names at a million names, 4% at ten million
+    private static final int FILTER_BITS = 1 << 26;
+    private static final int HASHES = 4;
+
+    private final Set<String> names;
+
+    private RepeatedNames(Set<String> names) {
+        this.names = names;
+    }
+
+    /**
+     * Reads an input file and collects the names that may occur in it more than once.
+     *
+     * @param input Input file, as read by {@link CompanyParser}
+     * @return Every repeated name, and possibly a few that are not
+     * @throws IOException if the file cannot be read
+     */
+    public static RepeatedNames scan(Path input) throws IOException {
+        long[] filter = new long[FILTER_BITS / Long.SIZE];
+        Set<String> repeated = new HashSet<>();
+        // Quiet, since the pass that processes the companies reports their problems
+        try (Stream<Company> companies = CompanyParser.stream(input, false, false)) {
+            Iterator<Company> iterator = companies.iterator();
+            while (iterator.hasNext()) {
+                String name = iterator.next().getName();
+                if (!add(filter, name)) {
+                    repeated.add(name);
+                }
+            }
+        }
+        return new RepeatedNames(repeated);
+    }
+
+    /**
+     * Sets the name's bits in the filter.
+     *
+     * @return True if any bit was clear, so the name was certainly not seen before
+     */
+    private static boolean add(long[] filter, String name) {
+        long hash = Shard.hash(name);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        boolean added = false;
+        for (int i = 0; i < HASHES; i++) {
+            int bit = (h1 + i * h2) & (FILTER_BITS - 1);
+            long mask = 1L << bit;
+            if ((filter[bit >>> 6] & mask) == 0) {
+                filter[bit >>> 6] |= mask;
+                added = true;
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Returns true if the name may occur more than once; false means it occurs once.
+     */
+    public boolean contains(String name) {
+        return names.contains(name);
+    }
+
+    public int size() {
+        return names.size();
+    }
+}
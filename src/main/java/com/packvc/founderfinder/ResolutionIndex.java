@@ -0,0 +1,387 @@
+package com.packvc.founderfinder;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persistent map from company to the Wikipedia article it resolved to, or to a
+ * "not found" marker. Lets later runs skip the direct-slug and search requests
+ * for companies that were already resolved.
+ * <p>
+ * Keys are the wiki, the normalized company name and the company website's domain.
+ * Found and not-found entries expire separately, since a missing article is more
+ * likely to appear than a found one is to move. The file is an append-only log of
+ * JSON records in which the last record for a key wins; {@link #compact} rewrites it
+ * with only the live entries.
+ */
+public class ResolutionIndex implements Closeable {
+
+    public static final Duration DEFAULT_TTL = Duration.ofDays(30);
+    public static final Duration DEFAULT_NEGATIVE_TTL = Duration.ofDays(7);
+
+    private static final Gson GSON = new Gson();
+
+    private final Path path;
+    private final long ttlMillis;
+    private final long negativeTtlMillis;
+    private final Map<String, Entry> entries;
+    private final BufferedWriter writer;
+
+    private ResolutionIndex(Path path, Duration ttl, Duration negativeTtl, Map<String, Entry> entries,
+                            BufferedWriter writer) {
+        this.path = path;
+        this.ttlMillis = ttl.toMillis();
+        this.negativeTtlMillis = negativeTtl.toMillis();
+        this.entries = entries;
+        this.writer = writer;
+    }
+
+    /**
+     * Opens an index, loading any existing entries.
+     *
+     * @param path Index file; created if missing
+     * @param ttl How long a found article is trusted
+     * @param negativeTtl How long a "not found" result is trusted
+     * @return Open index
+     * @throws IOException if the index cannot be read or created
+     */
+    public static ResolutionIndex open(Path path, Duration ttl, Duration negativeTtl) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        Map<String, Entry> entries = new ConcurrentHashMap<>(load(path));
+
+        boolean needsNewline = Files.exists(path) && Files.size(path) > 0 && !endsWithNewline(path);
+        BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        if (needsNewline) {
+            // Keep the next record off the end of a torn line
+            writer.newLine();
+        }
+        return new ResolutionIndex(path, ttl, negativeTtl, entries, writer);
+    }
+
+    /**
+     * Looks up a company.
+     *
+     * @param wiki Wiki base URL the result applies to
+     * @param companyName Company name as given in the input
+     * @param companyUrl Company website, or null
+     * @return Live entry for the company, or null if it is unknown or expired
+     */
+    public Entry lookup(String wiki, String companyName, String companyUrl) {
+        Entry entry = entries.get(keyFor(wiki, companyName, companyUrl));
+        if (entry == null) {
+            Metrics.increment(Metrics.Counter.INDEX_MISSES);
+            return null;
+        }
+        if (isExpired(entry, System.currentTimeMillis())) {
+            Metrics.increment(Metrics.Counter.INDEX_EXPIRED);
+            return null;
+        }
+        Metrics.increment(entry.isNotFound() ? Metrics.Counter.INDEX_NEGATIVE_HITS : Metrics.Counter.INDEX_HITS);
+        return entry;
+    }
+
+    /**
+     * Returns true if the index holds a live entry for a company, without counting a lookup.
+     */
+    public boolean contains(String wiki, String companyName, String companyUrl) {
+        Entry entry = entries.get(keyFor(wiki, companyName, companyUrl));
+        return entry != null && !isExpired(entry, System.currentTimeMillis());
+    }
+
+    /**
+     * Records the article a company resolved to.
+     *
+     * @throws IOException if the record cannot be written
+     */
+    public void recordFound(String wiki, String companyName, String companyUrl, String title) throws IOException {
+        record(wiki, companyName, companyUrl, title);
+    }
+
+    /**
+     * Records that a company has no usable article.
+     *
+     * @throws IOException if the record cannot be written
+     */
+    public void recordNotFound(String wiki, String companyName, String companyUrl) throws IOException {
+        record(wiki, companyName, companyUrl, null);
+    }
+
+    private synchronized void record(String wiki, String companyName, String companyUrl, String title)
+            throws IOException {
+        Record record = new Record();
+        record.wiki = wiki;
+        record.name = normalizeName(companyName);
+        record.domain = domainOf(companyUrl);
+        record.title = title;
+        record.at = System.currentTimeMillis();
+
+        writer.write(GSON.toJson(record));
+        writer.newLine();
+        writer.flush();
+        entries.put(record.key(), new Entry(title, record.at));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        long ttl = entry.isNotFound() ? negativeTtlMillis : ttlMillis;
+        return now - entry.getResolvedAtMillis() >= ttl;
+    }
+
+    /**
+     * Rewrites an index file with only the newest live record for each company,
+     * dropping superseded, expired and unreadable records. Must not run while a
+     * crawl has the index open, or that crawl's new records are lost.
+     *
+     * @param path Index file
+     * @param ttl How long a found article is kept
+     * @param negativeTtl How long a "not found" result is kept
+     * @return Number of records kept and dropped
+     * @throws IOException if the index cannot be read or rewritten
+     */
+    public static Compaction compact(Path path, Duration ttl, Duration negativeTtl) throws IOException {
+        long now = System.currentTimeMillis();
+        long ttlMillis = ttl.toMillis();
+        long negativeTtlMillis = negativeTtl.toMillis();
+
+        int total = 0;
+        Map<String, Record> latest = new LinkedHashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                total++;
+                Record record = parseRecord(line);
+                if (record != null) {
+                    // Re-inserting moves the key to the end, so the output stays in write order
+                    latest.remove(record.key());
+                    latest.put(record.key(), record);
+                }
+            }
+        }
+
+        Path temp = Files.createTempFile(path.toAbsolutePath().getParent(), path.getFileName().toString(), ".tmp");
+        int kept = 0;
+        try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            for (Record record : latest.values()) {
+                long recordTtl = record.title == null ? negativeTtlMillis : ttlMillis;
+                if (now - record.at < recordTtl) {
+                    out.write(GSON.toJson(record));
+                    out.newLine();
+                    kept++;
+                }
+            }
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return new Compaction(kept, total - kept);
+    }
+
+    private static Map<String, Entry> load(Path path) throws IOException {
+        Map<String, Entry> entries = new HashMap<>();
+        if (!Files.exists(path)) {
+            return entries;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Record record = line.isEmpty() ? null : parseRecord(line);
+                if (record != null) {
+                    entries.put(record.key(), new Entry(record.title, record.at));
+                }
+            }
+        }
+        return entries;
+    }
+
+    private static boolean endsWithNewline(Path path) throws IOException {
+        try (SeekableByteChannel channel = Files.newByteChannel(path)) {
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.position(channel.size() - 1);
+            channel.read(last);
+            return last.get(0) == '\n';
+        }
+    }
+
+    private static Record parseRecord(String line) {
+        try {
+            Record record = GSON.fromJson(line, Record.class);
+            if (record == null || record.wiki == null || record.name == null || record.at <= 0) {
+                return null;
+            }
+            return record;
+        } catch (JsonParseException e) {
+            return null;
+        }
+    }
+
+    private static String keyFor(String wiki, String companyName, String companyUrl) {
+        return key(wiki, normalizeName(companyName), domainOf(companyUrl));
+    }
+
+    private static String key(String wiki, String normalizedName, String domain) {
+        return wiki + '\t' + normalizedName + '\t' + (domain != null ? domain : "");
+    }
+
+    /**
+     * Normalizes a company name so trivially different spellings share an entry:
+     * Unicode compatibility forms folded, lower-cased, whitespace collapsed.
+     */
+    static String normalizeName(String companyName) {
+        String folded = Normalizer.normalize(companyName, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        StringBuilder normalized = new StringBuilder(folded.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = normalized.length() > 0;
+            } else {
+                if (pendingSpace) {
+                    normalized.append(' ');
+                    pendingSpace = false;
+                }
+                normalized.append(c);
+            }
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Returns the lower-cased host of a company website without a leading "www.",
+     * or null if there is no usable URL.
+     */
+    static String domainOf(String companyUrl) {
+        if (companyUrl == null || companyUrl.isEmpty()) {
+            return null;
+        }
+        try {
+            String host = new URI(companyUrl.trim()).getHost();
+            if (host == null) {
+                return null;
+            }
+            host = host.toLowerCase(Locale.ROOT);
+            return host.startsWith("www.") ? host.substring(4) : host;
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Article title for an article URL, e.g. "Apple Inc." for ".../wiki/Apple_Inc.",
+     * or null if the URL is not an article URL.
+     */
+    static String titleFromUrl(String articleUrl) {
+        try {
+            String path = new URI(articleUrl).getPath();
+            int wiki = path == null ? -1 : path.indexOf("/wiki/");
+            if (wiki == -1) {
+                return null;
+            }
+            return path.substring(wiki + "/wiki/".length()).replace('_', ' ');
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+
+    /**
+     * A resolution result.
+     */
+    public static class Entry {
+        private final String title;
+        private final long resolvedAtMillis;
+
+        Entry(String title, long resolvedAtMillis) {
+            this.title = title;
+            this.resolvedAtMillis = resolvedAtMillis;
+        }
+
+        /**
+         * Returns the article title, or null for a "not found" entry.
+         */
+        public String getTitle() {
+            return title;
+        }
+
+        public boolean isNotFound() {
+            return title == null;
+        }
+
+        public long getResolvedAtMillis() {
+            return resolvedAtMillis;
+        }
+    }
+
+    /**
+     * Outcome of {@link #compact}.
+     */
+    public static class Compaction {
+        private final int kept;
+        private final int dropped;
+
+        Compaction(int kept, int dropped) {
+            this.kept = kept;
+            this.dropped = dropped;
+        }
+
+        public int getKept() {
+            return kept;
+        }
+
+        /**
+         * Returns the number of superseded, expired or unreadable records removed.
+         */
+        public int getDropped() {
+            return dropped;
+        }
+    }
+
+    /**
+     * One line of the index file; a missing title marks a company without an article.
+     */
+    private static class Record {
+        String wiki;
+        String name;
+        String domain;
+        String title;
+        long at;
+
+        String key() {
+            return ResolutionIndex.key(wiki, name, domain);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.packvc.founderfinder;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+/**
+ * A Wikipedia article that a company name resolved to.
+ * Holds the final article URL and, when resolution already downloaded the article,
+ * the parsed document or raw body so it does not have to be fetched a second time.
+ * Pages resolved without a download are fetched lazily as a raw body, which lets
+ * extraction stream just the infobox instead of parsing the whole article. Raw bodies
+ * are read only up to the end of the infobox, see {@link ArticleProbe}.
+ */
+public class ResolvedPage {
+    private final String url;
+    private final boolean revalidate;
+    private Document document;
+    private PageBody body;
+    private boolean downloaded;
+    // Whether handing out what resolution downloaded has yet to be counted as a saved fetch
+    private boolean savedFetchPending;
+    
+    public ResolvedPage(String url, Document document) {
+        this(url, document, false);
+    }
+    
+    private ResolvedPage(String url, Document document, boolean revalidate) {
+        this.url = url;
+        this.document = document;
+        this.revalidate = revalidate;
+        this.savedFetchPending = document != null;
+    }
+    
+    /**
+     * Returns a page for an article known to have changed, whose cached copy must be
+     * revalidated even while it is fresh.
+     */
+    static ResolvedPage changed(String url) {
+        return new ResolvedPage(url, null, true);
+    }
+    
+    /**
+     * Returns a page whose body was already read during resolution.
+     */
+    static ResolvedPage downloaded(String url, PageBody body) {
+        ResolvedPage page = new ResolvedPage(url, null, false);
+        page.body = body;
+        page.downloaded = true;
+        page.savedFetchPending = true;
+        return page;
+    }
+    
+    public String getUrl() {
+        return url;
+    }
+    
+    /**
+     * Returns the article's canonical URL, so that companies whose names redirect to
+     * the same article can be recognised: the canonical link when the article was
+     * downloaded, the URL after redirects once the body was fetched, and otherwise
+     * the resolved URL.
+     */
+    public synchronized String getCanonicalUrl() {
+        if (document != null) {
+            Element canonical = document.selectFirst("link[rel=canonical]");
+            String href = canonical != null ? canonical.absUrl("href") : "";
+            if (!href.isEmpty()) {
+                return href;
+            }
+            if (!document.location().isEmpty()) {
+                return document.location();
+            }
+        }
+        if (body != null) {
+            String canonical = body.getCanonicalUrl();
+            return canonical != null ? canonical : body.getUrl();
+        }
+        return url;
+    }
+    
+    /**
+     * Returns true if the article was already downloaded during resolution.
+     */
+    public boolean hasDocument() {
+        return document != null;
+    }
+    
+    /**
+     * Returns true if the article was already downloaded during resolution, either
+     * as a parsed document or as a raw body.
+     */
+    public boolean isDownloaded() {
+        return document != null || downloaded;
+    }
+    
+    /**
+     * Returns the parsed article, fetching it only if resolution did not already download
+     * all of it. The first time a document or complete body from resolution is handed
+     * out, it counts as a saved fetch.
+     * 
+     * @return Parsed article document
+     * @throws IOException if the article has to be fetched and the fetch fails
+     */
+    public synchronized Document getDocument() throws IOException {
+        if (document != null) {
+            countSavedFetch();
+            return document;
+        }
+        if (body != null && !body.isComplete()) {
+            // Only the lead was read; a document has to show the whole article
+            savedFetchPending = false;
+            document = WikipediaFetcher.fetchBody(url, revalidate).parse();
+            return document;
+        }
+        document = getBody().parse();
+        return document;
+    }
+    
+    /**
+     * Returns the document downloaded during resolution, or null, without fetching
+     * the article or counting a saved fetch.
+     */
+    synchronized Document peekDocument() {
+        return document;
+    }
+    
+    /**
+     * Returns the infobox of the article downloaded during resolution, or null if it
+     * was not downloaded or has no infobox, without fetching anything.
+     */
+    synchronized Element peekInfobox() {
+        if (document != null) {
+            return document.selectFirst("table.infobox");
+        }
+        if (body == null) {
+            return null;
+        }
+        try {
+            InfoboxStreamExtractor.Result result = InfoboxStreamExtractor.scan(
+                new ByteArrayInputStream(body.getBody()), Charset.forName(body.getCharset()), false);
+            if (result.getInfoboxHtml() == null) {
+                return null;
+            }
+            return Jsoup.parseBodyFragment(result.getInfoboxHtml(), body.getUrl()).selectFirst("table.infobox");
+        } catch (IOException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Returns the raw article body, fetching it on first use. The body may end
+     * after the infobox; see {@link PageBody#isComplete()}. The first time a body
+     * from resolution is handed out, it counts as a saved fetch.
+     * 
+     * @return Article body
+     * @throws IOException if the fetch fails
+     */
+    public synchronized PageBody getBody() throws IOException {
+        if (body == null) {
+            body = WikipediaFetcher.fetchBody(url, revalidate, ArticleProbe::new);
+        } else {
+            countSavedFetch();
+        }
+        return body;
+    }
+    
+    private void countSavedFetch() {
+        if (savedFetchPending) {
+            savedFetchPending = false;
+            WikipediaFetcher.recordSavedFetch();
+        }
+    }
+    
+    /**
+     * Returns the revision of the downloaded article, or 0 if it has not been
+     * downloaded or does not say.
+     */
+    synchronized long getRevisionId() {
+        if (body != null) {
+            return body.getRevisionId();
+        }
+        if (document != null) {
+            for (Element script : document.select("head script")) {
+                long revision = PageBody.parseRevisionId(script.data());
+                if (revision != 0) {
+                    return revision;
+                }
+            }
+        }
+        return 0;
+    }
+    
+    @Override
+    public String toString() {
+        return url;
+    }
+}
@@ -0,0 +1,290 @@
+package com.packvc.founderfinder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * On-disk archive of recorded Wikipedia responses, replayed by a local stand-in for
+ * benchmarks and fixtures. Responses are keyed by request target (path and query),
+ * not by host, so an archive recorded against en.wikipedia.org answers the same
+ * requests sent to any base URL.
+ * <p>
+ * Each target has a small properties file holding the status, redirect location and
+ * headers; bodies are stored gzip-compressed under the SHA-256 of their content, so
+ * a page fetched many times, or served for many targets, is kept once.
+ */
+public class ResponseArchive {
+
+    private static final String META_SUFFIX = ".meta";
+    private static final String BODY_SUFFIX = ".body.gz";
+    private static final String DEFAULT_CONTENT_TYPE = "text/html; charset=UTF-8";
+
+    private final Path directory;
+    private final Path bodies;
+
+    /**
+     * Opens (or creates) an archive directory.
+     *
+     * @param directory Directory holding the archive
+     * @throws IOException if the directory cannot be created
+     */
+    public ResponseArchive(Path directory) throws IOException {
+        this.directory = directory;
+        this.bodies = directory.resolve("bodies");
+        Files.createDirectories(bodies);
+    }
+
+    /**
+     * Records a response. When the request was redirected, the requested target is
+     * recorded as a redirect to the final one, which holds the body.
+     * Failures are logged and otherwise ignored, so recording never fails a run.
+     *
+     * @param url URL that was requested
+     * @param response Complete response with a 2xx status
+     */
+    public void record(String url, HttpTransport.Response response) {
+        String target = targetOf(url);
+        String finalTarget = targetOf(response.getUrl());
+        String contentType = response.header("Content-Type");
+        try {
+            String bodyHash = storeBody(response.getBody());
+            store(new Entry(finalTarget, response.getStatusCode(), null,
+                            contentType != null ? contentType : DEFAULT_CONTENT_TYPE,
+                            response.header("ETag"), response.header("Last-Modified"), bodyHash));
+            if (!finalTarget.equals(target)) {
+                store(new Entry(target, 302, finalTarget, null, null, null, null));
+            }
+        } catch (IOException e) {
+            Log.warn("  Warning: Could not record " + url + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Records an error status without a body, e.g. the 404 of a missing article.
+     *
+     * @param url URL that was requested
+     * @param statusCode Status the server answered with
+     */
+    public void recordError(String url, int statusCode) {
+        try {
+            store(new Entry(targetOf(url), statusCode, null, null, null, null, null));
+        } catch (IOException e) {
+            Log.warn("  Warning: Could not record " + url + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stores an entry, replacing any previous entry for its target.
+     *
+     * @param entry Entry whose body, if any, was stored with {@link #storeBody}
+     * @throws IOException if the entry cannot be written
+     */
+    public void store(Entry entry) throws IOException {
+        Properties meta = new Properties();
+        meta.setProperty("target", entry.target);
+        meta.setProperty("status", Integer.toString(entry.statusCode));
+        setIfPresent(meta, "location", entry.location);
+        setIfPresent(meta, "contentType", entry.contentType);
+        setIfPresent(meta, "etag", entry.etag);
+        setIfPresent(meta, "lastModified", entry.lastModified);
+        setIfPresent(meta, "body", entry.bodyHash);
+
+        Path metaFile = directory.resolve(sha256(entry.target.getBytes(StandardCharsets.UTF_8)) + META_SUFFIX);
+        Path temp = Files.createTempFile(directory, metaFile.getFileName().toString(), ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            meta.store(writer, null);
+        }
+        Files.move(temp, metaFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Stores a decoded body unless the same content is already archived.
+     *
+     * @return Hash to reference the body from an {@link Entry}
+     * @throws IOException if the body cannot be written
+     */
+    public String storeBody(byte[] body) throws IOException {
+        String hash = sha256(body);
+        Path bodyFile = bodies.resolve(hash + BODY_SUFFIX);
+        if (!Files.exists(bodyFile)) {
+            Path temp = Files.createTempFile(bodies, hash, ".tmp");
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+                out.write(body);
+            }
+            Files.move(temp, bodyFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        return hash;
+    }
+
+    /**
+     * Reads every entry in the archive. Unreadable entries are skipped.
+     *
+     * @throws IOException if the archive directory cannot be listed
+     */
+    public List<Entry> entries() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + META_SUFFIX)) {
+            for (Path metaFile : files) {
+                Properties meta = new Properties();
+                try (Reader reader = Files.newBufferedReader(metaFile, StandardCharsets.UTF_8)) {
+                    meta.load(reader);
+                    entries.add(new Entry(
+                        meta.getProperty("target"),
+                        Integer.parseInt(meta.getProperty("status")),
+                        meta.getProperty("location"),
+                        meta.getProperty("contentType"),
+                        meta.getProperty("etag"),
+                        meta.getProperty("lastModified"),
+                        meta.getProperty("body")));
+                } catch (IOException | RuntimeException e) {
+                    Log.warn("  Warning: Skipping unreadable archive entry " + metaFile.getFileName() + ": " + e.getMessage());
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Returns an entry's body exactly as stored, gzip-compressed, ready to be sent
+     * with Content-Encoding: gzip.
+     *
+     * @throws IOException if the entry has no body or it cannot be read
+     */
+    public byte[] readCompressedBody(Entry entry) throws IOException {
+        if (entry.bodyHash == null) {
+            throw new NoSuchFileException("No body recorded for " + entry.target);
+        }
+        return Files.readAllBytes(bodies.resolve(entry.bodyHash + BODY_SUFFIX));
+    }
+
+    /**
+     * Returns an entry's decoded body.
+     *
+     * @throws IOException if the entry has no body or it cannot be read
+     */
+    public byte[] readBody(Entry entry) throws IOException {
+        if (entry.bodyHash == null) {
+            throw new NoSuchFileException("No body recorded for " + entry.target);
+        }
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(bodies.resolve(entry.bodyHash + BODY_SUFFIX)))) {
+            return in.readAllBytes();
+        }
+    }
+
+    /**
+     * Returns the request target of a URL: its raw path and query, as sent on the
+     * request line, so that the key does not depend on the host.
+     */
+    public static String targetOf(String url) {
+        try {
+            URI uri = new URI(url.trim());
+            String path = uri.getRawPath();
+            String target = path == null || path.isEmpty() ? "/" : path;
+            return uri.getRawQuery() != null ? target + "?" + uri.getRawQuery() : target;
+        } catch (URISyntaxException e) {
+            return url.trim();
+        }
+    }
+
+    private static void setIfPresent(Properties meta, String key, String value) {
+        if (value != null) {
+            meta.setProperty(key, value);
+        }
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(data);
+            StringBuilder hex = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16));
+                hex.append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * One recorded response.
+     */
+    public static class Entry {
+        private final String target;
+        private final int statusCode;
+        private final String location;
+        private final String contentType;
+        private final String etag;
+        private final String lastModified;
+        private final String bodyHash;
+
+        /**
+         * @param target Request target, as returned by {@link #targetOf}
+         * @param statusCode HTTP status code
+         * @param location Target redirected to, or null
+         * @param contentType Content-Type header, or null
+         * @param etag ETag header, or null
+         * @param lastModified Last-Modified header, or null
+         * @param bodyHash Hash returned by {@link #storeBody}, or null for no body
+         */
+        public Entry(String target, int statusCode, String location, String contentType,
+                     String etag, String lastModified, String bodyHash) {
+            this.target = target;
+            this.statusCode = statusCode;
+            this.location = location;
+            this.contentType = contentType;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.bodyHash = bodyHash;
+        }
+
+        public String getTarget() {
+            return target;
+        }
+
+        public int getStatusCode() {
+            return statusCode;
+        }
+
+        /**
+         * Returns the target a redirect points to, or null if this is not a redirect.
+         */
+        public String getLocation() {
+            return location;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public String getLastModified() {
+            return lastModified;
+        }
+
+        public boolean hasBody() {
+            return bodyHash != null;
+        }
+    }
+}
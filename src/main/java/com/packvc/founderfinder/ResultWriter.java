@@ -0,0 +1,243 @@
+package com.packvc.founderfinder;
+
+import com.google.gson.Strictness;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * Streams company results to the output file as they are produced.
+ * Output goes to a temporary file next to the target and is moved into place on close,
+ * so readers never see a half-written file. If a company name appears more than once,
+ * only its first result is written; given the input's {@link RepeatedNames}, only those
+ * names are remembered rather than every name written. A {@link FounderStore} of the
+ * same results can be written alongside the output.
+ */
+public abstract class ResultWriter implements Closeable {
+
+    /**
+     * Supported output formats.
+     */
+    public enum Format {
+        /** One pretty-printed JSON object mapping company name to founders. */
+        JSON,
+        /** One {"company": ..., "founders": [...]} object per line. */
+        NDJSON;
+
+        /**
+         * Parses a format name case-insensitively.
+         *
+         * @throws IllegalArgumentException if the name is not a known format
+         */
+        public static Format fromName(String name) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(name)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unknown output format: " + name);
+        }
+    }
+
+    private final Path output;
+    private final Path temp;
+    private final Set<String> written = new HashSet<>();
+    private RepeatedNames repeated;
+    private FounderStore.Builder store;
+    private Path storePath;
+    protected final Writer out;
+    protected final JsonWriter json;
+
+    private ResultWriter(Path output, Path temp, Writer writer) {
+        this.output = output;
+        this.temp = temp;
+        this.out = writer;
+        this.json = new JsonWriter(writer);
+    }
+
+    /**
+     * Opens a writer for the given output file.
+     *
+     * @param format Output format
+     * @param output Output file
+     * @param echo If true, everything written to the file is also printed to stdout
+     * @return Open writer
+     * @throws IOException if the temporary output file cannot be created
+     */
+    public static ResultWriter open(Format format, Path output, boolean echo) throws IOException {
+        Path absoluteOutput = output.toAbsolutePath();
+        Path temp = Files.createTempFile(absoluteOutput.getParent(), absoluteOutput.getFileName().toString(), ".tmp");
+
+        Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8);
+        if (echo) {
+            writer = new TeeWriter(writer, new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)));
+        }
+
+        ResultWriter resultWriter = format == Format.NDJSON
+            ? new NdjsonWriter(output, temp, writer)
+            : new JsonObjectWriter(output, temp, writer);
+        resultWriter.begin();
+        return resultWriter;
+    }
+
+    /**
+     * Also writes every result to a founder store when the output is closed.
+     *
+     * @param path Store file
+     */
+    public synchronized void writeStoreTo(Path path) {
+        this.store = new FounderStore.Builder();
+        this.storePath = path;
+    }
+
+    /**
+     * Remembers only the names that can repeat, instead of every name written.
+     *
+     * @param names Repeated names of the input whose results are written
+     */
+    public synchronized void deduplicate(RepeatedNames names) {
+        this.repeated = names;
+    }
+
+    /**
+     * Writes the result for one company.
+     *
+     * @param companyName Company name
+     * @param founders Founders found for the company
+     * @throws IOException if the output cannot be written
+     */
+    public synchronized void write(String companyName, List<String> founders) throws IOException {
+        if ((repeated != null && !repeated.contains(companyName)) || written.add(companyName)) {
+            writeRecord(companyName, founders);
+            if (store != null) {
+                store.add(companyName, founders);
+            }
+        }
+    }
+
+    /**
+     * Finishes the output and moves it into place, then writes the store if there is one.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        end();
+        out.close();
+        Files.move(temp, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        if (store != null) {
+            store.write(storePath);
+        }
+    }
+
+    protected abstract void begin() throws IOException;
+
+    protected abstract void writeRecord(String companyName, List<String> founders) throws IOException;
+
+    protected abstract void end() throws IOException;
+
+    protected void writeFounders(List<String> founders) throws IOException {
+        json.beginArray();
+        for (String founder : founders) {
+            json.value(founder);
+        }
+        json.endArray();
+    }
+
+    /**
+     * Pretty-printed JSON object, matching the original founders.json layout.
+     */
+    private static class JsonObjectWriter extends ResultWriter {
+        JsonObjectWriter(Path output, Path temp, Writer writer) {
+            super(output, temp, writer);
+            json.setIndent("  ");
+        }
+
+        @Override
+        protected void begin() throws IOException {
+            json.beginObject();
+        }
+
+        @Override
+        protected void writeRecord(String companyName, List<String> founders) throws IOException {
+            json.name(companyName);
+            writeFounders(founders);
+        }
+
+        @Override
+        protected void end() throws IOException {
+            json.endObject();
+            json.flush();
+        }
+    }
+
+    /**
+     * Newline-delimited JSON, one company per line, so downstream jobs can split the file.
+     */
+    private static class NdjsonWriter extends ResultWriter {
+        NdjsonWriter(Path output, Path temp, Writer writer) {
+            super(output, temp, writer);
+            // Lenient mode allows one top-level value per line
+            json.setStrictness(Strictness.LENIENT);
+        }
+
+        @Override
+        protected void begin() {
+        }
+
+        @Override
+        protected void writeRecord(String companyName, List<String> founders) throws IOException {
+            json.beginObject();
+            json.name("company").value(companyName);
+            json.name("founders");
+            writeFounders(founders);
+            json.endObject();
+            // JsonWriter writes straight through, so the newline lands after the record
+            out.write('\n');
+        }
+
+        @Override
+        protected void end() throws IOException {
+            out.flush();
+        }
+    }
+
+    /**
+     * Writer that copies everything to the file and to stdout; stdout is flushed but never closed.
+     */
+    private static class TeeWriter extends Writer {
+        private final Writer primary;
+        private final Writer echo;
+
+        TeeWriter(Writer primary, Writer echo) {
+            this.primary = primary;
+            this.echo = echo;
+        }
+
+        @Override
+        public void write(char[] buffer, int offset, int length) throws IOException {
+            primary.write(buffer, offset, length);
+            echo.write(buffer, offset, length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            primary.flush();
+            echo.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            primary.close();
+            echo.write(System.lineSeparator());
+            echo.flush();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.packvc.founderfinder;
+
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides whether a failed request is worth retrying and how long to wait first.
+ * Client errors such as 404 fail immediately. Server errors, throttling and network
+ * failures are retried after the server's Retry-After delay when it sends one, and
+ * otherwise after a full-jitter exponential backoff so that workers failing together
+ * do not retry in lockstep.
+ */
+public class RetryPolicy {
+
+    /**
+     * How a request failed.
+     */
+    public enum FailureKind {
+        /** 4xx other than 408 and 429: the request itself is wrong, retrying will not help. */
+        CLIENT_ERROR,
+        /** 5xx or 408: the server had a problem and may recover. */
+        SERVER_ERROR,
+        /** 429: the server asked us to slow down. */
+        THROTTLED,
+        /** No HTTP response at all: timeouts, resets, DNS failures. */
+        NETWORK
+    }
+
+    private static final int DEFAULT_MAX_ATTEMPTS = 3;
+    private static final long DEFAULT_BASE_DELAY_MS = 500;
+    private static final long DEFAULT_MAX_DELAY_MS = 30_000;
+
+    // Upper bound on a server-requested delay, so a bogus header cannot stall the run
+    private static final long MAX_RETRY_AFTER_MS = 120_000;
+
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+
+    /**
+     * @param maxAttempts Total attempts per request, including the first
+     * @param baseDelayMillis Backoff ceiling for the first retry; doubles with each attempt
+     * @param maxDelayMillis Largest backoff ceiling
+     */
+    public RetryPolicy(int maxAttempts, long baseDelayMillis, long maxDelayMillis) {
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    /**
+     * Returns the policy used by default: 3 attempts, backoff ceilings of 500ms, 1s, 2s, ... up to 30s.
+     */
+    public static RetryPolicy defaults() {
+        return new RetryPolicy(DEFAULT_MAX_ATTEMPTS, DEFAULT_BASE_DELAY_MS, DEFAULT_MAX_DELAY_MS);
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Classifies a failed request.
+     */
+    public static FailureKind classify(IOException failure) {
+        if (!(failure instanceof FetchException)) {
+            return FailureKind.NETWORK;
+        }
+        int status = ((FetchException) failure).getStatusCode();
+        if (status == 429) {
+            return FailureKind.THROTTLED;
+        }
+        if (status == 408 || status >= 500) {
+            return FailureKind.SERVER_ERROR;
+        }
+        return FailureKind.CLIENT_ERROR;
+    }
+
+    /**
+     * Returns true if the failure says something about the host's health, and should
+     * therefore count towards tripping its circuit breaker.
+     */
+    public static boolean isHostFailure(IOException failure) {
+        return classify(failure) != FailureKind.CLIENT_ERROR;
+    }
+
+    /**
+     * Returns true if another attempt should be made after the given failed attempt.
+     *
+     * @param attempt Number of the attempt that failed, starting at 1
+     * @param failure Why it failed
+     */
+    public boolean shouldRetry(int attempt, IOException failure) {
+        return attempt < maxAttempts && classify(failure) != FailureKind.CLIENT_ERROR;
+    }
+
+    /**
+     * Returns how long to wait before the next attempt.
+     *
+     * @param attempt Number of the attempt that failed, starting at 1
+     * @param failure Why it failed
+     * @return Delay in milliseconds
+     */
+    public long delayMillis(int attempt, IOException failure) {
+        long retryAfter = retryAfterMillis(failure);
+        if (retryAfter >= 0) {
+            return retryAfter;
+        }
+        // Full jitter: a uniform delay between zero and the exponential ceiling
+        long ceiling = Math.min(maxDelayMillis, baseDelayMillis << Math.min(attempt - 1, 30));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    /**
+     * Returns the capped Retry-After delay carried by a failure, or -1 if there is none.
+     */
+    static long retryAfterMillis(IOException failure) {
+        if (failure instanceof FetchException) {
+            long retryAfter = ((FetchException) failure).getRetryAfterMillis();
+            if (retryAfter >= 0) {
+                return Math.min(retryAfter, MAX_RETRY_AFTER_MS);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Parses a Retry-After header, given either as delay seconds or as an HTTP date.
+     *
+     * @param value Header value, or null
+     * @return Delay in milliseconds, or -1 if the header is absent or malformed
+     */
+    public static long parseRetryAfter(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return -1;
+        }
+        String trimmed = value.trim();
+        try {
+            long seconds = Long.parseLong(trimmed);
+            return seconds < 0 ? -1 : Math.min(seconds, MAX_RETRY_AFTER_MS / 1000) * 1000;
+        } catch (NumberFormatException e) {
+            // Not delay-seconds; try an HTTP date
+        }
+        try {
+            ZonedDateTime date = ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME);
+            return Math.max(0, date.toInstant().toEpochMilli() - System.currentTimeMillis());
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.packvc.founderfinder;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * One of N slices of the input, for running several processes (or machines, each
+ * with its own rate limit) over the same company list. A company belongs to the
+ * shard chosen by a jump consistent hash of its normalized name, so:
+ * <ul>
+ *   <li>every process agrees on the split without coordinating, given the same input;</li>
+ *   <li>repeated entries for a company land in the same shard and are still deduplicated;</li>
+ *   <li>going from N to N+1 shards moves only about 1/(N+1) of the companies, all of
+ *       them to the new shard.</li>
+ * </ul>
+ * Shards are numbered from 1, as in {@code --shard 2/4}.
+ */
+public class Shard {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final int index;
+    private final int count;
+
+    /**
+     * @param index Shard number, from 1 to count
+     * @param count Number of shards
+     * @throws IllegalArgumentException if the index is out of range
+     */
+    public Shard(int index, int count) {
+        if (count < 1 || index < 1 || index > count) {
+            throw new IllegalArgumentException("Shard must be i/N with 1 <= i <= N: " + index + "/" + count);
+        }
+        this.index = index;
+        this.count = count;
+    }
+
+    /**
+     * Parses a shard written as "i/N", such as "2/4".
+     *
+     * @throws IllegalArgumentException if the text is not of that form
+     */
+    public static Shard parse(String spec) {
+        int slash = spec.indexOf('/');
+        if (slash == -1) {
+            throw new IllegalArgumentException("Shard must be i/N, such as 2/4: " + spec);
+        }
+        try {
+            return new Shard(Integer.parseInt(spec.substring(0, slash).trim()),
+                             Integer.parseInt(spec.substring(slash + 1).trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Shard must be i/N, such as 2/4: " + spec);
+        }
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Returns true if the company is processed by this shard.
+     */
+    public boolean owns(Company company) {
+        return shardOf(company.getName(), count) == index;
+    }
+
+    /**
+     * Returns the shard, from 1 to count, that a company name belongs to.
+     */
+    public static int shardOf(String companyName, int count) {
+        return jumpHash(hash(ResolutionIndex.normalizeName(companyName)), count) + 1;
+    }
+
+    /**
+     * Returns this shard's version of a file name; see {@link #path(String, int, int)}.
+     */
+    public String path(String file) {
+        return path(file, index, count);
+    }
+
+    /**
+     * Inserts "-i-of-N" before the first dot of a file name, so "founders.json" becomes
+     * "founders-2-of-4.json" and its journal "founders.json.journal" becomes
+     * "founders-2-of-4.json.journal".
+     */
+    public static String path(String file, int index, int count) {
+        String suffix = "-" + index + "-of-" + count;
+        int nameStart = Math.max(file.lastIndexOf('/'), file.lastIndexOf('\\')) + 1;
+        int dot = file.indexOf('.', nameStart + 1);
+        return dot == -1 ? file + suffix : file.substring(0, dot) + suffix + file.substring(dot);
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes, finished with MurmurHash3's mixer so that
+     * similar names spread over the whole range.
+     */
+    static long hash(String text) {
+        long hash = FNV_OFFSET;
+        for (byte b : text.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * Lamping and Veach's jump consistent hash: maps a key to one of the buckets so
+     * that adding a bucket moves keys only into the new one.
+     */
+    static int jumpHash(long key, int buckets) {
+        long bucket = -1;
+        long next = 0;
+        while (next < buckets) {
+            bucket = next;
+            key = key * 2862933555777941757L + 1;
+            next = (long) ((bucket + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) bucket;
+    }
+
+    @Override
+    public String toString() {
+        return index + "/" + count;
+    }
+}
@@ -0,0 +1,200 @@
+package com.packvc.founderfinder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Merges the journals of a sharded run back into one output in input order.
+ * The input is read again and each company's record is taken from the journal of
+ * the shard it hashes to. Every shard records its companies in input order, so each
+ * journal is read once, front to back, in step with the input.
+ * <p>
+ * Problems are reported rather than papered over:
+ * <ul>
+ *   <li>missing: a shard's journal ends before its companies do, because the shard
+ *       was interrupted or never ran;</li>
+ *   <li>mismatched: a shard recorded a different company than the input has next, so it
+ *       ran on another input or shard count; the rest of that shard counts as missing;</li>
+ *   <li>extra: a shard recorded more companies than the input gives it;</li>
+ *   <li>conflicting: entries with the same name got different founders, such as two
+ *       companies sharing a name; the output keeps the first, as an unsharded run does.</li>
+ * </ul>
+ * The merged journal covers the companies up to the first missing one, so a merge
+ * without gaps can be refreshed or resumed like an unsharded run.
+ * <p>
+ * Only the current record of each shard is held in memory. Finding conflicts needs the
+ * first founders of each repeated name, so the input is scanned once beforehand for
+ * {@link RepeatedNames} and only those names are remembered.
+ */
+public class ShardMerger {
+
+    // Individual conflicts logged before only the count is kept
+    private static final int MAX_REPORTED_CONFLICTS = 20;
+
+    /**
+     * Counts of merged companies and of each kind of problem.
+     */
+    public static class Report {
+        private int merged;
+        private int failed;
+        private int missing;
+        private int mismatched;
+        private int extra;
+        private int conflicting;
+
+        public int getMerged() {
+            return merged;
+        }
+
+        /**
+         * Returns the merged companies whose lookup failed in their shard.
+         */
+        public int getFailed() {
+            return failed;
+        }
+
+        public int getMissing() {
+            return missing;
+        }
+
+        public int getMismatched() {
+            return mismatched;
+        }
+
+        public int getExtra() {
+            return extra;
+        }
+
+        public int getConflicting() {
+            return conflicting;
+        }
+
+        /**
+         * Returns true if every company in the input came from the shard it belongs to
+         * and no shard recorded anything else. Conflicting names do not count.
+         */
+        public boolean isComplete() {
+            return missing == 0 && mismatched == 0 && extra == 0;
+        }
+    }
+
+    /**
+     * Merges the shard journals next to a journal path into an output and that journal.
+     *
+     * @param input Input file the shards were run on
+     * @param shardCount Number of shards
+     * @param journalPath Journal of the merged run; shard i of N used this name with
+     *                    "-i-of-N" inserted, see {@link Shard#path(String, int, int)}
+     * @param output Writer receiving the merged results
+     * @return Report of the merge
+     * @throws IOException if a file cannot be read or written
+     */
+    public static Report merge(Path input, int shardCount, Path journalPath, ResultWriter output) throws IOException {
+        Report report = new Report();
+        List<CheckpointJournal.Reader> shards = new ArrayList<>(shardCount);
+        // Shards whose remaining records are no longer trusted
+        boolean[] stopped = new boolean[shardCount];
+        int[] missing = new int[shardCount];
+        String[] firstMissing = new String[shardCount];
+
+        try {
+            for (int i = 0; i < shardCount; i++) {
+                Path shardJournal = Paths.get(Shard.path(journalPath.toString(), i + 1, shardCount));
+                if (Files.exists(shardJournal)) {
+                    shards.add(CheckpointJournal.read(shardJournal));
+                } else {
+                    Log.warn("✗ Shard " + (i + 1) + "/" + shardCount + " has no journal: " + shardJournal);
+                    shards.add(null);
+                    stopped[i] = true;
+                }
+            }
+
+            RepeatedNames repeated = RepeatedNames.scan(input);
+            output.deduplicate(repeated);
+            Map<String, List<String>> firstFounders = new HashMap<>();
+            boolean gap = false;
+            try (CheckpointJournal merged = CheckpointJournal.open(journalPath, false);
+                 Stream<Company> companies = CompanyParser.stream(input)) {
+                Iterator<Company> iterator = companies.iterator();
+                while (iterator.hasNext()) {
+                    Company company = iterator.next();
+                    String name = company.getName();
+                    int shard = Shard.shardOf(name, shardCount) - 1;
+
+                    FounderResult result = null;
+                    if (!stopped[shard]) {
+                        CheckpointJournal.Reader journal = shards.get(shard);
+                        if (!journal.next()) {
+                            stopped[shard] = true;
+                        } else if (!journal.getCompany().equals(name)) {
+                            report.mismatched++;
+                            stopped[shard] = true;
+                            Log.warn("✗ Shard " + (shard + 1) + "/" + shardCount + " recorded '" + journal.getCompany() +
+                                     "' where the input has '" + name + "' (record " + journal.getCount() +
+                                     "); was it run on another input or shard count?");
+                        } else {
+                            result = journal.getResult();
+                        }
+                    }
+                    if (result == null) {
+                        report.missing++;
+                        if (missing[shard]++ == 0) {
+                            firstMissing[shard] = name;
+                        }
+                        gap = true;
+                        continue;
+                    }
+
+                    if (!gap) {
+                        merged.append(name, result);
+                    }
+                    report.merged++;
+                    if (result.isFailed()) {
+                        report.failed++;
+                    }
+                    List<String> first = repeated.contains(name) ? firstFounders.putIfAbsent(name, result.getFounders()) : null;
+                    if (first != null && !first.equals(result.getFounders())) {
+                        if (report.conflicting++ < MAX_REPORTED_CONFLICTS) {
+                            Log.warn("  Conflict: '" + name + "' has founders " + first + " and " + result.getFounders() +
+                                     "; keeping the first");
+                        }
+                    }
+                    output.write(name, result.getFounders());
+                }
+            }
+
+            for (int i = 0; i < shardCount; i++) {
+                if (missing[i] > 0) {
+                    Log.warn("✗ Shard " + (i + 1) + "/" + shardCount + " is missing " + missing[i] +
+                             " companies, starting with '" + firstMissing[i] + "'");
+                }
+                if (!stopped[i]) {
+                    int extra = 0;
+                    while (shards.get(i).next()) {
+                        extra++;
+                    }
+                    if (extra > 0) {
+                        report.extra += extra;
+                        Log.warn("✗ Shard " + (i + 1) + "/" + shardCount + " recorded " + extra +
+                                 " companies beyond those the input gives it");
+                    }
+                }
+            }
+            if (report.conflicting > MAX_REPORTED_CONFLICTS) {
+                Log.warn("  ... and " + (report.conflicting - MAX_REPORTED_CONFLICTS) + " more conflicts");
+            }
+            return report;
+
+        } finally {
+            for (CheckpointJournal.Reader shard : shards) {
+                if (shard != null) {
+                    shard.close();
+                }
+            }
+        }
+    }
+}
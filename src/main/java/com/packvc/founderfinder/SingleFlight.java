@@ -0,0 +1,179 @@
+package com.packvc.founderfinder;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Coalesces calls for the same key within a run.
+ * The first caller for a key runs the call; callers that arrive while it is running
+ * wait for its result instead of repeating the work, and later callers get the
+ * stored result straight away. A failed call is handed to the callers already
+ * waiting on it and then forgotten, so the next caller tries again.
+ * <p>
+ * Results are kept until {@link #clear()}, so values should be small. A long-running
+ * process can bound them instead; the least recently used results are then forgotten.
+ *
+ * @param <K> Key type
+ * @param <V> Result type
+ */
+public class SingleFlight<K, V> {
+
+    /**
+     * Work whose result is shared by every caller with the same key.
+     */
+    public interface Call<V> {
+        V call() throws IOException;
+    }
+
+    private final Map<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+
+    // Finished results, least recently used first; null when they stay in 'calls'
+    private final Map<K, V> results;
+
+    /**
+     * Creates an instance that keeps every result.
+     */
+    public SingleFlight() {
+        this.results = null;
+    }
+
+    /**
+     * Creates an instance that keeps at most {@code maxResults} finished results.
+     *
+     * @param maxResults Results kept for later callers, least recently used evicted first
+     */
+    public SingleFlight(int maxResults) {
+        this.results = new LinkedHashMap<K, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxResults;
+            }
+        };
+    }
+
+    /**
+     * Returns the result for a key, running the call only if no other caller has
+     * run it or is running it.
+     *
+     * @param key Key identifying the work
+     * @param call Work to run if this caller is the first for the key
+     * @return Result, and whether it came from another caller
+     * @throws IOException if the call failed, for this caller or the one it waited on
+     */
+    public Result<V> execute(K key, Call<V> call) throws IOException {
+        V stored = storedResult(key);
+        if (stored != null) {
+            return new Result<>(stored, true);
+        }
+
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> existing = calls.putIfAbsent(key, created);
+        if (existing != null) {
+            return new Result<>(await(existing), true);
+        }
+
+        try {
+            // A call for the key may have finished between the lookup and putIfAbsent
+            V value = storedResult(key);
+            boolean shared = value != null;
+            if (!shared) {
+                value = call.call();
+            }
+            created.complete(value);
+            if (results != null) {
+                // Stored before the call is forgotten, so no later caller misses both
+                synchronized (results) {
+                    results.put(key, value);
+                }
+                calls.remove(key, created);
+            }
+            return new Result<>(value, shared);
+        } catch (IOException | RuntimeException | Error e) {
+            calls.remove(key, created);
+            created.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Forgets every stored result.
+     */
+    public void clear() {
+        calls.clear();
+        if (results != null) {
+            synchronized (results) {
+                results.clear();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of stored results, including calls still running.
+     */
+    public int size() {
+        if (results == null) {
+            return calls.size();
+        }
+        synchronized (results) {
+            return results.size() + calls.size();
+        }
+    }
+
+    private V storedResult(K key) {
+        if (results == null) {
+            return null;
+        }
+        synchronized (results) {
+            return results.get(key);
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a shared result", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * A value returned by {@link #execute}.
+     */
+    public static class Result<V> {
+        private final V value;
+        private final boolean shared;
+
+        Result(V value, boolean shared) {
+            this.value = value;
+            this.shared = shared;
+        }
+
+        public V getValue() {
+            return value;
+        }
+
+        /**
+         * Returns true if another caller did the work and this one reused its result.
+         */
+        public boolean isShared() {
+            return shared;
+        }
+    }
+}
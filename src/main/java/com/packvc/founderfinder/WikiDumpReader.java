@@ -0,0 +1,275 @@
+package com.packvc.founderfinder;
+
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Streams the pages of a MediaWiki XML export such as enwiki-latest-pages-articles.xml.bz2.
+ * Decompression runs on its own thread ahead of the XML parser, so the two stages use
+ * separate cores; only one page is held in memory at a time.
+ */
+public class WikiDumpReader {
+
+    private static final int READ_AHEAD_CHUNK_BYTES = 1 << 20;
+    private static final int READ_AHEAD_CHUNKS = 8;
+
+    /**
+     * One page of the dump.
+     */
+    public static class Page {
+        private final String title;
+        private final int namespace;
+        private final String redirectTarget;
+        private final String text;
+
+        Page(String title, int namespace, String redirectTarget, String text) {
+            this.title = title;
+            this.namespace = namespace;
+            this.redirectTarget = redirectTarget;
+            this.text = text;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        /**
+         * Returns the namespace number; 0 for articles.
+         */
+        public int getNamespace() {
+            return namespace;
+        }
+
+        /**
+         * Returns the title this page redirects to, or null if it is not a redirect.
+         */
+        public String getRedirectTarget() {
+            return redirectTarget;
+        }
+
+        public boolean isRedirect() {
+            return redirectTarget != null;
+        }
+
+        /**
+         * Returns the wikitext of the page's last revision in the dump.
+         */
+        public String getText() {
+            return text;
+        }
+    }
+
+    /**
+     * Opens a dump file, choosing the decompressor from its extension: ".bz2"
+     * (including multistream dumps), ".gz", or plain XML.
+     *
+     * @param path Dump file
+     * @return Decompressed XML stream, read ahead on a background thread
+     * @throws IOException if the file cannot be opened
+     */
+    public static InputStream open(Path path) throws IOException {
+        InputStream file = new BufferedInputStream(Files.newInputStream(path), 1 << 16);
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        InputStream decompressed;
+        try {
+            if (name.endsWith(".bz2")) {
+                decompressed = new BZip2CompressorInputStream(file, true);
+            } else if (name.endsWith(".gz")) {
+                decompressed = new GZIPInputStream(file, 1 << 16);
+            } else {
+                decompressed = file;
+            }
+        } catch (IOException e) {
+            file.close();
+            throw e;
+        }
+        return new ReadAheadInputStream(decompressed, path.getFileName().toString());
+    }
+
+    /**
+     * Reads every page of a dump and hands it to a visitor on the calling thread.
+     *
+     * @param in Decompressed XML; not closed
+     * @param visitor Receives each page in dump order
+     * @throws IOException if the stream cannot be read or is not a MediaWiki export
+     */
+    public static void read(InputStream in, Consumer<Page> visitor) throws IOException {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        // Escaped markup in a full dump adds up to far more than the JDK's default entity budget
+        setIfSupported(factory, "http://www.oracle.com/xml/jaxp/properties/totalEntitySizeLimit", "0");
+        setIfSupported(factory, "http://www.oracle.com/xml/jaxp/properties/maxGeneralEntitySizeLimit", "0");
+
+        try {
+            XMLStreamReader xml = factory.createXMLStreamReader(in, "UTF-8");
+            try {
+                String title = null;
+                int namespace = 0;
+                String redirect = null;
+                String text = null;
+                while (xml.hasNext()) {
+                    int event = xml.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        switch (xml.getLocalName()) {
+                            case "page":
+                                title = null;
+                                namespace = 0;
+                                redirect = null;
+                                text = null;
+                                break;
+                            case "title":
+                                title = xml.getElementText();
+                                break;
+                            case "ns":
+                                namespace = parseNamespace(xml.getElementText());
+                                break;
+                            case "redirect":
+                                redirect = xml.getAttributeValue(null, "title");
+                                break;
+                            case "text":
+                                text = xml.getElementText();
+                                break;
+                            default:
+                                break;
+                        }
+                    } else if (event == XMLStreamConstants.END_ELEMENT && xml.getLocalName().equals("page")) {
+                        if (title != null) {
+                            visitor.accept(new Page(title, namespace, redirect, text != null ? text : ""));
+                        }
+                    }
+                }
+            } finally {
+                xml.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Malformed dump XML: " + e.getMessage(), e);
+        }
+    }
+
+    private static int parseNamespace(String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static void setIfSupported(XMLInputFactory factory, String property, Object value) {
+        try {
+            factory.setProperty(property, value);
+        } catch (IllegalArgumentException e) {
+            // Not the JDK's built-in StAX implementation
+        }
+    }
+
+    /**
+     * Reads its source on a background thread into a small queue of chunks, so the
+     * consumer never waits on decompression while a chunk is ready.
+     */
+    private static class ReadAheadInputStream extends InputStream {
+        private static final byte[] END = new byte[0];
+
+        private final InputStream source;
+        private final BlockingQueue<byte[]> chunks = new ArrayBlockingQueue<>(READ_AHEAD_CHUNKS);
+        private final Thread reader;
+        private volatile IOException failure;
+        private byte[] current;
+        private int position;
+
+        ReadAheadInputStream(InputStream source, String name) {
+            this.source = source;
+            this.reader = new Thread(this::fill, "read-ahead-" + name);
+            this.reader.setDaemon(true);
+            this.reader.start();
+        }
+
+        private void fill() {
+            try {
+                while (true) {
+                    byte[] chunk = source.readNBytes(READ_AHEAD_CHUNK_BYTES);
+                    if (chunk.length == 0) {
+                        break;
+                    }
+                    chunks.put(chunk);
+                }
+            } catch (IOException e) {
+                failure = e;
+            } catch (InterruptedException e) {
+                // Closed by the consumer
+                return;
+            }
+            try {
+                chunks.put(END);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * Makes sure {@link #current} has unread bytes.
+         *
+         * @return false at the end of the stream
+         */
+        private boolean ensureChunk() throws IOException {
+            while (current == null || position == current.length) {
+                if (current == END) {
+                    return false;
+                }
+                try {
+                    current = chunks.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while reading ahead", e);
+                }
+                position = 0;
+                if (current == END && failure != null) {
+                    throw failure;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return ensureChunk() ? current[position++] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (!ensureChunk()) {
+                return -1;
+            }
+            int count = Math.min(length, current.length - position);
+            System.arraycopy(current, position, buffer, offset, count);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.interrupt();
+            chunks.clear();
+            current = END;
+            source.close();
+        }
+    }
+}
@@ -1,14 +1,23 @@
 package com.packvc.founderfinder;
 
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
 
 import java.io.IOException;
+import java.net.URI;
 import java.net.URLEncoder;
+import java.net.http.HttpClient;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
 
 /**
  * Fetches Wikipedia pages for company names.
@@ -18,8 +27,217 @@ public class WikipediaFetcher {
     
     private static final String USER_AGENT = "PackVenturesFounderFinder/1.0 (+contact)";
     private static final int TIMEOUT = 12000; // 12 seconds
-    private static final int MAX_RETRIES = 3;
-    private static final int DELAY_MS = 350; // 350ms delay between requests
+    private static final String DEFAULT_BASE_URL = "https://en.wikipedia.org";
+    
+    // Shared by every worker so the whole run respects one request budget
+    private static volatile RateLimiter rateLimiter = new RateLimiter(2.0, 2);
+    
+    // Caps the requests waiting on a response at once; null means no cap
+    private static volatile Semaphore requestSlots;
+    
+    private static volatile HttpCache cache;
+    
+    private static volatile String baseUrl = DEFAULT_BASE_URL;
+    
+    private static volatile PageResolver resolver = WikipediaFetcher::resolveFromHtml;
+    
+    private static volatile RetryPolicy retryPolicy = RetryPolicy.defaults();
+    
+    // One breaker per host, so a struggling host pauses every worker at once
+    private static final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    
+    private static volatile ResolutionIndex resolutionIndex;
+    
+    private static volatile DomainIndex domainIndex;
+    
+    // Created on first use so that runs served entirely from the cache never build an HTTP client
+    private static volatile HttpTransport transport;
+    
+    private static volatile String transportName = "http-client";
+    
+    // Wraps the transport once it is created, when responses are being recorded
+    private static volatile ResponseArchive recordArchive;
+    
+    /**
+     * Replaces the rate limiter applied to every outgoing request.
+     * 
+     * @param limiter Limiter shared by all workers
+     */
+    public static void setRateLimiter(RateLimiter limiter) {
+        rateLimiter = limiter;
+    }
+    
+    /**
+     * Caps the number of requests in flight at once across all workers, on top of the
+     * rate limit. Requests over the cap wait for a slot before they are sent.
+     * 
+     * @param maxRequests Maximum concurrent requests, or 0 for no cap
+     */
+    public static void setMaxConcurrentRequests(int maxRequests) {
+        requestSlots = maxRequests > 0 ? new Semaphore(maxRequests, true) : null;
+    }
+    
+    /**
+     * Replaces the policy deciding which failed requests are retried and when.
+     * 
+     * @param policy Retry policy for every request
+     */
+    public static void setRetryPolicy(RetryPolicy policy) {
+        retryPolicy = policy;
+    }
+    
+    /**
+     * Returns the circuit breaker guarding a host, creating it on first use.
+     */
+    static CircuitBreaker circuitBreaker(String host) {
+        return circuitBreakers.computeIfAbsent(host, CircuitBreaker::new);
+    }
+    
+    /**
+     * Enables the persistent resolution index, or disables it when null.
+     * 
+     * @param index Index consulted before resolving a company
+     */
+    public static void setResolutionIndex(ResolutionIndex index) {
+        resolutionIndex = index;
+    }
+    
+    /**
+     * Enables resolution by company website domain, or disables it when null.
+     * 
+     * @param index Index consulted before resolving a company by name; articles
+     *              downloaded during resolution are added to it
+     */
+    public static void setDomainIndex(DomainIndex index) {
+        domainIndex = index;
+    }
+    
+    /**
+     * Points all requests at a different Wikipedia host, e.g. a local mock server.
+     * 
+     * @param url Scheme and host without a trailing slash, e.g. "http://localhost:8080"
+     */
+    public static void setBaseUrl(String url) {
+        baseUrl = url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+    
+    /**
+     * Returns the Wikipedia base URL all requests are sent to.
+     */
+    public static String getBaseUrl() {
+        return baseUrl;
+    }
+    
+    /**
+     * Replaces the strategy used by {@link #resolve(String)}.
+     * 
+     * @param pageResolver Resolver for company names
+     */
+    public static void setResolver(PageResolver pageResolver) {
+        resolver = pageResolver;
+    }
+    
+    /**
+     * Returns the resolver used by {@link #resolve(String)}.
+     */
+    public static PageResolver getResolver() {
+        return resolver;
+    }
+    
+    /**
+     * Builds the article URL for a page title.
+     */
+    static String articleUrl(String title) {
+        return baseUrl + "/wiki/" + URLEncoder.encode(title.replace(' ', '_'), StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Replaces the transport used for every request.
+     * 
+     * @param httpTransport Transport shared by all workers
+     */
+    public static void setTransport(HttpTransport httpTransport) {
+        transport = httpTransport;
+    }
+    
+    /**
+     * Selects the transport by its command line name without creating it, so the
+     * HTTP stack is only loaded once the first request is sent.
+     * 
+     * @param name Name accepted by {@link #createTransport(String)}
+     */
+    public static synchronized void useTransport(String name) {
+        transportName = name;
+        transport = null;
+    }
+    
+    /**
+     * Returns the transport in use, creating the selected one (by default the HTTP/2
+     * client) on first call.
+     */
+    public static HttpTransport getTransport() {
+        HttpTransport current = transport;
+        if (current == null) {
+            synchronized (WikipediaFetcher.class) {
+                if (transport == null) {
+                    HttpTransport created = createTransport(transportName);
+                    ResponseArchive archive = recordArchive;
+                    transport = archive != null ? new RecordingTransport(created, archive) : created;
+                }
+                current = transport;
+            }
+        }
+        return current;
+    }
+    
+    /**
+     * Records every response from now on to an archive, which a local stand-in can
+     * replay in place of Wikipedia. Responses served from the cache are not recorded.
+     * 
+     * @param archive Archive receiving the responses
+     */
+    public static synchronized void recordTo(ResponseArchive archive) {
+        recordArchive = archive;
+        if (transport != null) {
+            transport = new RecordingTransport(transport, archive);
+        }
+    }
+    
+    /**
+     * Creates a transport by its command line name.
+     * 
+     * @param name "http-client" for the shared HTTP/2 client, "http1" for the same client
+     *             limited to HTTP/1.1, or "jsoup"
+     * @throws IllegalArgumentException if the name is not a known transport
+     */
+    public static HttpTransport createTransport(String name) {
+        switch (name) {
+            case "http-client":
+                return new HttpClientTransport(USER_AGENT, HttpClient.Version.HTTP_2);
+            case "http1":
+                return new HttpClientTransport(USER_AGENT, HttpClient.Version.HTTP_1_1);
+            case "jsoup":
+                return new JsoupTransport(USER_AGENT);
+            default:
+                throw new IllegalArgumentException("Unknown transport: " + name);
+        }
+    }
+    
+    /**
+     * Enables the on-disk response cache, or disables it when null.
+     * 
+     * @param httpCache Cache consulted before every request
+     */
+    public static void setCache(HttpCache httpCache) {
+        cache = httpCache;
+    }
+    
+    /**
+     * Returns the response cache in use, or null if caching is disabled.
+     */
+    public static HttpCache getCache() {
+        return cache;
+    }
     
     /**
      * Fetches a document from the given URL with retry logic.
@@ -29,47 +247,214 @@ public class WikipediaFetcher {
      * @throws IOException if all retries fail
      */
     public static Document fetch(String url) throws IOException {
-        IOException lastException = null;
+        return fetchBody(url).parse();
+    }
+    
+    /**
+     * Fetches the raw body of the given URL, serving it from the cache when possible.
+     * Stale cache entries are revalidated with a conditional request. Failures are
+     * retried according to the retry policy, and every request first waits for the
+     * host's circuit breaker.
+     * 
+     * @param url URL to fetch
+     * @return Page body
+     * @throws FetchException if the server answers with a client error such as 404
+     * @throws IOException if all retries fail, or in offline mode if the URL is not cached
+     */
+    public static PageBody fetchBody(String url) throws IOException {
+        return fetchBody(url, false);
+    }
+    
+    /**
+     * Fetches the raw body of the given URL, optionally revalidating a cached copy
+     * even while it is fresh, for callers that know the page has changed.
+     * 
+     * @param url URL to fetch
+     * @param revalidate If true, a cached copy is only reused after a conditional request
+     * @return Page body
+     * @throws FetchException if the server answers with a client error such as 404
+     * @throws IOException if all retries fail, or in offline mode if the URL is not cached
+     */
+    static PageBody fetchBody(String url, boolean revalidate) throws IOException {
+        return fetchBody(url, revalidate, null);
+    }
+    
+    /**
+     * Fetches the body of the given URL, reading it only as far as a fresh limit from
+     * the supplier asks, one limit per attempt. When a cache is configured the whole
+     * body is read anyway, so that the cache only ever holds complete pages.
+     * 
+     * @param url URL to fetch
+     * @param revalidate If true, a cached copy is only reused after a conditional request
+     * @param limits Supplies the read limit for each attempt, or null to read whole bodies
+     * @return Page body, possibly a prefix; see {@link PageBody#isComplete()}
+     * @throws FetchException if the server answers with a client error such as 404
+     * @throws IOException if all retries fail, or in offline mode if the URL is not cached
+     */
+    static PageBody fetchBody(String url, boolean revalidate, Supplier<? extends HttpTransport.ReadLimit> limits)
+            throws IOException {
+        HttpCache httpCache = cache;
+        HttpCache.Entry cached = null;
+        
+        if (httpCache != null) {
+            cached = httpCache.lookup(url);
+            if (cached != null && ((cached.isFresh() && !revalidate) || httpCache.isOffline())) {
+                httpCache.recordHit();
+                Metrics.increment(Metrics.Counter.CACHE_HITS);
+                Log.debug("  Cache hit: " + url);
+                return cached.getPage();
+            }
+            httpCache.recordMiss();
+            Metrics.increment(Metrics.Counter.CACHE_MISSES);
+            if (httpCache.isOffline()) {
+                throw new IOException("Offline mode: no cached copy of " + url);
+            }
+        }
+        
+        RetryPolicy policy = retryPolicy;
+        CircuitBreaker breaker = circuitBreaker(URI.create(url).getHost());
         
-        for (int attempt = 1; attempt <= MAX_RETRIES; attempt++) {
+        for (int attempt = 1; ; attempt++) {
             try {
-                System.out.println("  Fetching: " + url + " (attempt " + attempt + ")");
+                breaker.acquire();
+                rateLimiter.acquire();
+            } catch (InterruptedException e) {
+                breaker.release();
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted during request", e);
+            }
+            
+            try {
+                Log.debug("  Fetching: " + url + " (attempt " + attempt + ")");
+                Metrics.increment(Metrics.Counter.HTTP_REQUESTS);
+                
+                Map<String, String> headers = new HashMap<>();
+                PageBody stale = cached != null ? cached.getPage() : null;
+                if (stale != null && stale.getEtag() != null) {
+                    headers.put("If-None-Match", stale.getEtag());
+                }
+                if (stale != null && stale.getLastModified() != null) {
+                    headers.put("If-Modified-Since", stale.getLastModified());
+                }
                 
-                Document doc = Jsoup.connect(url)
-                    .userAgent(USER_AGENT)
-                    .timeout(TIMEOUT)
-                    .followRedirects(true)
-                    .get();
+                long start;
+                HttpTransport.Response response;
+                Semaphore slots = acquireRequestSlot();
+                try {
+                    start = System.nanoTime();
+                    response = limits != null && httpCache == null
+                        ? getTransport().get(url, headers, TIMEOUT, limits.get())
+                        : getTransport().get(url, headers, TIMEOUT);
+                } finally {
+                    if (slots != null) {
+                        slots.release();
+                    }
+                }
+                long elapsed = System.nanoTime() - start;
+                breaker.recordSuccess();
+                Metrics.recordLatency(Metrics.Stage.FETCH, elapsed);
+                Metrics.recordRequest(URI.create(url).getHost(), response.getProtocol(),
+                                      response.getWireBytes(), response.getBody().length, elapsed);
+                Metrics.add(Metrics.Counter.BYTES_DOWNLOADED, response.getWireBytes());
                 
-                // Add delay after successful request
-                if (attempt < MAX_RETRIES) {
-                    Thread.sleep(DELAY_MS);
+                if (response.getStatusCode() == 304 && cached != null) {
+                    Metrics.increment(Metrics.Counter.CACHE_REVALIDATIONS);
+                    Log.debug("  Not modified, reusing cached copy: " + url);
+                    httpCache.markRevalidated(url, cached);
+                    return stale;
                 }
                 
-                return doc;
+                PageBody body = new PageBody(
+                    response.getUrl(),
+                    response.getBody(),
+                    response.getCharset(),
+                    response.header("ETag"),
+                    response.header("Last-Modified"),
+                    response.isComplete());
+                
+                if (!body.isComplete()) {
+                    Metrics.increment(Metrics.Counter.PARTIAL_DOWNLOADS);
+                    Log.debug("  Stopped reading after " + response.getBody().length + " bytes: " + url);
+                } else if (httpCache != null) {
+                    httpCache.store(url, body);
+                }
+                return body;
                 
             } catch (IOException e) {
-                lastException = e;
-                System.err.println("  Attempt " + attempt + " failed: " + e.getMessage());
+                if (Thread.currentThread().isInterrupted()) {
+                    breaker.release();
+                    throw e;
+                }
+                
+                if (RetryPolicy.isHostFailure(e)) {
+                    breaker.recordFailure(RetryPolicy.retryAfterMillis(e));
+                } else {
+                    // The host answered; a 404 says nothing about its health
+                    breaker.recordSuccess();
+                    Metrics.increment(Metrics.Counter.HTTP_CLIENT_ERRORS);
+                }
                 
-                if (attempt < MAX_RETRIES) {
-                    try {
-                        // Exponential backoff: 500ms, 1000ms, 2000ms
-                        int backoffMs = 500 * (int) Math.pow(2, attempt - 1);
-                        System.out.println("  Retrying in " + backoffMs + "ms...");
-                        Thread.sleep(backoffMs);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        throw new IOException("Interrupted during retry", ie);
+                if (!policy.shouldRetry(attempt, e)) {
+                    Log.debug("  Attempt " + attempt + " failed for " + url + ": " + e.getMessage());
+                    Metrics.increment(Metrics.Counter.HTTP_FAILURES);
+                    if (e instanceof FetchException) {
+                        throw e;
                     }
+                    throw new IOException("Failed to fetch " + url + " after " + attempt + " attempts", e);
                 }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                throw new IOException("Interrupted during request", e);
+                
+                long delayMs = policy.delayMillis(attempt, e);
+                Log.warn("  Attempt " + attempt + " failed for " + url + ": " + e.getMessage() + 
+                         "; retrying in " + delayMs + "ms");
+                Metrics.increment(Metrics.Counter.HTTP_RETRIES);
+                try {
+                    Thread.sleep(delayMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted during retry", ie);
+                }
+            } catch (RuntimeException e) {
+                // Never leave the breaker waiting on a probe that will not report back
+                breaker.release();
+                throw e;
             }
         }
-        
-        throw new IOException("Failed to fetch " + url + " after " + MAX_RETRIES + " attempts", lastException);
+    }
+    
+    /**
+     * Waits for a free request slot when concurrent requests are capped.
+     * 
+     * @return Semaphore to release once the response is in, or null if requests are not capped
+     */
+    private static Semaphore acquireRequestSlot() throws IOException {
+        Semaphore slots = requestSlots;
+        if (slots == null || slots.tryAcquire()) {
+            return slots;
+        }
+        long start = System.nanoTime();
+        try {
+            slots.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a request slot", e);
+        }
+        Metrics.add(Metrics.Counter.REQUEST_SLOT_WAIT_MS, (System.nanoTime() - start) / 1_000_000);
+        return slots;
+    }
+    
+    /**
+     * Records that an article was not fetched because an already downloaded copy was reused,
+     * either from resolution or from another company resolving to the same article.
+     */
+    static void recordSavedFetch() {
+        Metrics.increment(Metrics.Counter.SAVED_FETCHES);
+    }
+    
+    /**
+     * Returns how many article fetches were avoided in this run by reusing downloaded articles.
+     */
+    public static int getSavedFetchCount() {
+        return (int) Metrics.get(Metrics.Counter.SAVED_FETCHES);
     }
     
     /**
@@ -80,45 +465,206 @@ public class WikipediaFetcher {
      */
     public static Optional<String> resolveWikipediaPage(String companyName) {
         try {
-            // Step 1: Try direct slug approach
-            String directUrl = buildDirectUrl(companyName);
-            System.out.println("Trying direct URL for '" + companyName + "': " + directUrl);
-            
-            try {
-                Document doc = fetch(directUrl);
-                
-                // Check if we got a valid article (not a disambiguation or search page)
-                if (isValidArticle(doc, companyName)) {
-                    System.out.println("  ✓ Direct URL works: " + directUrl);
-                    return Optional.of(directUrl);
-                } else {
-                    System.out.println("  ✗ Direct URL not suitable (disambiguation or search page)");
+            return resolve(companyName).map(ResolvedPage::getUrl);
+        } catch (IOException e) {
+            Log.warn("Error resolving Wikipedia page for '" + companyName + "': " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+    
+    /**
+     * Resolves a company name to its Wikipedia article using the configured resolver.
+     * 
+     * @param companyName Name of the company
+     * @return Optional containing the resolved page if found
+     * @throws IOException if resolution could not finish
+     */
+    public static Optional<ResolvedPage> resolve(String companyName) throws IOException {
+        return resolve(companyName, null);
+    }
+    
+    /**
+     * Resolves a company to its Wikipedia article. The resolution index is consulted
+     * first, then the domain index for companies with a website, and only then the
+     * resolver; what the resolver finds is recorded in both indexes.
+     * 
+     * @param companyName Name of the company
+     * @param companyUrl Company website, or null; distinguishes companies sharing a name
+     * @return Optional containing the resolved page if found
+     * @throws IOException if resolution could not finish
+     */
+    public static Optional<ResolvedPage> resolve(String companyName, String companyUrl) throws IOException {
+        ResolutionIndex index = resolutionIndex;
+        String wiki = baseUrl;
+        if (index != null) {
+            ResolutionIndex.Entry entry = index.lookup(wiki, companyName, companyUrl);
+            if (entry != null) {
+                if (entry.isNotFound()) {
+                    Log.debug("  Resolution index: no article for '" + companyName + "'");
+                    return Optional.empty();
                 }
-                
-            } catch (IOException e) {
-                System.out.println("  ✗ Direct URL failed: " + e.getMessage());
+                Log.debug("  Resolution index: '" + companyName + "' -> " + entry.getTitle());
+                return Optional.of(new ResolvedPage(articleUrl(entry.getTitle()), null));
             }
+        }
+        
+        Optional<ResolvedPage> page = resolveByDomain(companyName, companyUrl);
+        if (!page.isPresent()) {
+            page = resolver.resolve(companyName);
+            if (page.isPresent()) {
+                checkWebsite(companyName, companyUrl, page.get());
+            }
+        }
+        
+        if (index != null) {
+            if (page.isPresent()) {
+                String title = ResolutionIndex.titleFromUrl(page.get().getUrl());
+                if (title != null) {
+                    index.recordFound(wiki, companyName, companyUrl, title);
+                }
+            } else {
+                index.recordNotFound(wiki, companyName, companyUrl);
+            }
+        }
+        return page;
+    }
+    
+    /**
+     * Resolves a company through the domain index without any request.
+     * 
+     * @return The article whose infobox lists the company's website, or empty if
+     *         there is no domain index, no website or no single matching article
+     */
+    private static Optional<ResolvedPage> resolveByDomain(String companyName, String companyUrl) {
+        DomainIndex domains = domainIndex;
+        String title = domains != null ? domains.lookup(companyName, companyUrl) : null;
+        if (title == null) {
+            return Optional.empty();
+        }
+        Log.debug("  ✓ Domain index: '" + companyName + "' (" + companyUrl + ") -> " + title);
+        Metrics.increment(Metrics.Counter.RESOLVED_DOMAIN);
+        return Optional.of(new ResolvedPage(articleUrl(title), null));
+    }
+    
+    /**
+     * Compares the website in a downloaded article's infobox with the company's own,
+     * counting a mismatch as a likely wrong article, and adds the article to the
+     * domain index. Articles resolved without a download are not checked.
+     */
+    private static void checkWebsite(String companyName, String companyUrl, ResolvedPage page) {
+        DomainIndex domains = domainIndex;
+        Element infobox = domains != null ? page.peekInfobox() : null;
+        if (infobox == null) {
+            return;
+        }
+        Set<String> websites = DomainIndex.websiteDomains(infobox);
+        if (websites.isEmpty()) {
+            return;
+        }
+        
+        String companyDomain = ResolutionIndex.domainOf(companyUrl);
+        if (companyDomain != null && !DomainIndex.sameSite(companyDomain, websites)) {
+            Metrics.increment(Metrics.Counter.DOMAIN_MISMATCHES);
+            Log.debug("  ✗ " + page.getUrl() + " lists " + websites + ", not " + companyDomain + 
+                      "; it may not be the article for '" + companyName + "'");
+        }
+        String title = ResolutionIndex.titleFromUrl(page.getCanonicalUrl());
+        if (title != null) {
+            domains.add(title, infobox);
+        }
+    }
+    
+    /**
+     * Hands upcoming companies that the resolution and domain indexes cannot answer
+     * to the resolver, so it can look them up in bulk.
+     * 
+     * @param companies Companies that will be resolved soon
+     */
+    public static void prepare(List<Company> companies) {
+        ResolutionIndex index = resolutionIndex;
+        DomainIndex domains = domainIndex;
+        List<String> names = new ArrayList<>();
+        for (Company company : companies) {
+            if ((index == null || !index.contains(baseUrl, company.getName(), company.getUrl()))
+                    && (domains == null || domains.lookup(company.getName(), company.getUrl()) == null)) {
+                names.add(company.getName());
+            }
+        }
+        if (!names.isEmpty()) {
+            resolver.prepare(names);
+        }
+    }
+    
+    /**
+     * Resolves a company name by fetching rendered HTML pages: the direct slug first,
+     * then the on-site search results. The direct slug is read only until an
+     * {@link ArticleProbe} can tell whether it is an article, so a disambiguation page
+     * is usually dropped at its head and an article is read up to the end of its
+     * infobox; when the direct slug works, the returned page
+     * carries what was read.
+     * 
+     * @param companyName Name of the company
+     * @return Optional containing the resolved page if found
+     * @throws IOException if the search request fails, or if the search finds nothing
+     *         after the direct URL failed for a reason other than a missing page
+     */
+    public static Optional<ResolvedPage> resolveFromHtml(String companyName) throws IOException {
+        // Step 1: Try direct slug approach
+        String directUrl = buildDirectUrl(companyName);
+        Log.debug("Trying direct URL for '" + companyName + "': " + directUrl);
+        IOException directFailure = null;
+        
+        try {
+            // Read only until the page is known to be useless or its infobox is in
+            PageBody body = fetchBody(directUrl, false, ArticleProbe::new);
+            ArticleProbe probe = ArticleProbe.inspect(body);
             
-            // Step 2: Use Wikipedia search
-            System.out.println("Trying Wikipedia search for '" + companyName + "'");
-            String searchUrl = buildSearchUrl(companyName);
-            System.out.println("Search URL: " + searchUrl);
-            
-            Document searchDoc = fetch(searchUrl);
-            String articleUrl = extractFirstArticleLink(searchDoc);
-            
-            if (articleUrl != null) {
-                System.out.println("  ✓ Found article via search: " + articleUrl);
-                return Optional.of(articleUrl);
+            // Check if we got a valid article (not a disambiguation or search page)
+            if (probe.isRejected()) {
+                Metrics.increment(Metrics.Counter.PROBE_REJECTIONS);
+                Log.debug("  ✗ Direct URL not suitable (" + probe.getVerdict() + ")");
+            } else if (probe.isDecided()) {
+                Log.debug("  ✓ Direct URL works: " + directUrl);
+                Metrics.increment(Metrics.Counter.RESOLVED_DIRECT);
+                return Optional.of(ResolvedPage.downloaded(directUrl, body));
             } else {
-                System.out.println("  ✗ No suitable article found in search results");
-                return Optional.empty();
+                // Nothing conclusive before the end of the page; classify the whole of it
+                Document doc = body.parse();
+                if (isValidArticle(doc, companyName)) {
+                    Log.debug("  ✓ Direct URL works: " + directUrl);
+                    Metrics.increment(Metrics.Counter.RESOLVED_DIRECT);
+                    return Optional.of(new ResolvedPage(directUrl, doc));
+                }
+                Log.debug("  ✗ Direct URL not suitable (disambiguation or search page)");
             }
             
-        } catch (Exception e) {
-            System.err.println("Error resolving Wikipedia page for '" + companyName + "': " + e.getMessage());
-            return Optional.empty();
+        } catch (IOException e) {
+            Log.debug("  ✗ Direct URL failed: " + e.getMessage());
+            if (RetryPolicy.isHostFailure(e)) {
+                directFailure = e;
+            }
+        }
+        
+        // Step 2: Use Wikipedia search
+        Log.debug("Trying Wikipedia search for '" + companyName + "'");
+        String searchUrl = buildSearchUrl(companyName);
+        Log.debug("Search URL: " + searchUrl);
+        
+        Document searchDoc = fetch(searchUrl);
+        String articleUrl = extractFirstArticleLink(searchDoc);
+        
+        if (articleUrl != null) {
+            Log.debug("  ✓ Found article via search: " + articleUrl);
+            Metrics.increment(Metrics.Counter.RESOLVED_SEARCH);
+            return Optional.of(new ResolvedPage(articleUrl, null));
+        }
+        if (directFailure != null) {
+            // The direct article may well exist; do not report it as missing
+            throw directFailure;
         }
+        Log.debug("  ✗ No suitable article found in search results");
+        Metrics.increment(Metrics.Counter.UNRESOLVED);
+        return Optional.empty();
     }
     
     /**
@@ -126,7 +672,7 @@ public class WikipediaFetcher {
      */
     private static String buildDirectUrl(String companyName) {
         String slug = companyName.replaceAll("\\s+", "_");
-        return "https://en.wikipedia.org/wiki/" + URLEncoder.encode(slug, StandardCharsets.UTF_8);
+        return baseUrl + "/wiki/" + URLEncoder.encode(slug, StandardCharsets.UTF_8);
     }
     
     /**
@@ -134,13 +680,13 @@ public class WikipediaFetcher {
      */
     private static String buildSearchUrl(String companyName) {
         String encodedName = URLEncoder.encode(companyName, StandardCharsets.UTF_8);
-        return "https://en.wikipedia.org/w/index.php?search=" + encodedName;
+        return baseUrl + "/w/index.php?search=" + encodedName;
     }
     
     /**
      * Checks if a document represents a valid article (not disambiguation/search).
      */
-    private static boolean isValidArticle(Document doc, String companyName) {
+    static boolean isValidArticle(Document doc, String companyName) {
         // Check for disambiguation page indicators
         if (doc.select("div#disambig").size() > 0) {
             return false;
@@ -172,7 +718,7 @@ public class WikipediaFetcher {
     /**
      * Extracts the first valid article link from search results.
      */
-    private static String extractFirstArticleLink(Document searchDoc) {
+    static String extractFirstArticleLink(Document searchDoc) {
         // Look for article links in search results
         Elements links = searchDoc.select("div.searchresults a[href^='/wiki/']");
         
@@ -191,8 +737,8 @@ public class WikipediaFetcher {
             }
             
             // This looks like a valid article
-            String fullUrl = "https://en.wikipedia.org" + href;
-            System.out.println("  Found candidate: " + title + " -> " + fullUrl);
+            String fullUrl = baseUrl + href;
+            Log.debug("  Found candidate: " + title + " -> " + fullUrl);
             return fullUrl;
         }
         
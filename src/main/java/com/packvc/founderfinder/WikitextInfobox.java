@@ -0,0 +1,383 @@
+package com.packvc.founderfinder;
+
+import org.jsoup.parser.Parser;
+
+import java.util.*;
+
+/**
+ * Reads founders and websites from the infobox in an article's wikitext, as found
+ * in Wikipedia dumps, without rendering the page. Values are reduced to the same
+ * cell-like text the HTML extractor sees, so FounderExtractor's splitting,
+ * normalization and validation rules apply unchanged.
+ */
+public class WikitextInfobox {
+
+    // Templates whose arguments are list items
+    private static final Set<String> LIST_TEMPLATES = new HashSet<>(Arrays.asList(
+        "plainlist", "plain list", "unbulleted list", "ubl", "ubil", "hlist", "flatlist", "flat list",
+        "bulleted list", "blist", "collapsible list", "indented plainlist", "nowrap list"));
+
+    // Templates that only wrap their first argument
+    private static final Set<String> WRAPPER_TEMPLATES = new HashSet<>(Arrays.asList(
+        "nowrap", "nobr", "nobold", "small", "interlanguage link", "ill", "url", "official url"));
+
+    private final Map<String, String> params;
+
+    private WikitextInfobox(Map<String, String> params) {
+        this.params = params;
+    }
+
+    /**
+     * Finds the first infobox in an article that has a founder field, or failing
+     * that the first infobox.
+     *
+     * @param wikitext Article source
+     * @return Infobox, or null if the article has none
+     */
+    public static WikitextInfobox find(String wikitext) {
+        WikitextInfobox first = null;
+        int from = 0;
+        int start;
+        while ((start = indexOfIgnoreCase(wikitext, "{{infobox", from)) != -1) {
+            int end = templateEnd(wikitext, start);
+            if (end == -1) {
+                break;
+            }
+            WikitextInfobox infobox = new WikitextInfobox(parseParams(wikitext.substring(start + 2, end - 2)));
+            if (infobox.founderWikitext() != null) {
+                return infobox;
+            }
+            if (first == null) {
+                first = infobox;
+            }
+            from = end;
+        }
+        return first;
+    }
+
+    /**
+     * Returns the founders listed in the infobox, normalized and validated exactly
+     * like names taken from a rendered infobox.
+     */
+    public List<String> getFounders() {
+        String value = founderWikitext();
+        if (value == null) {
+            return new ArrayList<>();
+        }
+        return FounderExtractor.extractNames(toCellText(value));
+    }
+
+    /**
+     * Returns the official website domains in the infobox, without a leading "www.".
+     */
+    public Set<String> getWebsiteDomains() {
+        Set<String> domains = new LinkedHashSet<>();
+        for (Map.Entry<String, String> param : params.entrySet()) {
+            if (InfoboxScanner.fieldOf(param.getKey()) != InfoboxScanner.Field.WEBSITE) {
+                continue;
+            }
+            String value = param.getValue();
+            for (String token : toCellText(stripExternalLinkLabels(value)).split("[\\s,;<>]+")) {
+                if (token.indexOf('.') > 0) {
+                    String domain = ResolutionIndex.domainOf(token.contains("://") ? token : "http://" + token);
+                    if (domain != null && domain.indexOf('.') > 0) {
+                        domains.add(domain);
+                    }
+                }
+            }
+        }
+        return domains;
+    }
+
+    /**
+     * Returns the first non-empty parameter that InfoboxScanner reads as founders,
+     * so the dump and the rendered pages share one set of header aliases.
+     */
+    private String founderWikitext() {
+        for (Map.Entry<String, String> param : params.entrySet()) {
+            if (InfoboxScanner.fieldOf(param.getKey()) == InfoboxScanner.Field.FOUNDERS
+                    && !param.getValue().trim().isEmpty()) {
+                return param.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Splits a template body into named parameters in template order, keyed by
+     * lower-cased name with underscores read as spaces. Positional parameters are ignored.
+     */
+    private static Map<String, String> parseParams(String body) {
+        Map<String, String> params = new LinkedHashMap<>();
+        List<String> parts = splitTopLevel(body);
+        for (int i = 1; i < parts.size(); i++) {
+            String part = parts.get(i);
+            int equals = part.indexOf('=');
+            int nested = firstNesting(part);
+            if (equals <= 0 || (nested != -1 && nested < equals)) {
+                continue;
+            }
+            String name = part.substring(0, equals).trim().replace('_', ' ').toLowerCase(Locale.ROOT);
+            params.putIfAbsent(name, part.substring(equals + 1).trim());
+        }
+        return params;
+    }
+
+    /**
+     * Reduces wikitext to plain text with {@code <br>} tags and newlines between list
+     * items: comments, references and unknown templates are dropped, links are
+     * replaced by their labels and list templates by their items.
+     */
+    static String toCellText(String wikitext) {
+        String text = stripComments(wikitext);
+        text = stripRefs(text);
+        StringBuilder out = new StringBuilder(text.length());
+        render(text, out);
+
+        // List bullets become separators, bold and italic quotes disappear
+        StringBuilder cleaned = new StringBuilder(out.length());
+        for (String line : out.toString().split("\n")) {
+            String trimmed = line.trim();
+            int bullets = 0;
+            while (bullets < trimmed.length() && (trimmed.charAt(bullets) == '*' || trimmed.charAt(bullets) == '#')) {
+                bullets++;
+            }
+            cleaned.append(trimmed.substring(bullets).replace("'''", "").replace("''", "")).append('\n');
+        }
+        return Parser.unescapeEntities(cleaned.toString(), false);
+    }
+
+    private static void render(String text, StringBuilder out) {
+        int i = 0;
+        while (i < text.length()) {
+            if (text.startsWith("{{", i)) {
+                int end = templateEnd(text, i);
+                if (end == -1) {
+                    out.append(text, i, text.length());
+                    return;
+                }
+                renderTemplate(text.substring(i + 2, end - 2), out);
+                i = end;
+            } else if (text.startsWith("[[", i)) {
+                int end = linkEnd(text, i);
+                if (end == -1) {
+                    out.append(text, i, text.length());
+                    return;
+                }
+                renderLink(text.substring(i + 2, end - 2), out);
+                i = end;
+            } else if (text.charAt(i) == '[' && isExternalLinkStart(text, i + 1)) {
+                int end = text.indexOf(']', i);
+                if (end == -1) {
+                    out.append(text, i, text.length());
+                    return;
+                }
+                String link = text.substring(i + 1, end);
+                int space = link.indexOf(' ');
+                out.append(space == -1 ? link : link.substring(space + 1));
+                i = end + 1;
+            } else {
+                out.append(text.charAt(i));
+                i++;
+            }
+        }
+    }
+
+    private static void renderTemplate(String body, StringBuilder out) {
+        List<String> parts = splitTopLevel(body);
+        String name = parts.get(0).trim().replace('_', ' ').toLowerCase(Locale.ROOT);
+        List<String> args = new ArrayList<>();
+        for (int i = 1; i < parts.size(); i++) {
+            String part = parts.get(i);
+            int equals = part.indexOf('=');
+            int nested = firstNesting(part);
+            if (equals > 0 && (nested == -1 || equals < nested)) {
+                // Named arguments such as class= or title= are styling, not content
+                continue;
+            }
+            args.add(part);
+        }
+
+        if (LIST_TEMPLATES.contains(name)) {
+            out.append('\n');
+            for (String arg : args) {
+                render(arg, out);
+                out.append('\n');
+            }
+        } else if (WRAPPER_TEMPLATES.contains(name) && !args.isEmpty()) {
+            render(args.get(0), out);
+        }
+        // Anything else (citations, notes, dates) carries no names
+    }
+
+    private static void renderLink(String body, StringBuilder out) {
+        int colon = body.indexOf(':');
+        int pipe = body.indexOf('|');
+        if (colon > 0 && (pipe == -1 || colon < pipe)) {
+            String namespace = body.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+            if (namespace.equals("file") || namespace.equals("image") || namespace.equals("category")) {
+                return;
+            }
+        }
+        render(pipe == -1 ? body : body.substring(pipe + 1), out);
+    }
+
+    /**
+     * Splits on '|' outside nested templates and links.
+     */
+    private static List<String> splitTopLevel(String body) {
+        List<String> parts = new ArrayList<>();
+        int templates = 0;
+        int links = 0;
+        int start = 0;
+        for (int i = 0; i < body.length(); i++) {
+            if (body.startsWith("{{", i)) {
+                templates++;
+                i++;
+            } else if (body.startsWith("}}", i) && templates > 0) {
+                templates--;
+                i++;
+            } else if (body.startsWith("[[", i)) {
+                links++;
+                i++;
+            } else if (body.startsWith("]]", i) && links > 0) {
+                links--;
+                i++;
+            } else if (body.charAt(i) == '|' && templates == 0 && links == 0) {
+                parts.add(body.substring(start, i));
+                start = i + 1;
+            }
+        }
+        parts.add(body.substring(start));
+        return parts;
+    }
+
+    /**
+     * Returns the index just past the "}}" closing the template that starts at {@code start}, or -1.
+     */
+    private static int templateEnd(String text, int start) {
+        int depth = 0;
+        for (int i = start; i < text.length() - 1; i++) {
+            if (text.charAt(i) == '{' && text.charAt(i + 1) == '{') {
+                depth++;
+                i++;
+            } else if (text.charAt(i) == '}' && text.charAt(i + 1) == '}') {
+                depth--;
+                i++;
+                if (depth == 0) {
+                    return i + 1;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index just past the "]]" closing the link that starts at {@code start}, or -1.
+     */
+    private static int linkEnd(String text, int start) {
+        int depth = 0;
+        for (int i = start; i < text.length() - 1; i++) {
+            if (text.charAt(i) == '[' && text.charAt(i + 1) == '[') {
+                depth++;
+                i++;
+            } else if (text.charAt(i) == ']' && text.charAt(i + 1) == ']') {
+                depth--;
+                i++;
+                if (depth == 0) {
+                    return i + 1;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static int firstNesting(String part) {
+        int template = part.indexOf("{{");
+        int link = part.indexOf("[[");
+        if (template == -1) {
+            return link;
+        }
+        return link == -1 ? template : Math.min(template, link);
+    }
+
+    private static boolean isExternalLinkStart(String text, int i) {
+        return text.startsWith("http://", i) || text.startsWith("https://", i) || text.startsWith("//", i);
+    }
+
+    /**
+     * Keeps only the URL of "[https://example.com Example]" links, so the label is not
+     * mistaken for a host name.
+     */
+    private static String stripExternalLinkLabels(String wikitext) {
+        StringBuilder out = new StringBuilder(wikitext.length());
+        int i = 0;
+        while (i < wikitext.length()) {
+            if (wikitext.charAt(i) == '[' && isExternalLinkStart(wikitext, i + 1)) {
+                int end = wikitext.indexOf(']', i);
+                if (end != -1) {
+                    String link = wikitext.substring(i + 1, end);
+                    int space = link.indexOf(' ');
+                    out.append(' ').append(space == -1 ? link : link.substring(0, space)).append(' ');
+                    i = end + 1;
+                    continue;
+                }
+            }
+            out.append(wikitext.charAt(i));
+            i++;
+        }
+        return out.toString();
+    }
+
+    private static String stripComments(String text) {
+        StringBuilder out = new StringBuilder(text.length());
+        int i = 0;
+        int start;
+        while ((start = text.indexOf("<!--", i)) != -1) {
+            out.append(text, i, start);
+            int end = text.indexOf("-->", start + 4);
+            if (end == -1) {
+                return out.toString();
+            }
+            i = end + 3;
+        }
+        return out.append(text, i, text.length()).toString();
+    }
+
+    /**
+     * Removes {@code <ref>...</ref>} and {@code <ref ... />} footnotes.
+     */
+    private static String stripRefs(String text) {
+        StringBuilder out = new StringBuilder(text.length());
+        int i = 0;
+        int start;
+        while ((start = indexOfIgnoreCase(text, "<ref", i)) != -1) {
+            out.append(text, i, start);
+            int tagEnd = text.indexOf('>', start);
+            if (tagEnd == -1) {
+                return out.toString();
+            }
+            if (text.charAt(tagEnd - 1) == '/') {
+                i = tagEnd + 1;
+                continue;
+            }
+            int close = indexOfIgnoreCase(text, "</ref>", tagEnd);
+            i = close == -1 ? tagEnd + 1 : close + "</ref>".length();
+        }
+        return out.append(text, i, text.length()).toString();
+    }
+
+    /**
+     * Case-insensitive indexOf for targets that start with a non-letter such as '{' or '<',
+     * which lets the scan jump between occurrences of that first character.
+     */
+    private static int indexOfIgnoreCase(String text, String target, int from) {
+        int last = text.length() - target.length();
+        for (int i = text.indexOf(target.charAt(0), from); i != -1 && i <= last; i = text.indexOf(target.charAt(0), i + 1)) {
+            if (text.regionMatches(true, i, target, 0, target.length())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}